@@ -0,0 +1,29 @@
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <h1>VirtualThreads</h1>
+ * <p>
+ * Stands in for the Java 21 version (in src-jdk21) on older JDKs, which have
+ * no virtual threads. This is the version built by default, and by the
+ * Eclipse project.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+final class VirtualThreads {
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Would get a factory for virtual threads.
+	 * 
+	 * @param prefix
+	 *            The start of each thread's name.
+	 * @return null, as there are no virtual threads.
+	 */
+	static ThreadFactory factory(String prefix) {
+		return null;
+	}
+}
@@ -0,0 +1,29 @@
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <h1>VirtualThreads</h1>
+ * <p>
+ * Creates virtual threads, on Java 21 or later. This is the version built
+ * when Maven runs on JDK 21 or later (the jdk21 profile); older JDKs build
+ * the one in src-jdk17 instead, which has none.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+final class VirtualThreads {
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Gets a factory for virtual threads, named prefix0, prefix1 and so on.
+	 * 
+	 * @param prefix
+	 *            The start of each thread's name.
+	 * @return the factory.
+	 */
+	static ThreadFactory factory(String prefix) {
+		return Thread.ofVirtual().name(prefix, 0).factory();
+	}
+}
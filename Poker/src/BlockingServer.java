@@ -0,0 +1,336 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h1>BlockingServer</h1>
+ * <p>
+ * Looks after each client with two threads of its own: one that blocks
+ * reading the client's messages, and one that blocks waiting for messages to
+ * write to it. Neither thread ever sleeps or polls; each one only wakes up
+ * when there is something to pass on. The messages are read and written as
+ * bytes through small buffers, instead of through readers and writers (which
+ * have 8 KB buffers of their own), so a client that is only waiting holds on
+ * to very little memory.
+ * </p>
+ * <p>
+ * On Java 21 or later the threads can be virtual threads, which park instead
+ * of holding on to a platform thread while they wait, so a waiting client
+ * costs about as little as it does with an NioServer while the code stays as
+ * simple as one thread per client. They are only there when the server is
+ * built on JDK 21 or later (see VirtualThreads), so it still builds and runs
+ * on older versions of Java.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class BlockingServer extends ConnectionServer {
+	private static final int BUFFER_SIZE = 512;
+
+	private int port;
+	private boolean virtual;
+	private ThreadFactory threads;
+	private ConnectionListener listener;
+	private ServerSocket serverSocket;
+	private Set<BlockingConnection> connections;
+	private volatile boolean running;
+
+	/**
+	 * Creates a server, which doesn't accept clients until it is started.
+	 * 
+	 * @param port
+	 *            The port to listen on (0 for any free port).
+	 * @param virtual
+	 *            Whether each client's threads are virtual threads (which
+	 *            needs a server built on JDK 21 or later) or platform
+	 *            threads.
+	 * @param listener
+	 *            What to tell about the connections.
+	 */
+	public BlockingServer(int port, boolean virtual,
+			ConnectionListener listener) {
+		this.port = port;
+		this.virtual = virtual;
+		this.listener = listener;
+		threads = virtual ? virtualThreadFactory() : platformThreadFactory();
+		if (threads == null) {
+			throw new UnsupportedOperationException(
+					"Virtual threads need a server built on JDK 21 or later");
+		}
+		connections = Collections.newSetFromMap(
+				new ConcurrentHashMap<BlockingConnection, Boolean>());
+	}
+
+	/**
+	 * Gets a factory for virtual threads, if the server was built with them.
+	 * 
+	 * @return the factory, or null if there are no virtual threads.
+	 */
+	public static ThreadFactory virtualThreadFactory() {
+		return VirtualThreads.factory("poker-connection-");
+	}
+
+	/**
+	 * Gets a factory for platform threads, one for each reader and writer.
+	 */
+	private static ThreadFactory platformThreadFactory() {
+		final AtomicInteger threadNumber = new AtomicInteger();
+		return new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "poker-connection-"
+						+ threadNumber.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+	/**
+	 * Returns whether each client's threads are virtual threads.
+	 * 
+	 * @return whether the threads are virtual.
+	 */
+	public boolean isVirtual() {
+		return virtual;
+	}
+
+	@Override
+	public void start() throws IOException {
+		serverSocket = new ServerSocket();
+		serverSocket.bind(new InetSocketAddress(port));
+		running = true;
+		Thread acceptor = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				accept();
+			}
+		}, "poker-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	@Override
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+		}
+		for (BlockingConnection connection : connections) {
+			connection.close();
+		}
+
+		// each writer finishes once it has written its messages
+		long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MILLIS;
+		try {
+			for (BlockingConnection connection : connections) {
+				long timeLeft = deadline - System.currentTimeMillis();
+				if (timeLeft > 0) {
+					connection.writerThread.join(timeLeft);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		for (BlockingConnection connection : connections) {
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * Accepts clients until the server is stopped, starting a reader and a
+	 * writer for each one.
+	 */
+	private void accept() {
+		while (running) {
+			try {
+				Socket socket = serverSocket.accept();
+				socket.setTcpNoDelay(true);
+				BlockingConnection connection = new BlockingConnection(socket);
+				connection.writerThread = threads.newThread(connection.writer);
+				connections.add(connection);
+				connection.writerThread.start();
+				threads.newThread(connection.reader).start();
+			} catch (IOException e) {
+				if (running) {
+					System.out.println(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * <h1>BlockingConnection</h1>
+	 * <p>
+	 * A client's socket, and the bytes waiting to be written to it.
+	 * </p>
+	 */
+	private class BlockingConnection implements Connection {
+		private Socket socket;
+		private MessageBuffer outbound;
+		private Thread writerThread;
+		private AtomicBoolean disconnected = new AtomicBoolean();
+		private volatile boolean closing;
+		private volatile Object attachment;
+
+		/**
+		 * Reads each message the client sends and passes it on, until the
+		 * socket is closed.
+		 */
+		private Runnable reader = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					listener.connected(BlockingConnection.this);
+					readMessages();
+				} catch (ProtocolException e) {
+					System.out.println(e.getMessage()
+							+ ", closing connection");
+				} catch (IOException e) {
+					// the socket was closed
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				} finally {
+					disconnect();
+				}
+			}
+		};
+
+		/**
+		 * Waits for messages to be sent and writes every byte waiting at
+		 * once, until the connection is closed.
+		 */
+		private Runnable writer = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					OutputStream out = socket.getOutputStream();
+					byte[] buffer = new byte[BUFFER_SIZE];
+					int numBytes;
+					while ((numBytes = outbound.take(buffer)) >= 0) {
+						out.write(buffer, 0, numBytes);
+					}
+				} catch (IOException | InterruptedException e) {
+					// the socket was closed
+				} finally {
+					disconnect();
+				}
+			}
+		};
+
+		public BlockingConnection(Socket socket) {
+			this.socket = socket;
+			outbound = new MessageBuffer(MAX_QUEUED_BYTES);
+		}
+
+		@Override
+		public void send(Message message) {
+			queue(message);
+			flush();
+		}
+
+		@Override
+		public void queue(Message message) {
+			if (!closing && !outbound.add(message)) {
+				overflowed();
+			}
+		}
+
+		@Override
+		public void queue(SharedMessages messages) {
+			if (!closing && !outbound.add(messages)) {
+				overflowed();
+			}
+		}
+
+		@Override
+		public void flush() {
+			outbound.flush();
+		}
+
+		private void overflowed() {
+			System.out.println("Client too far behind, disconnecting");
+			disconnect();
+		}
+
+		@Override
+		public void close() {
+			// the writer finishes once it has written every byte
+			closing = true;
+			outbound.close();
+		}
+
+		@Override
+		public void attach(Object attachment) {
+			this.attachment = attachment;
+		}
+
+		@Override
+		public Object attachment() {
+			return attachment;
+		}
+
+		/**
+		 * Reads the client's bytes and passes on each complete message, until
+		 * the client goes away.
+		 * 
+		 * @throws ProtocolException
+		 *             if the client sends something that isn't a message.
+		 */
+		private void readMessages() throws IOException {
+			InputStream in = socket.getInputStream();
+			MessageDecoder decoder = new MessageDecoder(MAX_MESSAGE_LENGTH);
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			int numBytes;
+			while ((numBytes = in.read(buffer.array())) >= 0) {
+				buffer.position(0);
+				buffer.limit(numBytes);
+				while (decoder.decode(buffer)) {
+					Message message = decoder.getMessage();
+					if (message.getType() == Protocol.HELLO) {
+						// the client wants the binary protocol
+						outbound.startBinary(message.getNumber(0));
+					} else {
+						listener.messageReceived(this, message);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Closes the socket straight away (which stops the reader and the
+		 * writer), and tells the listener, the first time it is called.
+		 */
+		private void disconnect() {
+			if (!disconnected.compareAndSet(false, true)) {
+				return;
+			}
+			closing = true;
+			outbound.close();
+			try {
+				socket.close();
+			} catch (IOException e) {
+			}
+			connections.remove(this);
+			listener.disconnected(this);
+		}
+	}
+}
@@ -9,7 +9,23 @@
  * @since 2016-01-19
  * 
  */
-public class Card implements Comparable {
+public class Card implements Comparable<Card> {
+	private static final int NUM_RANKS = 13;
+
+	/**
+	 * one of each of the 52 cards, by index. Cards can't be changed once
+	 * created, so these are shared instead of creating new cards.
+	 */
+	private static final Card[] CARDS = new Card[52];
+
+	static {
+		for (int s = 1; s <= 4; s++) {
+			for (int r = 2; r <= 14; r++) {
+				CARDS[index(s, r)] = new Card(s, r);
+			}
+		}
+	}
+
 	private int suit;
 	private int rank;
 
@@ -27,6 +43,54 @@ public class Card implements Comparable {
 
 	}
 
+	/**
+	 * Gets the card with a certain index.
+	 * 
+	 * @param index
+	 *            The index (0-51) of the card.
+	 * @return the card with that index.
+	 */
+	public static Card fromIndex(int index) {
+		return CARDS[index];
+	}
+
+	/**
+	 * Gets the index of a card with a certain suit and rank. The index is how
+	 * cards are stored in a CardSet and passed to the HandEvaluator. Each
+	 * suit takes up 13 indexes, from two to ace.
+	 * 
+	 * @param suit
+	 *            The suit (1-4) of the card.
+	 * @param rank
+	 *            The rank (2-14) of the card.
+	 * @return the index (0-51) of the card.
+	 */
+	public static int index(int suit, int rank) {
+		return (suit - 1) * NUM_RANKS + (rank - 2);
+	}
+
+	/**
+	 * Gets the suit of the card with a certain index.
+	 * 
+	 * @param index
+	 *            The index (0-51) of the card.
+	 * @return the suit (1-4) of the card.
+	 */
+	public static int suitOf(int index) {
+		return index / NUM_RANKS + 1;
+	}
+
+	/**
+	 * Gets the rank of the card with a certain index.
+	 * 
+	 * @param index
+	 *            The index (0-51) of the card.
+	 * @return the rank (2-14) of the card.
+	 */
+	public static int rankOf(int index) {
+		return index % NUM_RANKS + 2;
+	}
+
 	/**
 	 * Returns the card as a string containing its rank and suit
 	 */
@@ -65,18 +129,27 @@ public class Card implements Comparable {
 		return suit;
 	}
 
+	/**
+	 * Returns the index of the card.
+	 * 
+	 * @return the index (0-51) of the card.
+	 */
+	public int getIndex() {
+		return index(suit, rank);
+	}
+
 	/**
 	 * Cards are compared based on first their suit, then their rank
 	 */
 	@Override
-	public int compareTo(Object otherCard) {
+	public int compareTo(Card otherCard) {
 		//first compare rank
-		if (rank > ((Card) otherCard).getRank()) {
+		if (rank > otherCard.getRank()) {
 			return 1;
-		} else if (rank < ((Card) otherCard).getRank()) {
+		} else if (rank < otherCard.getRank()) {
 			return -1;
 		} else { // same rank, so compare suits
-			if (suit > ((Card) otherCard).getSuit()) {
+			if (suit > otherCard.getSuit()) {
 				return 1;
 			} else { // has to be lower suit, there are no two of the same card
 						// in a deck
@@ -0,0 +1,204 @@
+/**
+ * <h1>CardSet</h1>
+ * <p>
+ * This class represents a set of cards (i.e. a player's hand, the table, the
+ * cards that have been dealt). Each card is stored as the bit of its index in
+ * a single long, so adding, removing and checking for a card, as well as
+ * combining two sets, are each a single bit operation.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class CardSet {
+	private long cards;
+
+	/**
+	 * Creates an empty set of cards.
+	 */
+	public CardSet() {
+		cards = 0;
+	}
+
+	/**
+	 * Creates a set of cards from a mask of card indexes.
+	 * 
+	 * @param cards
+	 *            The mask, with the bit of each card's index set.
+	 */
+	public CardSet(long cards) {
+		this.cards = cards;
+	}
+
+	/**
+	 * Adds a card to the set.
+	 * 
+	 * @param card
+	 *            The index of the card.
+	 */
+	public void add(int card) {
+		cards |= 1L << card;
+	}
+
+	/**
+	 * Adds a card to the set.
+	 * 
+	 * @param card
+	 *            The card to be added.
+	 */
+	public void add(Card card) {
+		add(card.getIndex());
+	}
+
+	/**
+	 * Adds every card of another set to this one.
+	 * 
+	 * @param otherSet
+	 *            The cards to be added.
+	 */
+	public void addAll(CardSet otherSet) {
+		cards |= otherSet.cards;
+	}
+
+	/**
+	 * Removes a card from the set.
+	 * 
+	 * @param card
+	 *            The index of the card.
+	 */
+	public void remove(int card) {
+		cards &= ~(1L << card);
+	}
+
+	/**
+	 * Removes every card from the set.
+	 */
+	public void clear() {
+		cards = 0;
+	}
+
+	/**
+	 * Checks if a card is in the set.
+	 * 
+	 * @param card
+	 *            The index of the card.
+	 * @return whether or not the card is in the set.
+	 */
+	public boolean contains(int card) {
+		return (cards & (1L << card)) != 0;
+	}
+
+	/**
+	 * Checks if a card is in the set.
+	 * 
+	 * @param card
+	 *            The card to look for.
+	 * @return whether or not the card is in the set.
+	 */
+	public boolean contains(Card card) {
+		return contains(card.getIndex());
+	}
+
+	/**
+	 * Checks if two sets have any cards in common (i.e. a hand using a card
+	 * that has already been dealt).
+	 * 
+	 * @param otherSet
+	 *            The other set of cards.
+	 * @return whether or not the sets share a card.
+	 */
+	public boolean intersects(CardSet otherSet) {
+		return (cards & otherSet.cards) != 0;
+	}
+
+	/**
+	 * Creates a new set with the cards of both sets (i.e. a player's hand and
+	 * the table).
+	 * 
+	 * @param otherSet
+	 *            The other set of cards.
+	 * @return the combined set.
+	 */
+	public CardSet union(CardSet otherSet) {
+		return new CardSet(cards | otherSet.cards);
+	}
+
+	/**
+	 * Returns the number of cards in the set.
+	 * 
+	 * @return the number of cards in the set.
+	 */
+	public int count() {
+		return Long.bitCount(cards);
+	}
+
+	/**
+	 * Returns whether or not the set has no cards.
+	 * 
+	 * @return whether or not the set is empty.
+	 */
+	public boolean isEmpty() {
+		return cards == 0;
+	}
+
+	/**
+	 * Used to go through the cards of the set in order of their index,
+	 * without creating any objects:
+	 * 
+	 * <pre>
+	 * for (int c = set.nextCard(0); c &gt;= 0; c = set.nextCard(c + 1))
+	 * </pre>
+	 * 
+	 * @param fromIndex
+	 *            The index to start looking from (inclusive).
+	 * @return the index of the next card in the set, or -1 if there are no
+	 *         more.
+	 */
+	public int nextCard(int fromIndex) {
+		if (fromIndex >= 64) {
+			return -1;
+		}
+		long remaining = cards & (-1L << fromIndex);
+		if (remaining == 0) {
+			return -1;
+		}
+		return Long.numberOfTrailingZeros(remaining);
+	}
+
+	/**
+	 * Returns the mask of the set, with the bit of each card's index set.
+	 * 
+	 * @return the mask of the set.
+	 */
+	public long getMask() {
+		return cards;
+	}
+
+	/**
+	 * Returns the cards of the set, separated by spaces, the same way they
+	 * are sent to the clients.
+	 */
+	@Override
+	public String toString() {
+		String setOfCards = "";
+		for (int card = nextCard(0); card >= 0; card = nextCard(card + 1)) {
+			if (!setOfCards.equals("")) {
+				setOfCards += " ";
+			}
+			setOfCards += Card.fromIndex(card);
+		}
+		return setOfCards;
+	}
+
+	@Override
+	public boolean equals(Object otherSet) {
+		return otherSet instanceof CardSet
+				&& cards == ((CardSet) otherSet).cards;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (cards ^ (cards >>> 32));
+	}
+
+}
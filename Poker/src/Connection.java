@@ -0,0 +1,75 @@
+/**
+ * <h1>Connection</h1>
+ * <p>
+ * One client connected to the server, as the game sees it: something
+ * messages can be sent to, and closed. The sockets themselves are looked
+ * after by the server the connection came from (i.e. NioServer), which tells
+ * a ConnectionListener about every message the client sends. Whether the
+ * client speaks the text or the binary protocol (see Protocol) is worked out
+ * by the connection, so the game doesn't need to know.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public interface Connection {
+
+	/**
+	 * Sends a message to the client. The message is encoded straight away,
+	 * so it can be reused as soon as this returns, but this doesn't wait for
+	 * it to be written, so it can be called from any thread, and messages
+	 * are sent in the order they are given. Each connection only has room
+	 * for so many bytes that haven't been written yet; if a client falls that
+	 * far behind, it is disconnected.
+	 * 
+	 * @param message
+	 *            The message to be sent.
+	 */
+	void send(Message message);
+
+	/**
+	 * Adds a message to the ones waiting to be sent, like send(), but
+	 * doesn't write it until flush() is called, so several messages can be
+	 * written together.
+	 * 
+	 * @param message
+	 *            The message to be sent.
+	 */
+	void queue(Message message);
+
+	/**
+	 * Adds messages encoded for several connections to the ones waiting to
+	 * be sent, to be written once flush() is called.
+	 * 
+	 * @param messages
+	 *            The messages to be sent.
+	 */
+	void queue(SharedMessages messages);
+
+	/**
+	 * Writes every message that has been queued, in one go.
+	 */
+	void flush();
+
+	/**
+	 * Closes the connection once every message already given to send() or
+	 * queue() has been written.
+	 */
+	void close();
+
+	/**
+	 * Attaches an object to the connection (i.e. the player it belongs to),
+	 * so it can be found again when the client sends something.
+	 * 
+	 * @param attachment
+	 *            The object to attach, or null to remove it.
+	 */
+	void attach(Object attachment);
+
+	/**
+	 * Returns the object attached to the connection.
+	 * 
+	 * @return the attachment, or null if there isn't one.
+	 */
+	Object attachment();
+}
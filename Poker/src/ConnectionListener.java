@@ -0,0 +1,47 @@
+/**
+ * <h1>ConnectionListener</h1>
+ * <p>
+ * Is told about everything that happens on a server's connections: a client
+ * connecting, sending a message, or going away. The game only ever sees these
+ * events, never the sockets.
+ * </p>
+ * <p>
+ * The events of one connection always come one at a time and in order, but
+ * they come on the server's own threads, which look after many connections
+ * each, so a listener must never block (i.e. wait for a player to act).
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public interface ConnectionListener {
+
+	/**
+	 * Called when a client connects.
+	 * 
+	 * @param connection
+	 *            The new connection.
+	 */
+	void connected(Connection connection);
+
+	/**
+	 * Called for each message a client sends. A client speaking the text
+	 * protocol only sends LINE messages, one for each line.
+	 * 
+	 * @param connection
+	 *            The connection the message came from.
+	 * @param message
+	 *            The message, which is reused for the next one once this
+	 *            returns.
+	 */
+	void messageReceived(Connection connection, Message message);
+
+	/**
+	 * Called once a connection is closed, by either side. Nothing more is
+	 * sent or received on it after this.
+	 * 
+	 * @param connection
+	 *            The closed connection.
+	 */
+	void disconnected(Connection connection);
+}
@@ -0,0 +1,114 @@
+import java.io.IOException;
+
+/**
+ * <h1>ConnectionServer</h1>
+ * <p>
+ * Listens for clients and looks after their sockets, telling a
+ * ConnectionListener about everything that happens on them. There are two
+ * kinds of server: an NioServer, where a few selector threads look after
+ * every client, and a BlockingServer, where each client has its own threads
+ * (virtual threads on Java 21 or later, which cost next to nothing while
+ * they wait).
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public abstract class ConnectionServer {
+	/**
+	 * the system property that chooses the kind of server: "nio" (the
+	 * default), "virtual" (virtual threads for each client) or "threads"
+	 * (platform threads for each client, like the server used to have)
+	 */
+	public static final String MODE_PROPERTY = "poker.network";
+
+	/**
+	 * the most bytes that can be waiting to be written to a client. A client
+	 * that falls this far behind (i.e. one that has stopped reading) is
+	 * disconnected, instead of the game waiting for it or the messages
+	 * piling up forever.
+	 */
+	protected static final int MAX_QUEUED_BYTES = 64 * 1024;
+
+	/**
+	 * the longest line or binary frame a client can send, so a client can't
+	 * use up the server's memory by never finishing one
+	 */
+	protected static final int MAX_MESSAGE_LENGTH = 8 * 1024;
+
+	/**
+	 * how long stop() waits for the messages already sent to be written
+	 */
+	protected static final long STOP_TIMEOUT_MILLIS = 2000;
+
+	/**
+	 * Starts listening for clients.
+	 * 
+	 * @throws IOException
+	 *             if the port can't be listened on.
+	 */
+	public abstract void start() throws IOException;
+
+	/**
+	 * Returns the port the server is listening on (i.e. the one picked when
+	 * it was created with port 0).
+	 * 
+	 * @return the port.
+	 */
+	public abstract int getPort();
+
+	/**
+	 * Stops accepting clients and closes every connection, once the messages
+	 * already sent to it have been written (waiting up to
+	 * STOP_TIMEOUT_MILLIS for them).
+	 */
+	public abstract void stop();
+
+	/**
+	 * Creates a server of one of the kinds. If virtual threads aren't
+	 * available (the server wasn't built on JDK 21 or later), a "virtual"
+	 * server uses platform threads instead.
+	 * 
+	 * @param mode
+	 *            The kind of server: "nio", "virtual" or "threads".
+	 * @param port
+	 *            The port to listen on (0 for any free port).
+	 * @param listener
+	 *            What to tell about the connections.
+	 * @return the server, not yet started.
+	 */
+	public static ConnectionServer create(String mode, int port,
+			ConnectionListener listener) {
+		if (mode.equals("nio")) {
+			int numThreads = Math.min(4, Runtime.getRuntime()
+					.availableProcessors());
+			return new NioServer(port, numThreads, listener);
+		} else if (mode.equals("virtual")) {
+			if (BlockingServer.virtualThreadFactory() == null) {
+				System.out.println("Virtual threads need a server built on "
+						+ "JDK 21 or later, using platform threads instead.");
+				return new BlockingServer(port, false, listener);
+			}
+			return new BlockingServer(port, true, listener);
+		} else if (mode.equals("threads")) {
+			return new BlockingServer(port, false, listener);
+		}
+		throw new IllegalArgumentException("Unknown " + MODE_PROPERTY + ": "
+				+ mode);
+	}
+
+	/**
+	 * Creates the kind of server chosen by the poker.network system property.
+	 * 
+	 * @param port
+	 *            The port to listen on (0 for any free port).
+	 * @param listener
+	 *            What to tell about the connections.
+	 * @return the server, not yet started.
+	 */
+	public static ConnectionServer fromSystemProperties(int port,
+			ConnectionListener listener) {
+		return create(System.getProperty(MODE_PROPERTY, "nio"), port,
+				listener);
+	}
+}
@@ -0,0 +1,445 @@
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * <h1>Coordinator</h1>
+ * <p>
+ * Spreads the tables over several PokerServers (its nodes), so more games
+ * can be played than one machine has room for. Clients connect to the
+ * coordinator the way they would connect to a server, and once a player has
+ * chosen a name, they are sent on to the node with room for them with a
+ * REDIRECT, and play there from then on. Clients too old to be sent on are
+ * told where to connect instead.
+ * </p>
+ * <p>
+ * Each node joins the coordinator when it starts (see the poker.coordinator
+ * system property), on a port of its own that only the nodes should be able
+ * to reach, so a client can't pass itself off as a node and have players
+ * sent to it. A node tells the coordinator how many tables it is playing
+ * at and how many players are waiting for the table being filled, every
+ * second. A player is sent to a node whose table is being filled, so
+ * tables aren't left waiting on several nodes at once, or otherwise to the
+ * node with the most tables free. The players the coordinator has sent to a
+ * node are counted as waiting there until the node reports that they have
+ * joined, so a node isn't sent more players than it has room for while they
+ * are still connecting. A player who hasn't joined within a few reports (a
+ * client too old to follow a REDIRECT, or one that went away on the way) is
+ * no longer counted.
+ * </p>
+ * <p>
+ * For testing, everything can run on one machine:
+ * </p>
+ * 
+ * <pre>
+ * java Coordinator
+ * java -Dpoker.port=9002 -Dpoker.coordinator=localhost:9000 PokerServer 4 200
+ * java -Dpoker.port=9003 -Dpoker.coordinator=localhost:9000 PokerServer 4 200
+ * </pre>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class Coordinator {
+	/**
+	 * the port nodes join on, unless the poker.node.port system property
+	 * chooses another
+	 */
+	static final int NODE_PORT = 9000;
+	public static final String NODE_PORT_PROPERTY = "poker.node.port";
+
+	private ConnectionServer connections;
+	private ConnectionServer nodeConnections;
+
+	/**
+	 * the nodes that have joined, in the order they joined
+	 */
+	private ArrayList<Node> nodes = new ArrayList<Node>();
+
+	/**
+	 * how long a player sent to a node is counted as waiting there, if the
+	 * node doesn't report them joining
+	 */
+	private static final long SENT_TIMEOUT_NANOS = 5
+			* PokerServer.REPORT_INTERVAL_MILLIS * 1000000L;
+
+	private CountDownLatch stopped = new CountDownLatch(1);
+
+	/**
+	 * Runs a coordinator for clients on port 9001 and nodes on port 9000 (or
+	 * the ones chosen by the poker.port and poker.node.port system
+	 * properties) until it is stopped.
+	 */
+	public static void main(String[] args) throws Exception {
+		Coordinator coordinator = new Coordinator();
+		coordinator.start(Integer.getInteger(PokerServer.PORT_PROPERTY,
+				PokerServer.PORT), Integer.getInteger(NODE_PORT_PROPERTY,
+				NODE_PORT));
+
+		System.out.println("The poker coordinator is running on port "
+				+ coordinator.getPort() + ", with nodes joining on port "
+				+ coordinator.getNodePort() + ".");
+
+		coordinator.awaitStop();
+	}
+
+	/**
+	 * Starts accepting clients and nodes, with the kind of ConnectionServer
+	 * chosen by the poker.network system property.
+	 * 
+	 * @param port
+	 *            The port to listen for clients on (0 for any free port).
+	 * @param nodePort
+	 *            The port to listen for nodes on (0 for any free port).
+	 * @throws IOException
+	 *             if either port can't be listened on.
+	 */
+	public void start(int port, int nodePort) throws IOException {
+		nodeConnections = ConnectionServer.fromSystemProperties(nodePort,
+				new Registrations());
+		nodeConnections.start();
+		connections = ConnectionServer.fromSystemProperties(port,
+				new Routing());
+		connections.start();
+	}
+
+	/**
+	 * Returns the port the coordinator is listening on.
+	 * 
+	 * @return the port.
+	 */
+	public int getPort() {
+		return connections.getPort();
+	}
+
+	/**
+	 * Returns the port nodes join the coordinator on.
+	 * 
+	 * @return the port.
+	 */
+	public int getNodePort() {
+		return nodeConnections.getPort();
+	}
+
+	/**
+	 * Stops accepting clients and nodes, and closes every connection. The
+	 * nodes carry on with the games they are playing.
+	 */
+	public void stop() {
+		connections.stop();
+		nodeConnections.stop();
+		stopped.countDown();
+	}
+
+	/**
+	 * Waits until the coordinator is stopped.
+	 * 
+	 * @throws InterruptedException
+	 *             if the thread waiting is interrupted.
+	 */
+	public void awaitStop() throws InterruptedException {
+		stopped.await();
+	}
+
+	/**
+	 * 
+	 * @return the number of nodes that have joined.
+	 */
+	public synchronized int getNumNodes() {
+		return nodes.size();
+	}
+
+	/**
+	 * 
+	 * @return the number of tables being played at, on every node, as of
+	 *         each node's last report.
+	 */
+	public synchronized int getNumTables() {
+		int numTables = 0;
+		for (Node node : nodes) {
+			numTables += node.numTables;
+		}
+		return numTables;
+	}
+
+	/**
+	 * 
+	 * @return the number of tables being played at on each node, in the
+	 *         order the nodes joined.
+	 */
+	public synchronized int[] getTablesPerNode() {
+		int[] numTables = new int[nodes.size()];
+		for (int i = 0; i < numTables.length; i++) {
+			numTables[i] = nodes.get(i).numTables;
+		}
+		return numTables;
+	}
+
+	/**
+	 * Chooses the node to send a player to, and counts them as waiting
+	 * there.
+	 * 
+	 * @return the node, or null if every node is full.
+	 */
+	private synchronized Node route() {
+		long now = System.nanoTime();
+		Node best = null;
+		for (Node node : nodes) {
+			node.expireSent(now);
+			if (!node.hasRoom()) {
+				continue;
+			}
+			if (node.isFilling()) {
+				// a table there is waiting for players
+				best = node;
+				break;
+			}
+			if (best == null || node.getFreeTables() > best.getFreeTables()) {
+				best = node;
+			}
+		}
+		if (best != null) {
+			best.sent.add(now);
+		}
+		return best;
+	}
+
+	/**
+	 * <h1>Node</h1>
+	 * <p>
+	 * A server that has joined the coordinator, and how busy it is.
+	 * </p>
+	 */
+	private static class Node {
+		private String host;
+		private int port;
+		private int seatsPerTable;
+		private int maxTables; // 0 for no limit
+		private int numTables;
+		private int numSeated;
+
+		/**
+		 * when each player the node hasn't reported joining yet was sent,
+		 * oldest first
+		 */
+		private ArrayDeque<Long> sent = new ArrayDeque<Long>();
+
+		/**
+		 * Creates a node from the NODE message it joined with.
+		 * 
+		 * @param message
+		 *            The message.
+		 * @throws ProtocolException
+		 *             if the message doesn't describe a server players can
+		 *             be sent to.
+		 */
+		public Node(Message message) throws ProtocolException {
+			port = message.getNumber(0);
+			seatsPerTable = message.getNumber(1);
+			maxTables = message.getNumber(2);
+			host = message.getText();
+			if (port <= 0 || port > 65535) {
+				throw new ProtocolException("Invalid port: " + port);
+			} else if (seatsPerTable < 2) {
+				throw new ProtocolException("Invalid seats per table: "
+						+ seatsPerTable);
+			} else if (maxTables < 0) {
+				throw new ProtocolException("Invalid max tables: "
+						+ maxTables);
+			} else if (host.isEmpty()) {
+				throw new ProtocolException("No host");
+			}
+		}
+
+		/**
+		 * 
+		 * @return the number of players waiting for a table, as far as the
+		 *         coordinator knows.
+		 */
+		private int getNumWaiting() {
+			return numSeated + sent.size();
+		}
+
+		/**
+		 * Stops counting the players sent too long ago to still be on their
+		 * way.
+		 * 
+		 * @param now
+		 *            The time, from System.nanoTime().
+		 */
+		private void expireSent(long now) {
+			while (!sent.isEmpty() && now - sent.peek() > SENT_TIMEOUT_NANOS) {
+				sent.poll();
+			}
+		}
+
+		/**
+		 * Stops counting players who have joined, as they are now counted
+		 * in the node's load. Players can also join a node without being
+		 * sent, so there may be fewer sent than have joined.
+		 * 
+		 * @param numJoined
+		 *            The number of players who have joined since the last
+		 *            report.
+		 */
+		private void joined(int numJoined) {
+			for (int i = 0; i < numJoined && !sent.isEmpty(); i++) {
+				sent.poll();
+			}
+		}
+
+		/**
+		 * 
+		 * @return whether a table is waiting for more players.
+		 */
+		public boolean isFilling() {
+			return getNumWaiting() % seatsPerTable != 0;
+		}
+
+		/**
+		 * 
+		 * @return the number of tables that aren't being played at or filled.
+		 */
+		public int getFreeTables() {
+			int numFilling = (getNumWaiting() + seatsPerTable - 1)
+					/ seatsPerTable;
+			int limit = maxTables == 0 ? Integer.MAX_VALUE : maxTables;
+			return limit - numTables - numFilling;
+		}
+
+		/**
+		 * 
+		 * @return whether another player can be seated.
+		 */
+		public boolean hasRoom() {
+			return isFilling() || getFreeTables() > 0;
+		}
+
+		@Override
+		public String toString() {
+			return host + ":" + port;
+		}
+	}
+
+	/**
+	 * <h1>Routing</h1>
+	 * <p>
+	 * Asks each client that connects for a name, like a server would, and
+	 * sends them on to a node once they have chosen one.
+	 * </p>
+	 */
+	private class Routing implements ConnectionListener {
+
+		@Override
+		public void connected(Connection connection) {
+			connection.send(new Message(Protocol.SUBMITNAME));
+		}
+
+		@Override
+		public void messageReceived(Connection connection, Message message) {
+			if (message.getType() == Protocol.LINE) {
+				// the player's name, which they send again to the node
+				redirect(connection);
+			}
+		}
+
+		/**
+		 * Sends a player to the node chosen for them, and closes their
+		 * connection.
+		 */
+		private void redirect(Connection connection) {
+			Node node = route();
+			if (node == null) {
+				connection.send(new Message(Protocol.MESSAGE)
+						.appendText("Every table is full. Please try again "
+								+ "later."));
+			} else {
+				// older clients can only be told where to go
+				connection.send(new Message(Protocol.MESSAGE)
+						.appendText("Your table is at " + node + "."));
+				connection.send(new Message(Protocol.REDIRECT).addNumber(
+						node.port).appendText(node.host));
+			}
+			connection.close();
+		}
+
+		@Override
+		public void disconnected(Connection connection) {
+			// a client goes once it has been sent on
+		}
+	}
+
+	/**
+	 * <h1>Registrations</h1>
+	 * <p>
+	 * Adds each node that joins with NODE, and keeps track of the LOAD it
+	 * sends from then on. A connection that sends anything else, or a NODE
+	 * players couldn't be sent to, is closed.
+	 * </p>
+	 */
+	private class Registrations implements ConnectionListener {
+
+		@Override
+		public void connected(Connection connection) {
+			// a node speaks first
+		}
+
+		@Override
+		public void messageReceived(Connection connection, Message message) {
+			Node node = (Node) connection.attachment();
+			try {
+				if (message.getType() == Protocol.NODE && node == null) {
+					node = new Node(message);
+					connection.attach(node);
+					synchronized (Coordinator.this) {
+						nodes.add(node);
+					}
+					System.out.println("Node " + node
+							+ " joined, with tables of " + node.seatsPerTable
+							+ (node.maxTables == 0 ? "" : ", at most "
+									+ node.maxTables) + ".");
+				} else if (message.getType() == Protocol.LOAD
+						&& node != null) {
+					load(node, message);
+				} else {
+					throw new ProtocolException("Not a node");
+				}
+			} catch (ProtocolException e) {
+				System.out.println(e.getMessage() + ", closing connection");
+				connection.close();
+			}
+		}
+
+		/**
+		 * Updates how busy a node is from its LOAD.
+		 */
+		private void load(Node node, Message message)
+				throws ProtocolException {
+			int numTables = message.getNumber(0);
+			int numSeated = message.getNumber(1);
+			int numJoined = message.getNumber(2);
+			if (numTables < 0 || numSeated < 0 || numJoined < 0) {
+				throw new ProtocolException("Invalid load");
+			}
+			synchronized (Coordinator.this) {
+				node.numTables = numTables;
+				node.numSeated = numSeated;
+				node.joined(numJoined);
+			}
+		}
+
+		@Override
+		public void disconnected(Connection connection) {
+			Node node = (Node) connection.attachment();
+			if (node == null) {
+				return;
+			}
+			synchronized (Coordinator.this) {
+				nodes.remove(node);
+			}
+			System.out.println("Node " + node + " left.");
+		}
+	}
+}
@@ -1,33 +1,67 @@
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Random;
-
 /**
  * <h1>Deck</h1>
  * <p>
  * This class represents a deck of cards. Therefore, it has methods such as deal
  * and shuffle, which do as suggested by their name.
  * </p>
+ * <p>
+ * The cards are kept as their indexes in an array, with the position of the
+ * next card to be dealt, so dealing a card just moves that position along,
+ * and the same deck is shuffled again for every round. A shuffle can also be
+ * limited to the number of cards the round will deal, since the order of the
+ * rest of the deck is never seen.
+ * </p>
+ * <p>
+ * Every shuffle starts a new hand of the deck's ShuffleSource, and the seed of
+ * the hand is kept, so the same shuffle (and every card dealt after it) can be
+ * done again later.
+ * </p>
  * 
  * @author Alex
  * @since 2016-01-19
  *
  */
 public class Deck {
-	private ArrayList<Card> deck;
+	private static final int NUM_CARDS = 52;
+
+	private int[] deck = new int[NUM_CARDS];
+	private int nextCard;
+	private int shuffledCards;
+	private boolean shuffled;
+	private ShuffleSource random;
+	private long seed;
 
 	/**
-	 * The constructor for Deck generates 52 cards, 13 cards of each of the four
-	 * suits.
+	 * The constructor for Deck gathers the 52 cards, 13 cards of each of the
+	 * four suits.
 	 */
 	public Deck() {
-		deck = new ArrayList<Card>();
-		for (int s = 1; s <= 4; s++) { // for each suit
-			for (int r = 2; r <= 14; r++) { // for each rank (ranks range from
-											// 2-14, two to ace)
-				deck.add(new Card(s, r));
-			}
+		this(ShuffleSource.fast());
+	}
+
+	/**
+	 * Creates a deck that is shuffled with random numbers from a certain
+	 * source.
+	 * 
+	 * @param random
+	 *            The source of random numbers (i.e. ShuffleSource.secure()).
+	 */
+	public Deck(ShuffleSource random) {
+		this.random = random;
+		reset();
+	}
+
+	/**
+	 * Gathers every card back into the deck, in order (13 ranks of each of
+	 * the four suits).
+	 */
+	public void reset() {
+		for (int i = 0; i < NUM_CARDS; i++) {
+			deck[i] = i;
 		}
+		nextCard = 0;
+		shuffledCards = 0;
+		shuffled = false;
 	}
 
 	/**
@@ -37,19 +71,96 @@ public class Deck {
 	 * @return the top card of the deck.
 	 */
 	public Card deal() {
-		Card dealtCard = deck.get(0); // get top card
-		deck.remove(0); // remove the card from the deck after dealing it, so
-						// the next card to be dealt will be dealt next
+		return Card.fromIndex(dealIndex());
+	}
 
-		return dealtCard;
+	/**
+	 * Deals the top card of the deck, the same as deal(), but as its index.
+	 * If the deck was only partly shuffled and this card wasn't, a random
+	 * card from the rest of the deck is dealt instead, so every card dealt is
+	 * always random.
+	 * 
+	 * @return the index of the top card of the deck.
+	 */
+	public int dealIndex() {
+		if (nextCard == NUM_CARDS) {
+			throw new IllegalStateException("No cards left in the deck");
+		}
+		if (shuffled && nextCard == shuffledCards) {
+			shuffleNext();
+		}
+		return deck[nextCard++];
 	}
 
 	/**
-	 * Randomizes the order of the cards in the deck. 
+	 * Randomizes the order of the cards in the deck, after gathering them all
+	 * back in.
 	 */
 	public void shuffle() {
-		long seed = System.nanoTime();
-		Collections.shuffle(deck, new Random(seed));
+		shuffle(NUM_CARDS);
+	}
+
+	/**
+	 * Gathers every card back into the deck, then randomizes only the top
+	 * cards (i.e. the ones a round will deal), using a Fisher-Yates shuffle
+	 * that stops once those cards are chosen.
+	 * 
+	 * @param numCards
+	 *            The number of cards to shuffle to the top of the deck.
+	 */
+	public void shuffle(int numCards) {
+		shuffle(numCards, random.startHand());
+	}
+
+	/**
+	 * Shuffles the deck the same way as an earlier shuffle, from its seed
+	 * (see getSeed()).
+	 * 
+	 * @param numCards
+	 *            The number of cards to shuffle to the top of the deck.
+	 * @param seed
+	 *            The seed of the earlier shuffle.
+	 */
+	public void shuffle(int numCards, long seed) {
+		reset();
+		random.startHand(seed);
+		this.seed = seed;
+		shuffled = true;
+		while (shuffledCards < Math.min(numCards, NUM_CARDS)) {
+			shuffleNext();
+		}
+	}
+
+	/**
+	 * Returns the seed of the last shuffle, to be able to do the same shuffle
+	 * again.
+	 * 
+	 * @return the seed of the last shuffle.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns the number of cards that haven't been dealt yet.
+	 * 
+	 * @return the number of cards left.
+	 */
+	public int cardsLeft() {
+		return NUM_CARDS - nextCard;
+	}
+
+	/**
+	 * Swaps a random card from the unshuffled part of the deck into the next
+	 * unshuffled position.
+	 */
+	private void shuffleNext() {
+		int i = shuffledCards;
+		int j = i + random.nextInt(NUM_CARDS - i);
+		int card = deck[j];
+		deck[j] = deck[i];
+		deck[i] = card;
+		shuffledCards++;
 	}
 
 }
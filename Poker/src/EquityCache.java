@@ -0,0 +1,221 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <h1>EquityCache</h1>
+ * <p>
+ * Remembers the equity and hand strength of the hands it has been asked
+ * about, so asking again (i.e. every time a hand is shown to a player) is a
+ * single lookup instead of a whole calculation. Hands are looked up by their
+ * HandCanonicalizer key, so a hand also finds every hand that is the same but
+ * for its suits.
+ * </p>
+ * <p>
+ * The cache can be used by many threads at once. Two threads asking about the
+ * same new hand at the same time may both work it out, but only one result
+ * is kept. The cache can also be saved to a file and loaded again later.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class EquityCache {
+	private static final int MAGIC = 0x504B4551; // "PKEQ"
+	private static final int VERSION = 1;
+
+	/**
+	 * where the number of opponents goes in a key (0 for the hand strength),
+	 * above the cards of the HandCanonicalizer key
+	 */
+	private static final int OPPONENTS_SHIFT = 48;
+	private static final int MAX_OPPONENTS = 9;
+
+	private EquityCalculator calculator;
+	private double marginOfError;
+	private long maxBoards;
+	private HandRange anyHand = new HandRange();
+	private ConcurrentHashMap<Long, Double> results;
+
+	/**
+	 * Creates an empty cache.
+	 * 
+	 * @param calculator
+	 *            The calculator to work out equities with.
+	 * @param marginOfError
+	 *            How close to the true equity each equity has to be.
+	 * @param maxBoards
+	 *            The most boards to deal for each equity.
+	 */
+	public EquityCache(EquityCalculator calculator, double marginOfError,
+			long maxBoards) {
+		this.calculator = calculator;
+		this.marginOfError = marginOfError;
+		this.maxBoards = maxBoards;
+		results = new ConcurrentHashMap<Long, Double>();
+		for (int combo = 0; combo < HandRange.NUM_COMBOS; combo++) {
+			anyHand.add(combo);
+		}
+	}
+
+	/**
+	 * Gets the equity of a hand against a number of opponents who could have
+	 * any hand.
+	 * 
+	 * @param hand
+	 *            The player's two cards.
+	 * @param table
+	 *            The cards on the table so far (0-5).
+	 * @param numOpponents
+	 *            The number of opponents (1-9).
+	 * @return the player's equity (0-1).
+	 */
+	public double getEquity(CardSet hand, CardSet table, int numOpponents) {
+		if (numOpponents < 1 || numOpponents > MAX_OPPONENTS) {
+			throw new IllegalArgumentException("Invalid number of opponents: "
+					+ numOpponents);
+		}
+		long key = (long) numOpponents << OPPONENTS_SHIFT
+				| HandCanonicalizer.canonicalKey(hand, table);
+		Double equity = results.get(key);
+		if (equity == null) {
+			HandRange[] ranges = new HandRange[numOpponents + 1];
+			ranges[0] = new HandRange();
+			int card1 = hand.nextCard(0);
+			ranges[0].add(HandRange.comboOf(card1, hand.nextCard(card1 + 1)));
+			for (int i = 1; i < ranges.length; i++) {
+				ranges[i] = anyHand;
+			}
+			equity = calculator.simulate(ranges, table, new CardSet(),
+					marginOfError, maxBoards).getEquity(0);
+			results.putIfAbsent(key, equity);
+		}
+		return equity;
+	}
+
+	/**
+	 * Gets the strength of a hand with the cards dealt so far, as the share
+	 * of an opponent's possible hands it beats (a tie counts as half). Unlike
+	 * equity, this doesn't look ahead to the cards still to come.
+	 * 
+	 * @param hand
+	 *            The player's two cards.
+	 * @param table
+	 *            The cards on the table so far (0-5).
+	 * @return the strength of the hand (0-1).
+	 */
+	public double getHandStrength(CardSet hand, CardSet table) {
+		long key = HandCanonicalizer.canonicalKey(hand, table);
+		Double handStrength = results.get(key);
+		if (handStrength == null) {
+			long usedCards = hand.getMask() | table.getMask();
+			int strength = HandEvaluator.evaluate(usedCards);
+			long score = 0;
+			long numHands = 0;
+			for (int combo = 0; combo < HandRange.NUM_COMBOS; combo++) {
+				long otherHand = HandRange.maskOf(combo);
+				if ((otherHand & usedCards) != 0) {
+					continue;
+				}
+				int otherStrength = HandEvaluator.evaluate(otherHand
+						| table.getMask());
+				// 2 for a win, 1 for a tie
+				score += strength > otherStrength ? 2
+						: strength == otherStrength ? 1 : 0;
+				numHands++;
+			}
+			handStrength = score / (2.0 * numHands);
+			results.putIfAbsent(key, handStrength);
+		}
+		return handStrength;
+	}
+
+	/**
+	 * Returns the number of results in the cache.
+	 * 
+	 * @return the number of results.
+	 */
+	public int size() {
+		return results.size();
+	}
+
+	/**
+	 * Removes every result from the cache.
+	 */
+	public void clear() {
+		results.clear();
+	}
+
+	/**
+	 * Saves every result to a file, replacing it once it is fully written.
+	 * 
+	 * @param file
+	 *            The file to save to.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public void save(File file) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		File tempFile = File.createTempFile("poker-equity", ".tmp", directory);
+		try {
+			DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tempFile)));
+			try {
+				// a copy, so the count matches the results even if others
+				// are added while saving
+				Map<Long, Double> savedResults;
+				savedResults = new HashMap<Long, Double>(results);
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(savedResults.size());
+				for (Map.Entry<Long, Double> result : savedResults
+						.entrySet()) {
+					out.writeLong(result.getKey());
+					out.writeDouble(result.getValue());
+				}
+			} finally {
+				out.close();
+			}
+			Files.move(tempFile.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			tempFile.delete();
+		}
+	}
+
+	/**
+	 * Adds the results saved in a file to the cache.
+	 * 
+	 * @param file
+	 *            The file to load from.
+	 * @throws IOException
+	 *             if the file can't be read, or isn't a saved cache.
+	 */
+	public void load(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not an equity cache: " + file);
+			}
+			int numResults = in.readInt();
+			for (int i = 0; i < numResults; i++) {
+				results.put(in.readLong(), in.readDouble());
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+}
@@ -0,0 +1,628 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <h1>EquityCalculator</h1>
+ * <p>
+ * Calculates each player's chance of winning a hand (their equity) from their
+ * two cards and whatever is on the table so far, by dealing out the rest of
+ * the table many times at random and seeing who wins each time (i.e. for an
+ * all-in before the river, or to show players their odds).
+ * </p>
+ * <p>
+ * The boards are dealt in batches spread across a pool of worker threads.
+ * Each batch has its own random number generator and its own counts, so the
+ * threads share nothing while they run, and the batches are only added
+ * together once they are done. Between each round of batches, the margin of
+ * error is checked, so the calculation stops as soon as it is accurate enough.
+ * Each batch's random numbers come from the seed of the calculation, which is
+ * kept in the result, so the calculation can be done exactly the same way
+ * again by passing that seed back in (to a calculator with the same number of
+ * threads, since the margin of error is checked after each round of batches).
+ * </p>
+ * <p>
+ * Instead of two cards, each player can also have a range of hands. Each
+ * board, a batch first picks one hand from each range (by weight), and picks
+ * again if any two hands share a card, before dealing the table around them.
+ * </p>
+ * <p>
+ * The calculation can also be done exactly, by dealing every possible board
+ * instead. This is split up by the first card dealt to the table, and spread
+ * across the same threads with fork/join.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class EquityCalculator {
+	/**
+	 * the number of boards dealt by each batch
+	 */
+	private static final int BATCH_SIZE = 20000;
+
+	private ForkJoinPool workers;
+	private int numThreads;
+
+	/**
+	 * Creates a calculator with a worker thread for each core.
+	 */
+	public EquityCalculator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a calculator with a certain number of worker threads.
+	 * 
+	 * @param numThreads
+	 *            The number of worker threads.
+	 */
+	public EquityCalculator(int numThreads) {
+		this.numThreads = numThreads;
+		// fork/join worker threads don't keep the program running
+		workers = new ForkJoinPool(numThreads);
+	}
+
+	/**
+	 * Estimates each player's equity by dealing the rest of the table at
+	 * random, until every player's equity is within a margin of error (with
+	 * 95% confidence) or a maximum number of boards have been dealt.
+	 * 
+	 * @param hands
+	 *            The two cards of each player.
+	 * @param table
+	 *            The cards on the table so far (0-5).
+	 * @param deadCards
+	 *            Cards that can't be dealt (i.e. folded cards), or an empty
+	 *            set.
+	 * @param marginOfError
+	 *            How close to the true equity each player's equity has to be
+	 *            (i.e. 0.005 for half a percent).
+	 * @param maxBoards
+	 *            The most boards to deal before stopping anyway.
+	 * @return each player's equity, and the number of boards it took.
+	 */
+	public EquityResult simulate(CardSet[] hands, CardSet table,
+			CardSet deadCards, double marginOfError, long maxBoards) {
+		return simulate(hands, table, deadCards, marginOfError, maxBoards,
+				newSeed());
+	}
+
+	/**
+	 * Estimates each player's equity the same way as an earlier calculation,
+	 * from its seed (see EquityResult.getSeed()).
+	 * 
+	 * @param hands
+	 *            The two cards of each player.
+	 * @param table
+	 *            The cards on the table so far (0-5).
+	 * @param deadCards
+	 *            Cards that can't be dealt (i.e. folded cards), or an empty
+	 *            set.
+	 * @param marginOfError
+	 *            How close to the true equity each player's equity has to be
+	 *            (i.e. 0.005 for half a percent).
+	 * @param maxBoards
+	 *            The most boards to deal before stopping anyway.
+	 * @param seed
+	 *            The seed of the calculation.
+	 * @return each player's equity, and the number of boards it took.
+	 */
+	public EquityResult simulate(CardSet[] hands, CardSet table,
+			CardSet deadCards, double marginOfError, long maxBoards,
+			long seed) {
+		long startTime = System.nanoTime();
+		long usedCards = checkCards(hands, table, deadCards);
+		long[][] combos = new long[hands.length][];
+		for (int i = 0; i < hands.length; i++) {
+			combos[i] = new long[] { hands[i].getMask() };
+		}
+
+		return simulate(combos, new double[hands.length][], table.getMask(),
+				usedCards, marginOfError, maxBoards, seed, startTime);
+	}
+
+	/**
+	 * Estimates the equity of each player's range of hands against the
+	 * others, the same way as for two cards each. Hands that use a card on
+	 * the table or a dead card are left out of the ranges.
+	 * 
+	 * @param ranges
+	 *            The range of hands of each player.
+	 * @param table
+	 *            The cards on the table so far (0-5).
+	 * @param deadCards
+	 *            Cards that can't be dealt (i.e. folded cards), or an empty
+	 *            set.
+	 * @param marginOfError
+	 *            How close to the true equity each player's equity has to be
+	 *            (i.e. 0.005 for half a percent).
+	 * @param maxBoards
+	 *            The most boards to deal before stopping anyway.
+	 * @return each player's equity, and the number of boards it took.
+	 */
+	public EquityResult simulate(HandRange[] ranges, CardSet table,
+			CardSet deadCards, double marginOfError, long maxBoards) {
+		return simulate(ranges, table, deadCards, marginOfError, maxBoards,
+				newSeed());
+	}
+
+	/**
+	 * Estimates the equity of each player's range of hands the same way as an
+	 * earlier calculation, from its seed (see EquityResult.getSeed()).
+	 * 
+	 * @param ranges
+	 *            The range of hands of each player.
+	 * @param table
+	 *            The cards on the table so far (0-5).
+	 * @param deadCards
+	 *            Cards that can't be dealt (i.e. folded cards), or an empty
+	 *            set.
+	 * @param marginOfError
+	 *            How close to the true equity each player's equity has to be
+	 *            (i.e. 0.005 for half a percent).
+	 * @param maxBoards
+	 *            The most boards to deal before stopping anyway.
+	 * @param seed
+	 *            The seed of the calculation.
+	 * @return each player's equity, and the number of boards it took.
+	 */
+	public EquityResult simulate(HandRange[] ranges, CardSet table,
+			CardSet deadCards, double marginOfError, long maxBoards,
+			long seed) {
+		long startTime = System.nanoTime();
+		checkTable(ranges.length, table, deadCards);
+		long usedCards = table.getMask() | deadCards.getMask();
+		long[][] combos = new long[ranges.length][];
+		double[][] cumulativeWeights = new double[ranges.length][];
+		for (int i = 0; i < ranges.length; i++) {
+			combos[i] = liveCombos(ranges[i], usedCards);
+			if (combos[i].length == 0) {
+				throw new IllegalArgumentException("Range " + (i + 1)
+						+ " has no hands left");
+			}
+			if (ranges[i].isWeighted()) {
+				cumulativeWeights[i] = cumulativeWeights(ranges[i],
+						combos[i]);
+			}
+		}
+		// a range of one hand is dealt the same way as two cards, so its
+		// cards can be left out of the deck
+		for (int i = 0; i < ranges.length; i++) {
+			if (combos[i].length == 1) {
+				usedCards |= combos[i][0];
+			}
+		}
+
+		return simulate(combos, cumulativeWeights, table.getMask(),
+				usedCards, marginOfError, maxBoards, seed, startTime);
+	}
+
+	/**
+	 * Deals batches of boards until the result is accurate enough, for
+	 * either kind of simulation.
+	 */
+	private EquityResult simulate(long[][] combos,
+			double[][] cumulativeWeights, long table, long usedCards,
+			double marginOfError, long maxBoards, long seed, long startTime) {
+		int[] deck = cardsNotIn(usedCards);
+		int cardsInHands = 0;
+		for (long[] playerCombos : combos) {
+			cardsInHands += playerCombos.length == 1 ? 0 : 2;
+		}
+		if (deck.length - cardsInHands < 5 - Long.bitCount(table)) {
+			throw new IllegalArgumentException(
+					"There aren't enough cards left to deal the table");
+		}
+
+		EquityResult result = new EquityResult(combos.length);
+		result.setSeed(seed);
+		long batch = 0;
+		boolean accurateEnough = false;
+		while (!accurateEnough && result.getBoards() < maxBoards) {
+			// deal a batch on each thread, then add them all together
+			ArrayList<Future<EquityResult>> batches;
+			batches = new ArrayList<Future<EquityResult>>();
+			long boardsLeft = maxBoards - result.getBoards();
+			for (int i = 0; i < numThreads && boardsLeft > 0; i++) {
+				int numBoards = (int) Math.min(BATCH_SIZE, boardsLeft);
+				batches.add(workers.submit(new SimulationBatch(combos,
+						cumulativeWeights, table, deck, numBoards,
+						SplitMixSource.seedOf(seed, batch))));
+				boardsLeft -= numBoards;
+				batch++;
+			}
+			for (Future<EquityResult> finishedBatch : batches) {
+				result.add(waitFor(finishedBatch));
+			}
+
+			accurateEnough = true;
+			for (int i = 0; i < combos.length; i++) {
+				if (result.getMarginOfError(i) > marginOfError) {
+					accurateEnough = false;
+				}
+			}
+		}
+
+		result.setElapsedNanos(System.nanoTime() - startTime);
+		return result;
+	}
+
+	/**
+	 * Calculates each player's exact equity by dealing every possible board
+	 * (i.e. 1,712,304 boards for two hands before the flop).
+	 * 
+	 * @param hands
+	 *            The two cards of each player.
+	 * @param table
+	 *            The cards on the table so far (0-5).
+	 * @param deadCards
+	 *            Cards that can't be dealt (i.e. folded cards), or an empty
+	 *            set.
+	 * @return each player's equity, counted over every board.
+	 */
+	public EquityResult enumerate(CardSet[] hands, CardSet table,
+			CardSet deadCards) {
+		long startTime = System.nanoTime();
+		long usedCards = checkCards(hands, table, deadCards);
+		long[] handMasks = new long[hands.length];
+		for (int i = 0; i < hands.length; i++) {
+			handMasks[i] = hands[i].getMask();
+		}
+
+		EquityResult result = workers.invoke(new EnumerationTask(handMasks,
+				table.getMask(), cardsNotIn(usedCards), -1));
+		result.setElapsedNanos(System.nanoTime() - startTime);
+		return result;
+	}
+
+	/**
+	 * Picks the seed of a calculation, different every time.
+	 */
+	private static long newSeed() {
+		return System.nanoTime() ^ Thread.currentThread().getId() << 48;
+	}
+
+	/**
+	 * Stops the worker threads, once the calculator is no longer needed.
+	 */
+	public void shutdown() {
+		workers.shutdown();
+	}
+
+	/**
+	 * Makes sure each player has two cards, there are at most five cards on
+	 * the table, and no card is used twice.
+	 * 
+	 * @return every card that is in use.
+	 */
+	private static long checkCards(CardSet[] hands, CardSet table,
+			CardSet deadCards) {
+		checkTable(hands.length, table, deadCards);
+		CardSet usedCards = table.union(deadCards);
+		for (CardSet hand : hands) {
+			if (hand.count() != 2) {
+				throw new IllegalArgumentException(
+						"A hand must have two cards: " + hand);
+			}
+			if (hand.intersects(usedCards)) {
+				throw new IllegalArgumentException("A card is used twice: "
+						+ hand);
+			}
+			usedCards.addAll(hand);
+		}
+		return usedCards.getMask();
+	}
+
+	/**
+	 * Makes sure there are at least two players, there are at most five cards
+	 * on the table, and none of them are dead.
+	 */
+	private static void checkTable(int numPlayers, CardSet table,
+			CardSet deadCards) {
+		if (numPlayers < 2) {
+			throw new IllegalArgumentException(
+					"At least two hands are needed");
+		}
+		if (table.count() > 5) {
+			throw new IllegalArgumentException(
+					"The table has more than five cards: " + table);
+		}
+		if (table.intersects(deadCards)) {
+			throw new IllegalArgumentException(
+					"A card is both on the table and dead");
+		}
+	}
+
+	/**
+	 * Gets the mask of every hand of a range that doesn't use one of the used
+	 * cards.
+	 */
+	private static long[] liveCombos(HandRange range, long usedCards) {
+		long[] combos = new long[range.count()];
+		int size = 0;
+		for (int combo = range.nextCombo(0); combo >= 0; combo = range
+				.nextCombo(combo + 1)) {
+			long mask = HandRange.maskOf(combo);
+			if ((mask & usedCards) == 0) {
+				combos[size++] = mask;
+			}
+		}
+		return Arrays.copyOf(combos, size);
+	}
+
+	/**
+	 * Adds up the weights of a range's hands, so a hand can be picked by
+	 * weight with a binary search.
+	 */
+	private static double[] cumulativeWeights(HandRange range, long[] combos) {
+		double[] cumulativeWeights = new double[combos.length];
+		double total = 0;
+		for (int i = 0; i < combos.length; i++) {
+			int card1 = Long.numberOfTrailingZeros(combos[i]);
+			int card2 = 63 - Long.numberOfLeadingZeros(combos[i]);
+			total += range.getWeight(HandRange.comboOf(card1, card2));
+			cumulativeWeights[i] = total;
+		}
+		return cumulativeWeights;
+	}
+
+	/**
+	 * Gets the index of every card that hasn't been used yet.
+	 */
+	private static int[] cardsNotIn(long usedCards) {
+		int[] deck = new int[52 - Long.bitCount(usedCards)];
+		int size = 0;
+		for (int card = 0; card < 52; card++) {
+			if ((usedCards & (1L << card)) == 0) {
+				deck[size++] = card;
+			}
+		}
+		return deck;
+	}
+
+	/**
+	 * Waits for a batch to finish.
+	 */
+	private static EquityResult waitFor(Future<EquityResult> batch) {
+		try {
+			return batch.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("EquityCalculator: Interrupted: " + e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException("EquityCalculator: Batch failed: "
+					+ e.getCause(), e.getCause());
+		}
+	}
+
+	/**
+	 * <h1>SimulationBatch</h1>
+	 * <p>
+	 * Deals a number of random boards and scores each player's hand on each
+	 * one. Everything it changes (its copy of the deck, its random number
+	 * generator, its counts) belongs to the batch alone.
+	 * </p>
+	 * <p>
+	 * Each player's hand is picked from their possible hands first; with
+	 * only one possible hand, the deck doesn't have its cards, otherwise any
+	 * card of a hand is skipped over while dealing the table.
+	 * </p>
+	 */
+	private static class SimulationBatch implements Callable<EquityResult> {
+		/**
+		 * the most times to try picking hands that don't share a card
+		 */
+		private static final int MAX_ATTEMPTS = 10000;
+
+		private long[][] combos;
+		private double[][] cumulativeWeights;
+		private long[] hands;
+		private long table;
+		private int[] deck;
+		private int numBoards;
+		private SplitMixSource random;
+
+		/**
+		 * Creates a batch of boards to be dealt.
+		 * 
+		 * @param combos
+		 *            The mask of each possible hand of each player.
+		 * @param cumulativeWeights
+		 *            The running total of the weights of each player's
+		 *            hands, or null if they all have the same weight.
+		 * @param table
+		 *            The mask of the cards on the table so far.
+		 * @param deck
+		 *            The cards that can still be dealt.
+		 * @param numBoards
+		 *            The number of boards to deal.
+		 * @param seed
+		 *            The seed of the batch's random number generator.
+		 */
+		public SimulationBatch(long[][] combos,
+				double[][] cumulativeWeights, long table, int[] deck,
+				int numBoards, long seed) {
+			this.combos = combos;
+			this.cumulativeWeights = cumulativeWeights;
+			this.hands = new long[combos.length];
+			this.table = table;
+			this.deck = deck.clone();
+			this.numBoards = numBoards;
+			this.random = new SplitMixSource(seed);
+		}
+
+		@Override
+		public EquityResult call() {
+			EquityResult result = new EquityResult(hands.length);
+			int[] strengths = new int[hands.length];
+			int cardsToDeal = 5 - Long.bitCount(table);
+
+			for (int board = 0; board < numBoards; board++) {
+				long handCards = dealHands();
+
+				// shuffle only as many cards as are needed to the front of
+				// the deck
+				long fullTable = table;
+				int cardsDealt = 0;
+				for (int i = 0; cardsDealt < cardsToDeal; i++) {
+					int j = i + random.nextInt(deck.length - i);
+					int card = deck[j];
+					deck[j] = deck[i];
+					deck[i] = card;
+					if ((handCards & (1L << card)) == 0) {
+						fullTable |= 1L << card;
+						cardsDealt++;
+					}
+				}
+
+				for (int i = 0; i < hands.length; i++) {
+					strengths[i] = HandEvaluator
+							.evaluate(hands[i] | fullTable);
+				}
+				result.addBoard(strengths);
+			}
+			return result;
+		}
+
+		/**
+		 * Picks a hand for each player, picking again until no two hands
+		 * share a card.
+		 * 
+		 * @return the mask of every card in the players' hands.
+		 */
+		private long dealHands() {
+			for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+				long handCards = 0;
+				int player = 0;
+				while (player < hands.length) {
+					long hand = pickHand(player);
+					if ((handCards & hand) != 0) {
+						break;
+					}
+					hands[player++] = hand;
+					handCards |= hand;
+				}
+				if (player == hands.length) {
+					return handCards;
+				}
+			}
+			throw new IllegalArgumentException(
+					"The ranges can't be dealt without using a card twice");
+		}
+
+		/**
+		 * Picks one of a player's possible hands at random, by weight.
+		 */
+		private long pickHand(int player) {
+			long[] playerCombos = combos[player];
+			if (playerCombos.length == 1) {
+				return playerCombos[0];
+			}
+			double[] weights = cumulativeWeights[player];
+			if (weights == null) {
+				return playerCombos[random.nextInt(playerCombos.length)];
+			}
+
+			double target = random.nextDouble() * weights[weights.length - 1];
+			int i = Arrays.binarySearch(weights, target);
+			// the first hand whose running total is above the target
+			i = i < 0 ? -i - 1 : i + 1;
+			return playerCombos[Math.min(i, playerCombos.length - 1)];
+		}
+	}
+
+	/**
+	 * <h1>EnumerationTask</h1>
+	 * <p>
+	 * Deals every board that starts with one of the cards of the deck (every
+	 * board is dealt in order of the cards' positions in the deck, so each one
+	 * is only dealt once). The first task splits into one task for each first
+	 * card, which are then done in parallel.
+	 * </p>
+	 */
+	private static class EnumerationTask extends RecursiveTask<EquityResult> {
+		private static final long serialVersionUID = 1L;
+
+		private long[] hands;
+		private long table;
+		private int[] deck;
+		private int firstCard;
+		private int[] strengths;
+		private EquityResult result;
+
+		/**
+		 * Creates a task to deal every board starting with a certain card.
+		 * 
+		 * @param hands
+		 *            The mask of each player's two cards.
+		 * @param table
+		 *            The mask of the cards on the table so far.
+		 * @param deck
+		 *            The cards that can still be dealt.
+		 * @param firstCard
+		 *            The position in the deck of the first card dealt, or -1
+		 *            to split into a task for each first card.
+		 */
+		public EnumerationTask(long[] hands, long table, int[] deck,
+				int firstCard) {
+			this.hands = hands;
+			this.table = table;
+			this.deck = deck;
+			this.firstCard = firstCard;
+		}
+
+		@Override
+		protected EquityResult compute() {
+			result = new EquityResult(hands.length);
+			strengths = new int[hands.length];
+			int cardsToDeal = 5 - Long.bitCount(table);
+
+			if (cardsToDeal == 0) {
+				dealRest(table, 0, 0);
+			} else if (firstCard >= 0) {
+				dealRest(table | (1L << deck[firstCard]), firstCard + 1,
+						cardsToDeal - 1);
+			} else {
+				ArrayList<EnumerationTask> tasks;
+				tasks = new ArrayList<EnumerationTask>();
+				// the first card leaves room for the rest after it
+				for (int i = 0; i <= deck.length - cardsToDeal; i++) {
+					EnumerationTask task = new EnumerationTask(hands, table,
+							deck, i);
+					task.fork();
+					tasks.add(task);
+				}
+				for (EnumerationTask task : tasks) {
+					result.add(task.join());
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Recursively deals every combination of the remaining cards, from a
+		 * position in the deck onwards, and scores each board.
+		 */
+		private void dealRest(long board, int from, int cardsLeft) {
+			if (cardsLeft == 0) {
+				for (int i = 0; i < hands.length; i++) {
+					strengths[i] = HandEvaluator.evaluate(hands[i] | board);
+				}
+				result.addBoard(strengths);
+				return;
+			}
+			for (int i = from; i <= deck.length - cardsLeft; i++) {
+				dealRest(board | (1L << deck[i]), i + 1, cardsLeft - 1);
+			}
+		}
+	}
+
+}
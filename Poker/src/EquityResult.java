@@ -0,0 +1,298 @@
+/**
+ * <h1>EquityResult</h1>
+ * <p>
+ * This class holds the outcome of an equity calculation: for each player, how
+ * many of the boards dealt they won outright, how many they tied, and their
+ * share of the pot over every board (a tied pot is split evenly between the
+ * players who tied).
+ * </p>
+ * <p>
+ * Shares of a pot are counted in units of 1 / (the lowest common multiple of
+ * 1 to the number of players), so a split pot is still a whole number of
+ * units, and the equity of an exhaustive calculation is an exact fraction.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class EquityResult {
+	/**
+	 * the number of standard deviations for a 95% confidence interval
+	 */
+	private static final double Z_95 = 1.96;
+
+	private long[] wins;
+	private long[] ties;
+	private long[] potShares;
+	private long unitsPerPot;
+	private long boards;
+	private long elapsedNanos;
+	private long seed;
+
+	/**
+	 * Creates an empty result, to add the outcome of each board to.
+	 * 
+	 * @param numPlayers
+	 *            The number of players.
+	 */
+	public EquityResult(int numPlayers) {
+		wins = new long[numPlayers];
+		ties = new long[numPlayers];
+		potShares = new long[numPlayers];
+		unitsPerPot = unitsPerPot(numPlayers);
+	}
+
+	/**
+	 * Gets the number of units one whole pot is counted as, so that a pot
+	 * split between any number of the players is a whole number of units.
+	 * 
+	 * @param numPlayers
+	 *            The number of players.
+	 * @return the number of units in a whole pot.
+	 */
+	public static long unitsPerPot(int numPlayers) {
+		long units = 1;
+		for (int i = 2; i <= numPlayers; i++) {
+			units = units / gcd(units, i) * i;
+		}
+		return units;
+	}
+
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			long remainder = a % b;
+			a = b;
+			b = remainder;
+		}
+		return a;
+	}
+
+	/**
+	 * Adds the outcome of one board.
+	 * 
+	 * @param strengths
+	 *            The strength of each player's hand on the board.
+	 */
+	public void addBoard(int[] strengths) {
+		int best = 0;
+		int numWinners = 0;
+		for (int i = 0; i < strengths.length; i++) {
+			if (strengths[i] > best) {
+				best = strengths[i];
+				numWinners = 1;
+			} else if (strengths[i] == best) {
+				numWinners++;
+			}
+		}
+
+		long share = unitsPerPot / numWinners;
+		for (int i = 0; i < strengths.length; i++) {
+			if (strengths[i] == best) {
+				if (numWinners == 1) {
+					wins[i]++;
+				} else {
+					ties[i]++;
+				}
+				potShares[i] += share;
+			}
+		}
+		boards++;
+	}
+
+	/**
+	 * Adds every board of another result (i.e. one worker thread's part of
+	 * the calculation) to this one.
+	 * 
+	 * @param otherResult
+	 *            The result to be added.
+	 */
+	public void add(EquityResult otherResult) {
+		for (int i = 0; i < wins.length; i++) {
+			wins[i] += otherResult.wins[i];
+			ties[i] += otherResult.ties[i];
+			potShares[i] += otherResult.potShares[i];
+		}
+		boards += otherResult.boards;
+	}
+
+	/**
+	 * Sets how long the calculation took, so its speed can be reported.
+	 * 
+	 * @param elapsedNanos
+	 *            The time taken, in nanoseconds.
+	 */
+	public void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Sets the seed the boards were dealt from, so the calculation can be
+	 * done again.
+	 * 
+	 * @param seed
+	 *            The seed of the calculation.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the seed the boards were dealt from, to pass back in to the
+	 * calculator to deal the same boards again (0 if every board was dealt).
+	 * 
+	 * @return the seed of the calculation.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns the number of players.
+	 * 
+	 * @return the number of players.
+	 */
+	public int getNumPlayers() {
+		return wins.length;
+	}
+
+	/**
+	 * Returns the number of boards dealt (sampled or enumerated).
+	 * 
+	 * @return the number of boards.
+	 */
+	public long getBoards() {
+		return boards;
+	}
+
+	/**
+	 * Returns the number of boards a player won outright.
+	 * 
+	 * @param player
+	 *            The index of the player.
+	 * @return the number of boards won.
+	 */
+	public long getWins(int player) {
+		return wins[player];
+	}
+
+	/**
+	 * Returns the number of boards a player tied for the best hand on.
+	 * 
+	 * @param player
+	 *            The index of the player.
+	 * @return the number of boards tied.
+	 */
+	public long getTies(int player) {
+		return ties[player];
+	}
+
+	/**
+	 * Returns a player's share of the pot over every board, in units of
+	 * unitsPerPot(). Divided by getPotSharesTotal(), this is exactly the
+	 * player's equity.
+	 * 
+	 * @param player
+	 *            The index of the player.
+	 * @return the player's total share of the pot, in units.
+	 */
+	public long getPotShares(int player) {
+		return potShares[player];
+	}
+
+	/**
+	 * Returns the number of units all of the pots add up to. A player's exact
+	 * equity is getPotShares(player) / getPotSharesTotal().
+	 * 
+	 * @return the total units of every pot.
+	 */
+	public long getPotSharesTotal() {
+		return boards * unitsPerPot;
+	}
+
+	/**
+	 * Returns the chance of a player winning outright.
+	 * 
+	 * @param player
+	 *            The index of the player.
+	 * @return the chance of winning (0-1).
+	 */
+	public double getWinProbability(int player) {
+		return boards == 0 ? 0 : (double) wins[player] / boards;
+	}
+
+	/**
+	 * Returns the chance of a player tying for the best hand.
+	 * 
+	 * @param player
+	 *            The index of the player.
+	 * @return the chance of tying (0-1).
+	 */
+	public double getTieProbability(int player) {
+		return boards == 0 ? 0 : (double) ties[player] / boards;
+	}
+
+	/**
+	 * Returns a player's equity, the share of the pot they can expect to win.
+	 * 
+	 * @param player
+	 *            The index of the player.
+	 * @return the player's equity (0-1).
+	 */
+	public double getEquity(int player) {
+		return boards == 0 ? 0 : (double) potShares[player]
+				/ getPotSharesTotal();
+	}
+
+	/**
+	 * Returns half the width of the 95% confidence interval of a player's
+	 * equity, if the boards were sampled. A share of the pot is between 0
+	 * and 1, so its variance is at most equity * (1 - equity).
+	 * 
+	 * @param player
+	 *            The index of the player.
+	 * @return the margin of error of the player's equity.
+	 */
+	public double getMarginOfError(int player) {
+		if (boards == 0) {
+			return 1;
+		}
+		double equity = getEquity(player);
+		return Z_95 * Math.sqrt(equity * (1 - equity) / boards);
+	}
+
+	/**
+	 * Returns the time the calculation took.
+	 * 
+	 * @return the time taken, in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Returns how many boards were dealt and scored per second.
+	 * 
+	 * @return the number of boards per second.
+	 */
+	public double getBoardsPerSecond() {
+		return elapsedNanos == 0 ? 0 : boards * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * Returns the equity, win and tie chance of each player, one player per
+	 * line.
+	 */
+	@Override
+	public String toString() {
+		String result = "";
+		for (int i = 0; i < wins.length; i++) {
+			result += String.format(
+					"Player %d: equity %.4f (win %.4f, tie %.4f)%n", i + 1,
+					getEquity(i), getWinProbability(i), getTieProbability(i));
+		}
+		result += String.format("%d boards, %.0f boards/sec", boards,
+				getBoardsPerSecond());
+		return result;
+	}
+
+}
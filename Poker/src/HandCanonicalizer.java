@@ -0,0 +1,160 @@
+/**
+ * <h1>HandCanonicalizer</h1>
+ * <p>
+ * Many hands are the same as each other except for their suits (i.e. the ace
+ * and king of hearts on a board of three spades is no different from the ace
+ * and king of clubs on three diamonds). This class maps a player's two cards
+ * and the table to a key that is the same for every such hand, so anything
+ * worked out for one of them (i.e. its equity) can be reused for the rest.
+ * </p>
+ * <p>
+ * For each suit, the ranks of that suit in the player's hand and on the table
+ * make up the suit's signature. Two hands are the same but for their suits
+ * exactly when they have the same four signatures, so the suits are renamed
+ * in order of their signatures, and the key is made from the renamed cards.
+ * Before the flop, hands can also be numbered 0-168 (i.e. AA, AKs, AKo).
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class HandCanonicalizer {
+	public static final int NUM_PREFLOP_CLASSES = 169;
+
+	private static final int NUM_RANKS = 13;
+	private static final int RANK_MASK = 0x1FFF;
+	private static final String RANKS = "23456789TJQKA";
+
+	/**
+	 * the number of bits each card takes up in a key (the index of the card
+	 * plus one, so 0 is no card)
+	 */
+	private static final int CARD_BITS = 6;
+
+	/**
+	 * Gets the key shared by every hand that is the same as this one but for
+	 * its suits.
+	 * 
+	 * @param hand
+	 *            The player's two cards.
+	 * @param table
+	 *            The cards on the table so far (0-5).
+	 * @return the key of the hand.
+	 */
+	public static long canonicalKey(CardSet hand, CardSet table) {
+		return canonicalKey(hand.getMask(), table.getMask());
+	}
+
+	/**
+	 * Gets the key shared by every hand that is the same as this one but for
+	 * its suits.
+	 * 
+	 * @param hand
+	 *            The mask of the player's two cards.
+	 * @param table
+	 *            The mask of the cards on the table so far (0-5).
+	 * @return the key of the hand (the renamed cards of the hand, then of the
+	 *         table, CARD_BITS each).
+	 */
+	public static long canonicalKey(long hand, long table) {
+		// the signature of each suit, with the suit in the lowest two bits,
+		// sorted from highest to lowest
+		int[] suits = new int[4];
+		for (int suit = 0; suit < 4; suit++) {
+			int handRanks = (int) (hand >>> (suit * NUM_RANKS)) & RANK_MASK;
+			int tableRanks = (int) (table >>> (suit * NUM_RANKS)) & RANK_MASK;
+			int signature = handRanks << (2 + NUM_RANKS) | tableRanks << 2
+					| suit;
+			int i = suit;
+			while (i > 0 && suits[i - 1] < signature) {
+				suits[i] = suits[i - 1];
+				i--;
+			}
+			suits[i] = signature;
+		}
+
+		// the suit with the highest signature becomes the first suit, etc.
+		long canonicalHand = 0;
+		long canonicalTable = 0;
+		for (int i = 0; i < 4; i++) {
+			int shift = (suits[i] & 3) * NUM_RANKS;
+			canonicalHand |= ((hand >>> shift) & RANK_MASK) << (i * NUM_RANKS);
+			canonicalTable |= ((table >>> shift) & RANK_MASK) << (i
+					* NUM_RANKS);
+		}
+
+		// the hand always takes up two cards' worth of the key, so its cards
+		// can't be mixed up with the table's
+		return packCards(canonicalHand) | packCards(canonicalTable) << (2
+				* CARD_BITS);
+	}
+
+	/**
+	 * Packs the index of each card (plus one) of a mask into a long, from the
+	 * lowest index up.
+	 */
+	private static long packCards(long cards) {
+		long packedCards = 0;
+		for (int i = 0; cards != 0; i++) {
+			long card = Long.numberOfTrailingZeros(cards) + 1;
+			packedCards |= card << (i * CARD_BITS);
+			cards &= cards - 1;
+		}
+		return packedCards;
+	}
+
+	/**
+	 * Gets which of the 169 different starting hands two cards are. The
+	 * starting hands are numbered the same way as the usual grid: a row and a
+	 * column for each rank from ace down, with pairs on the diagonal, suited
+	 * hands above it and offsuit hands below it.
+	 * 
+	 * @param card1
+	 *            The index of one of the cards.
+	 * @param card2
+	 *            The index of the other card.
+	 * @return the number (0-168) of the starting hand.
+	 */
+	public static int preflopClass(int card1, int card2) {
+		int highRank = Math.max(Card.rankOf(card1), Card.rankOf(card2));
+		int lowRank = Math.min(Card.rankOf(card1), Card.rankOf(card2));
+		if (Card.suitOf(card1) == Card.suitOf(card2)) {
+			return (14 - highRank) * NUM_RANKS + (14 - lowRank);
+		} else {
+			return (14 - lowRank) * NUM_RANKS + (14 - highRank);
+		}
+	}
+
+	/**
+	 * Gets which of the 169 different starting hands two cards are.
+	 * 
+	 * @param hand
+	 *            The player's two cards.
+	 * @return the number (0-168) of the starting hand.
+	 */
+	public static int preflopClass(CardSet hand) {
+		int card1 = hand.nextCard(0);
+		return preflopClass(card1, hand.nextCard(card1 + 1));
+	}
+
+	/**
+	 * Gets the name of one of the 169 different starting hands.
+	 * 
+	 * @param preflopClass
+	 *            The number of the starting hand.
+	 * @return the name of the starting hand (i.e. "AKs").
+	 */
+	public static String preflopName(int preflopClass) {
+		int row = preflopClass / NUM_RANKS;
+		int column = preflopClass % NUM_RANKS;
+		String name = "" + RANKS.charAt(12 - Math.min(row, column))
+				+ RANKS.charAt(12 - Math.max(row, column));
+		if (row < column) {
+			name += "s";
+		} else if (row > column) {
+			name += "o";
+		}
+		return name;
+	}
+
+}
@@ -0,0 +1,674 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * <h1>HandEvaluator</h1>
+ * <p>
+ * Scores a set of up to seven cards (i.e. a player's hand plus the table) in
+ * a handful of table lookups. The score is the strength of the best
+ * PokerHand the cards make, so a higher score is a better pokerhand, and
+ * new PokerHand(score) gives the hand itself.
+ * </p>
+ * <p>
+ * Cards are passed in by their index (see Card.index), and a set of cards as
+ * a CardSet or its mask. This way each suit takes up 13 bits of the mask, so a
+ * flush is found by counting bits, and everything else is looked up by how
+ * many of each rank there are.
+ * </p>
+ * <p>
+ * The tables take up a few MB, so they are generated once, saved to a file
+ * with a version and checksum, and mapped into memory (off the heap) each time
+ * the server starts after that.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class HandEvaluator {
+	private static final int NUM_RANKS = 13;
+	private static final int MAX_CARDS = 7;
+
+	/**
+	 * the number of ranks in the low and high half of the rank key. The
+	 * number of each rank is written as a base 5 digit (0-4 of each rank), and
+	 * the key is split in two so both halves can be looked up directly.
+	 */
+	private static final int LOW_RANKS = 6;
+	private static final int HIGH_RANKS = NUM_RANKS - LOW_RANKS;
+	private static final int LOW_KEYS = 15625; // 5^6
+	private static final int HIGH_KEYS = 78125; // 5^7
+
+	// the base 5 key of the low and high ranks of one suit's 13 bit mask
+	private static final int[] LOW_KEY = new int[1 << LOW_RANKS];
+	private static final int[] HIGH_KEY = new int[1 << HIGH_RANKS];
+
+	static {
+		for (int mask = 0; mask < LOW_KEY.length; mask++) {
+			LOW_KEY[mask] = baseFiveKey(mask, LOW_RANKS);
+		}
+		for (int mask = 0; mask < HIGH_KEY.length; mask++) {
+			HIGH_KEY[mask] = baseFiveKey(mask, HIGH_RANKS);
+		}
+	}
+
+	/**
+	 * where each table starts in TABLES. The low and high offsets turn the
+	 * two halves of the rank key into the position of its score, the flush
+	 * scores are by the 13 bit mask of the flush suit's ranks, and the rank
+	 * scores hold every combination of ranks for 0-7 cards (no flush).
+	 */
+	private static final int LOW_OFFSET_START = 0;
+	private static final int HIGH_OFFSET_START = LOW_OFFSET_START + LOW_KEYS;
+	private static final int FLUSH_SCORES_START = HIGH_OFFSET_START
+			+ (MAX_CARDS + 1) * HIGH_KEYS;
+	private static final int RANK_SCORES_START = FLUSH_SCORES_START
+			+ (1 << NUM_RANKS);
+	private static final int TABLE_SIZE = RANK_SCORES_START
+			+ numRankCombinations();
+
+	/**
+	 * the tables are saved to this file the first time they are generated,
+	 * and mapped straight into memory every time after that. The version
+	 * has to be changed whenever the tables or how they are scored changes.
+	 */
+	private static final String TABLES_FILE_PROPERTY = "poker.evaluator.tables";
+	private static final int MAGIC = 0x504B4556; // "PKEV"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 16;
+
+	/**
+	 * every table, off the heap, shared by every thread using the evaluator
+	 */
+	private static final IntBuffer TABLES = loadTables();
+
+	/**
+	 * Scores seven cards (i.e. a player's two cards and the five table
+	 * cards).
+	 * 
+	 * @param c1
+	 *            The index of the first card. The same goes for the rest.
+	 * @return the score of the best pokerhand the cards make.
+	 */
+	public static int evaluate(int c1, int c2, int c3, int c4, int c5, int c6,
+			int c7) {
+		return evaluate(1L << c1 | 1L << c2 | 1L << c3 | 1L << c4 | 1L << c5
+				| 1L << c6 | 1L << c7);
+	}
+
+	/**
+	 * Scores a set of up to seven cards.
+	 * 
+	 * @param cards
+	 *            The cards to be scored.
+	 * @return the score of the best pokerhand the cards make.
+	 */
+	public static int evaluate(CardSet cards) {
+		return evaluate(cards.getMask());
+	}
+
+	/**
+	 * Scores a set of up to seven cards. With fewer than five cards, only
+	 * pairs, two pairs, triples and quads can be made, and the missing
+	 * kickers are left as 0.
+	 * 
+	 * @param cardSet
+	 *            The cards to be scored, with the bit of each card's index
+	 *            set.
+	 * @return the score of the best pokerhand the cards make.
+	 */
+	public static int evaluate(long cardSet) {
+		int diamonds = (int) cardSet & 0x1FFF;
+		int clubs = (int) (cardSet >>> 13) & 0x1FFF;
+		int hearts = (int) (cardSet >>> 26) & 0x1FFF;
+		int spades = (int) (cardSet >>> 39) & 0x1FFF;
+		int numCards = Long.bitCount(cardSet);
+
+		// with seven cards or less, a flush can't be beaten by any pokerhand
+		// made of the other suits, so the other cards can be ignored
+		if (numCards >= 5) {
+			if (Integer.bitCount(diamonds) >= 5) {
+				return scoreFlush(diamonds);
+			} else if (Integer.bitCount(clubs) >= 5) {
+				return scoreFlush(clubs);
+			} else if (Integer.bitCount(hearts) >= 5) {
+				return scoreFlush(hearts);
+			} else if (Integer.bitCount(spades) >= 5) {
+				return scoreFlush(spades);
+			}
+		}
+
+		int lowKey = LOW_KEY[diamonds & 0x3F] + LOW_KEY[clubs & 0x3F]
+				+ LOW_KEY[hearts & 0x3F] + LOW_KEY[spades & 0x3F];
+		int highKey = HIGH_KEY[diamonds >>> LOW_RANKS]
+				+ HIGH_KEY[clubs >>> LOW_RANKS]
+				+ HIGH_KEY[hearts >>> LOW_RANKS]
+				+ HIGH_KEY[spades >>> LOW_RANKS];
+		return scoreRanks(lowKey, highKey, numCards);
+	}
+
+	/**
+	 * Scores a flush.
+	 * 
+	 * @param suitRanks
+	 *            The 13 bit mask of the ranks of the flush suit (5-7 cards).
+	 * @return the score of the best pokerhand the flush makes.
+	 */
+	public static int scoreFlush(int suitRanks) {
+		return TABLES.get(FLUSH_SCORES_START + suitRanks);
+	}
+
+	/**
+	 * Scores cards with no flush, by the rank key of the cards.
+	 * 
+	 * @param lowKey
+	 *            The sum of lowKey(card) of every card.
+	 * @param highKey
+	 *            The sum of highKey(card) of every card.
+	 * @param numCards
+	 *            The number of cards (0-7).
+	 * @return the score of the best pokerhand the cards make.
+	 */
+	public static int scoreRanks(int lowKey, int highKey, int numCards) {
+		return TABLES.get(TABLES.get(HIGH_OFFSET_START + numCards * HIGH_KEYS
+				+ highKey)
+				+ TABLES.get(LOW_OFFSET_START + lowKey));
+	}
+
+	/**
+	 * Gets what a card adds to the low half of the rank key. Together with
+	 * highKey, this lets the key be kept up to date one card at a time.
+	 * 
+	 * @param card
+	 *            The index of the card.
+	 * @return the card's part of the low rank key.
+	 */
+	public static int lowKey(int card) {
+		return LOW_KEY[(1 << (card % NUM_RANKS)) & 0x3F];
+	}
+
+	/**
+	 * Gets what a card adds to the high half of the rank key.
+	 * 
+	 * @param card
+	 *            The index of the card.
+	 * @return the card's part of the high rank key.
+	 */
+	public static int highKey(int card) {
+		return HIGH_KEY[(1 << (card % NUM_RANKS)) >>> LOW_RANKS];
+	}
+
+	/**
+	 * Maps the tables from their file, generating and saving them first if
+	 * the file is missing or doesn't match. If the file can't be written, the
+	 * tables are kept in memory off the heap instead.
+	 */
+	private static IntBuffer loadTables() {
+		File file = tablesFile();
+		try {
+			IntBuffer tables = mapTables(file);
+			if (tables != null) {
+				return tables;
+			}
+		} catch (IOException e) {
+			System.out.println("HandEvaluator: Can't read " + file + ": " + e);
+		}
+
+		ByteBuffer tables = ByteBuffer.allocateDirect(TABLE_SIZE * 4).order(
+				ByteOrder.nativeOrder());
+		tables.asIntBuffer().put(generateTables());
+		try {
+			saveTables(file, tables);
+			IntBuffer mappedTables = mapTables(file);
+			if (mappedTables != null) {
+				return mappedTables;
+			}
+		} catch (IOException e) {
+			System.out.println("HandEvaluator: Can't save " + file + ": " + e);
+		}
+		return tables.asIntBuffer();
+	}
+
+	/**
+	 * Gets the file the tables are saved to. It can be changed with the
+	 * poker.evaluator.tables system property.
+	 */
+	private static File tablesFile() {
+		String fileName = System.getProperty(TABLES_FILE_PROPERTY);
+		if (fileName == null) {
+			fileName = new File(System.getProperty("java.io.tmpdir"),
+					"poker-evaluator-v" + VERSION + ".tables").getPath();
+		}
+		return new File(fileName);
+	}
+
+	/**
+	 * Maps the tables from their file as read only.
+	 *
+	 * @return the tables, or null if the file is missing, from a different
+	 *         version, or doesn't match its checksum.
+	 */
+	private static IntBuffer mapTables(File file) throws IOException {
+		if (!file.isFile()
+				|| file.length() != HEADER_BYTES + (long) TABLE_SIZE * 4) {
+			return null;
+		}
+
+		RandomAccessFile tablesFile = new RandomAccessFile(file, "r");
+		try {
+			MappedByteBuffer mapped = tablesFile.getChannel().map(
+					FileChannel.MapMode.READ_ONLY, 0, file.length());
+			// the file is written in the native byte order, so a file from a
+			// machine with a different order won't match the magic number
+			mapped.order(ByteOrder.nativeOrder());
+			if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION
+					|| mapped.getInt(8) != TABLE_SIZE) {
+				return null;
+			}
+
+			mapped.position(HEADER_BYTES);
+			ByteBuffer tables = mapped.slice().order(ByteOrder.nativeOrder());
+			if (checksum(tables) != mapped.getInt(12)) {
+				return null;
+			}
+			return tables.asIntBuffer();
+		} finally {
+			// the mapping stays valid after the file is closed
+			tablesFile.close();
+		}
+	}
+
+	/**
+	 * Writes the tables to their file, behind a header with their version
+	 * and checksum. They are written to a temporary file first, so another
+	 * server starting at the same time never maps a half written file.
+	 */
+	private static void saveTables(File file, ByteBuffer tables)
+			throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(
+				ByteOrder.nativeOrder());
+		header.putInt(MAGIC).putInt(VERSION).putInt(TABLE_SIZE)
+				.putInt(checksum(tables));
+		header.flip();
+
+		File directory = file.getAbsoluteFile().getParentFile();
+		File tempFile = File.createTempFile("poker-evaluator", ".tmp",
+				directory);
+		try {
+			FileOutputStream out = new FileOutputStream(tempFile);
+			try {
+				FileChannel channel = out.getChannel();
+				ByteBuffer body = tables.duplicate();
+				body.clear();
+				while (header.hasRemaining() || body.hasRemaining()) {
+					channel.write(new ByteBuffer[] { header, body });
+				}
+			} finally {
+				out.close();
+			}
+			Files.move(tempFile.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			tempFile.delete();
+		}
+	}
+
+	/**
+	 * Calculates the CRC32 checksum of every byte of the tables.
+	 */
+	private static int checksum(ByteBuffer tables) {
+		CRC32 crc = new CRC32();
+		ByteBuffer bytes = tables.duplicate();
+		bytes.clear();
+		byte[] chunk = new byte[1 << 16];
+		while (bytes.hasRemaining()) {
+			int length = Math.min(chunk.length, bytes.remaining());
+			bytes.get(chunk, 0, length);
+			crc.update(chunk, 0, length);
+		}
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Generates every table, in the order they are laid out in TABLES.
+	 */
+	private static int[] generateTables() {
+		int[] tables = new int[TABLE_SIZE];
+		int[][] ways = waysToHoldCards();
+
+		// the low ranks are indexed by their own counts only, as whatever
+		// cards are left over after the high ranks have to be in them
+		int[] counts = new int[NUM_RANKS];
+		for (int key = 0; key < LOW_KEYS; key++) {
+			int numCards = digitsOf(key, counts, 0, LOW_RANKS);
+			if (numCards <= MAX_CARDS) {
+				tables[LOW_OFFSET_START + key] = rankIndex(counts,
+						LOW_RANKS - 1, 0, numCards, ways);
+			}
+		}
+
+		// the high ranks are indexed for each number of cards, which also
+		// moves each number of cards into its own part of the rank scores
+		int firstIndex = RANK_SCORES_START;
+		for (int numCards = 0; numCards <= MAX_CARDS; numCards++) {
+			for (int key = 0; key < HIGH_KEYS; key++) {
+				if (digitsOf(key, counts, LOW_RANKS, HIGH_RANKS) <= numCards) {
+					int position = HIGH_OFFSET_START + numCards * HIGH_KEYS
+							+ key;
+					tables[position] = firstIndex
+							+ rankIndex(counts, NUM_RANKS - 1, LOW_RANKS,
+									numCards, ways);
+				}
+			}
+			firstIndex += ways[NUM_RANKS][numCards];
+		}
+
+		// score every combination of ranks for each number of cards
+		for (int numCards = 0; numCards <= MAX_CARDS; numCards++) {
+			scoreRankCombinations(tables, counts, NUM_RANKS - 1, numCards,
+					numCards);
+		}
+
+		// score every flush (5-7 cards of one suit)
+		int[] ranks = new int[MAX_CARDS];
+		for (int mask = 0; mask < (1 << NUM_RANKS); mask++) {
+			int numCards = Integer.bitCount(mask);
+			if (numCards >= 5 && numCards <= MAX_CARDS) {
+				int i = 0;
+				for (int rank = 0; rank < NUM_RANKS; rank++) {
+					if ((mask & (1 << rank)) != 0) {
+						ranks[i++] = rank + 2;
+					}
+				}
+				tables[FLUSH_SCORES_START + mask] = bestOfFive(ranks,
+						numCards, true);
+			}
+		}
+		return tables;
+	}
+
+	/**
+	 * Gets the number of ways n ranks can hold s cards (with at most 4 of each
+	 * rank), as ways[n][s]. It's what makes the index of a combination of
+	 * ranks unique and without gaps, so the rank scores have no wasted space.
+	 */
+	private static int[][] waysToHoldCards() {
+		int[][] ways = new int[NUM_RANKS + 1][MAX_CARDS + 1];
+		ways[0][0] = 1;
+		for (int n = 1; n <= NUM_RANKS; n++) {
+			for (int s = 0; s <= MAX_CARDS; s++) {
+				for (int count = 0; count <= 4 && count <= s; count++) {
+					ways[n][s] += ways[n - 1][s - count];
+				}
+			}
+		}
+		return ways;
+	}
+
+	/**
+	 * Gets the number of combinations of ranks for 0-7 cards, which is the
+	 * size of the rank scores.
+	 */
+	private static int numRankCombinations() {
+		int[][] ways = waysToHoldCards();
+		int total = 0;
+		for (int numCards = 0; numCards <= MAX_CARDS; numCards++) {
+			total += ways[NUM_RANKS][numCards];
+		}
+		return total;
+	}
+
+	/**
+	 * Puts the type of hand and its defining values/kickers into one score
+	 * (the strength of the PokerHand they make).
+	 */
+	private static int toScore(int[] values) {
+		return PokerHand.toStrength(values[0], values[1], values[2],
+				values[3], values[4], values[5]);
+	}
+
+	/**
+	 * Gets the base 5 key of a number of ranks of a mask (one digit per rank,
+	 * i.e. one of each rank whose bit is set).
+	 */
+	private static int baseFiveKey(int mask, int numRanks) {
+		int key = 0;
+		for (int i = numRanks - 1; i >= 0; i--) {
+			key = key * 5 + ((mask >>> i) & 1);
+		}
+		return key;
+	}
+
+	/**
+	 * Writes the base 5 digits of a key into the counts of each rank.
+	 * 
+	 * @return the number of cards the key holds.
+	 */
+	private static int digitsOf(int key, int[] counts, int firstRank,
+			int numRanks) {
+		int numCards = 0;
+		for (int i = 0; i < numRanks; i++) {
+			counts[firstRank + i] = key % 5;
+			numCards += key % 5;
+			key /= 5;
+		}
+		return numCards;
+	}
+
+	/**
+	 * Gets the part of the index of a combination of ranks (amongst every
+	 * combination holding the same number of cards) that comes from the ranks
+	 * between highestRank and lowestRank, going from the highest rank down.
+	 */
+	private static int rankIndex(int[] counts, int highestRank,
+			int lowestRank, int numCards, int[][] ways) {
+		int index = 0;
+		for (int rank = highestRank; rank >= lowestRank; rank--) {
+			for (int count = 0; count < counts[rank]; count++) {
+				if (numCards - count >= 0) {
+					index += ways[rank][numCards - count];
+				}
+			}
+			numCards -= counts[rank];
+		}
+		return index;
+	}
+
+	/**
+	 * Recursively goes through every combination of ranks holding a number
+	 * of cards, and stores the score of each one.
+	 */
+	private static void scoreRankCombinations(int[] tables, int[] counts,
+			int rank, int cardsLeft, int numCards) {
+		if (rank < 0) {
+			if (cardsLeft == 0) {
+				int lowKey = 0;
+				int highKey = 0;
+				for (int i = LOW_RANKS - 1; i >= 0; i--) {
+					lowKey = lowKey * 5 + counts[i];
+				}
+				for (int i = NUM_RANKS - 1; i >= LOW_RANKS; i--) {
+					highKey = highKey * 5 + counts[i];
+				}
+				int[] ranks = new int[numCards];
+				int i = 0;
+				for (int r = 0; r < NUM_RANKS; r++) {
+					for (int c = 0; c < counts[r]; c++) {
+						ranks[i++] = r + 2;
+					}
+				}
+				int position = tables[HIGH_OFFSET_START + numCards * HIGH_KEYS
+						+ highKey]
+						+ tables[LOW_OFFSET_START + lowKey];
+				tables[position] = bestOfFive(ranks, numCards, false);
+			}
+			return;
+		}
+		for (int count = 0; count <= 4 && count <= cardsLeft; count++) {
+			counts[rank] = count;
+			scoreRankCombinations(tables, counts, rank - 1, cardsLeft - count,
+					numCards);
+		}
+		counts[rank] = 0;
+	}
+
+	/**
+	 * Finds the best pokerhand out of every five cards of a set of ranks (in
+	 * ascending order), the same way the best of a player's possible hands is
+	 * chosen.
+	 */
+	private static int bestOfFive(int[] ranks, int numCards, boolean isFlush) {
+		if (numCards < 5) {
+			return scoreFewerThanFive(ranks, numCards);
+		}
+		int best = 0;
+		int[] hand = new int[5];
+		// each subset of five cards is a mask with five of the bits set
+		for (int subset = 0; subset < (1 << numCards); subset++) {
+			if (Integer.bitCount(subset) == 5) {
+				int size = 0;
+				for (int i = 0; i < numCards; i++) {
+					if ((subset & (1 << i)) != 0) {
+						hand[size++] = ranks[i];
+					}
+				}
+				best = Math.max(best, scoreFive(hand, isFlush));
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Scores five cards (ranks in ascending order). As with the rest of the
+	 * game, an ace is only ever the highest card (so there is no straight from
+	 * ace to five), and quads are decided by the rank of the quad alone.
+	 */
+	private static int scoreFive(int[] hand, boolean isFlush) {
+		boolean isStraight = true;
+		for (int i = 1; i < 5; i++) {
+			if (hand[i] != hand[i - 1] + 1) {
+				isStraight = false;
+			}
+		}
+
+		int[] values = new int[6];
+		int[] histogramOfRanks = new int[15];
+		for (int i = 0; i < 5; i++) {
+			histogramOfRanks[hand[i]]++;
+		}
+
+		// the highest of each kind is first
+		int[] quads = ranksWithCount(histogramOfRanks, 4);
+		int[] triples = ranksWithCount(histogramOfRanks, 3);
+		int[] pairs = ranksWithCount(histogramOfRanks, 2);
+		int[] singles = ranksWithCount(histogramOfRanks, 1);
+
+		if (isFlush && isStraight) {
+			values[0] = PokerHand.STRAIGHT_FLUSH;
+			values[1] = singles[0];
+		} else if (quads.length > 0) {
+			values[0] = PokerHand.QUAD;
+			values[1] = quads[0];
+		} else if (triples.length > 0 && pairs.length > 0) {
+			values[0] = PokerHand.FULL_HOUSE;
+			values[1] = triples[0];
+			values[2] = pairs[0];
+		} else if (isFlush) {
+			values[0] = PokerHand.FLUSH;
+			System.arraycopy(singles, 0, values, 1, 5);
+		} else if (isStraight) {
+			values[0] = PokerHand.STRAIGHT;
+			values[1] = singles[0];
+		} else if (triples.length > 0) {
+			values[0] = PokerHand.TRIPLE;
+			values[1] = triples[0];
+			System.arraycopy(singles, 0, values, 2, 2);
+		} else if (pairs.length >= 2) {
+			values[0] = PokerHand.TWO_PAIR;
+			values[1] = pairs[0];
+			values[2] = pairs[1];
+			values[3] = singles[0];
+		} else if (pairs.length == 1) {
+			values[0] = PokerHand.PAIR;
+			values[1] = pairs[0];
+			System.arraycopy(singles, 0, values, 2, 3);
+		} else {
+			values[0] = PokerHand.HIGH_CARD;
+			System.arraycopy(singles, 0, values, 1, 5);
+		}
+		return toScore(values);
+	}
+
+	/**
+	 * Scores less than five cards (i.e. a player's two cards before the flop
+	 * is dealt). There are no straights, flushes or full houses, and any
+	 * missing kickers are left as 0.
+	 */
+	private static int scoreFewerThanFive(int[] ranks, int numCards) {
+		int[] values = new int[6];
+		int[] histogramOfRanks = new int[15];
+		for (int i = 0; i < numCards; i++) {
+			histogramOfRanks[ranks[i]]++;
+		}
+
+		int[] quads = ranksWithCount(histogramOfRanks, 4);
+		int[] triples = ranksWithCount(histogramOfRanks, 3);
+		int[] pairs = ranksWithCount(histogramOfRanks, 2);
+		int[] singles = ranksWithCount(histogramOfRanks, 1);
+
+		if (numCards == 0) {
+			return 0;
+		} else if (quads.length > 0) {
+			values[0] = PokerHand.QUAD;
+			values[1] = quads[0];
+		} else if (triples.length > 0) {
+			values[0] = PokerHand.TRIPLE;
+			values[1] = triples[0];
+			System.arraycopy(singles, 0, values, 2, singles.length);
+		} else if (pairs.length >= 2) {
+			values[0] = PokerHand.TWO_PAIR;
+			values[1] = pairs[0];
+			values[2] = pairs[1];
+		} else if (pairs.length == 1) {
+			values[0] = PokerHand.PAIR;
+			values[1] = pairs[0];
+			System.arraycopy(singles, 0, values, 2, singles.length);
+		} else {
+			values[0] = PokerHand.HIGH_CARD;
+			System.arraycopy(singles, 0, values, 1, singles.length);
+		}
+		return toScore(values);
+	}
+
+	/**
+	 * Gets every rank that appears a certain number of times, highest rank
+	 * first.
+	 */
+	private static int[] ranksWithCount(int[] histogramOfRanks, int count) {
+		int size = 0;
+		for (int rank = histogramOfRanks.length - 1; rank >= 2; rank--) {
+			if (histogramOfRanks[rank] == count) {
+				size++;
+			}
+		}
+		int[] ranks = new int[size];
+		int i = 0;
+		for (int rank = histogramOfRanks.length - 1; rank >= 2; rank--) {
+			if (histogramOfRanks[rank] == count) {
+				ranks[i++] = rank;
+			}
+		}
+		return ranks;
+	}
+
+}
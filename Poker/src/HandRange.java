@@ -0,0 +1,414 @@
+import java.util.Arrays;
+
+/**
+ * <h1>HandRange</h1>
+ * <p>
+ * This class represents a range of hands a player might have, out of the 1326
+ * possible pairs of cards (combos). Each combo has a number, and the range is
+ * stored as a bitset of those numbers, along with an optional weight for each
+ * combo (i.e. how often the player would play it this way).
+ * </p>
+ * <p>
+ * Ranges are written in the usual shorthand, separated by commas:
+ * </p>
+ * 
+ * <pre>
+ * AA          a pair (every suit)
+ * AKs, AKo    two ranks, suited or offsuit (AK is both)
+ * TT+         a pair and every pair above it
+ * ATs+        a kicker and every kicker above it, up to the first rank
+ * 99-66       every pair in between
+ * 76s-54s     every hand in between, the ranks stepping down together
+ * A5s-A2s     every kicker in between
+ * AhKh        one combo, with its suits (d, c, h or s)
+ * AKs:0.5     any of the above, with a weight
+ * </pre>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class HandRange {
+	public static final int NUM_COMBOS = 1326;
+
+	private static final String RANKS = "23456789TJQKA";
+	private static final String SUITS = "dchs";
+
+	/**
+	 * the mask of the two cards of each combo, and each card's index. Combo
+	 * numbers go through every second card, then every first card below it.
+	 */
+	private static final long[] COMBO_MASKS = new long[NUM_COMBOS];
+	private static final int[] FIRST_CARDS = new int[NUM_COMBOS];
+	private static final int[] SECOND_CARDS = new int[NUM_COMBOS];
+
+	static {
+		for (int card2 = 1; card2 < 52; card2++) {
+			for (int card1 = 0; card1 < card2; card1++) {
+				int combo = comboOf(card1, card2);
+				COMBO_MASKS[combo] = (1L << card1) | (1L << card2);
+				FIRST_CARDS[combo] = card1;
+				SECOND_CARDS[combo] = card2;
+			}
+		}
+	}
+
+	private long[] combos = new long[(NUM_COMBOS + 63) / 64];
+	private double[] weights;
+
+	/**
+	 * Creates an empty range.
+	 */
+	public HandRange() {
+	}
+
+	/**
+	 * Creates a range from its shorthand (i.e. "AKs, TT+, 76s-54s").
+	 * 
+	 * @param notation
+	 *            The hands of the range, separated by commas.
+	 * @return the range.
+	 */
+	public static HandRange parse(String notation) {
+		HandRange range = new HandRange();
+		for (String part : notation.split(",")) {
+			String hands = part.trim();
+			if (hands.isEmpty()) {
+				continue;
+			}
+
+			double weight = 1;
+			int colon = hands.indexOf(':');
+			if (colon >= 0) {
+				try {
+					weight = Double.parseDouble(hands.substring(colon + 1)
+							.trim());
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Invalid weight: "
+							+ part);
+				}
+				if (weight < 0) {
+					throw new IllegalArgumentException("Negative weight: "
+							+ part);
+				}
+				hands = hands.substring(0, colon).trim();
+			}
+			range.addHands(hands, weight);
+		}
+		return range;
+	}
+
+	/**
+	 * Gets the number of a combo.
+	 * 
+	 * @param card1
+	 *            The index of one of the cards.
+	 * @param card2
+	 *            The index of the other card.
+	 * @return the number (0-1325) of the combo.
+	 */
+	public static int comboOf(int card1, int card2) {
+		if (card1 > card2) {
+			int temp = card1;
+			card1 = card2;
+			card2 = temp;
+		}
+		return card2 * (card2 - 1) / 2 + card1;
+	}
+
+	/**
+	 * Gets the mask of a combo's two cards, the same as a CardSet's.
+	 * 
+	 * @param combo
+	 *            The number of the combo.
+	 * @return the mask of the combo.
+	 */
+	public static long maskOf(int combo) {
+		return COMBO_MASKS[combo];
+	}
+
+	/**
+	 * Gets the two cards of a combo.
+	 * 
+	 * @param combo
+	 *            The number of the combo.
+	 * @return the cards of the combo.
+	 */
+	public static CardSet cardsOf(int combo) {
+		return new CardSet(COMBO_MASKS[combo]);
+	}
+
+	/**
+	 * Adds a combo to the range.
+	 * 
+	 * @param combo
+	 *            The number of the combo.
+	 */
+	public void add(int combo) {
+		add(combo, 1);
+	}
+
+	/**
+	 * Adds a combo to the range with a weight, or removes it if the weight is
+	 * 0.
+	 * 
+	 * @param combo
+	 *            The number of the combo.
+	 * @param weight
+	 *            How often the combo is in the range (i.e. 0.5 for half the
+	 *            time).
+	 */
+	public void add(int combo, double weight) {
+		if (weight == 0) {
+			combos[combo >>> 6] &= ~(1L << combo);
+			return;
+		}
+		combos[combo >>> 6] |= 1L << combo;
+		if (weights == null && weight != 1) {
+			weights = new double[NUM_COMBOS];
+			Arrays.fill(weights, 1);
+		}
+		if (weights != null) {
+			weights[combo] = weight;
+		}
+	}
+
+	/**
+	 * Checks if a combo is in the range.
+	 * 
+	 * @param combo
+	 *            The number of the combo.
+	 * @return whether or not the combo is in the range.
+	 */
+	public boolean contains(int combo) {
+		return (combos[combo >>> 6] & (1L << combo)) != 0;
+	}
+
+	/**
+	 * Returns the weight of a combo, or 0 if it isn't in the range.
+	 * 
+	 * @param combo
+	 *            The number of the combo.
+	 * @return the weight of the combo.
+	 */
+	public double getWeight(int combo) {
+		if (!contains(combo)) {
+			return 0;
+		}
+		return weights == null ? 1 : weights[combo];
+	}
+
+	/**
+	 * Returns whether or not any combo has a weight other than 1.
+	 * 
+	 * @return whether or not the range is weighted.
+	 */
+	public boolean isWeighted() {
+		return weights != null;
+	}
+
+	/**
+	 * Returns the number of combos in the range.
+	 * 
+	 * @return the number of combos.
+	 */
+	public int count() {
+		int count = 0;
+		for (long word : combos) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Used to go through the combos of the range in order, the same way as
+	 * CardSet.nextCard().
+	 * 
+	 * @param fromCombo
+	 *            The combo to start looking from (inclusive).
+	 * @return the next combo in the range, or -1 if there are no more.
+	 */
+	public int nextCombo(int fromCombo) {
+		int word = fromCombo >>> 6;
+		if (word >= combos.length) {
+			return -1;
+		}
+		long remaining = combos[word] & (-1L << fromCombo);
+		while (remaining == 0) {
+			word++;
+			if (word == combos.length) {
+				return -1;
+			}
+			remaining = combos[word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(remaining);
+	}
+
+	/**
+	 * Returns the combos of the range, separated by commas, each with its
+	 * suits (i.e. "AdKd, AcKc").
+	 */
+	@Override
+	public String toString() {
+		String rangeOfHands = "";
+		for (int combo = nextCombo(0); combo >= 0; combo = nextCombo(combo
+				+ 1)) {
+			if (!rangeOfHands.equals("")) {
+				rangeOfHands += ", ";
+			}
+			// the higher rank goes first
+			int card1 = FIRST_CARDS[combo];
+			int card2 = SECOND_CARDS[combo];
+			if (Card.rankOf(card1) >= Card.rankOf(card2)) {
+				rangeOfHands += nameOf(card1) + nameOf(card2);
+			} else {
+				rangeOfHands += nameOf(card2) + nameOf(card1);
+			}
+			if (weights != null && weights[combo] != 1) {
+				rangeOfHands += ":" + weights[combo];
+			}
+		}
+		return rangeOfHands;
+	}
+
+	/**
+	 * Adds one part of the shorthand (i.e. "TT+") to the range.
+	 */
+	private void addHands(String hands, double weight) {
+		if (hands.length() == 4 && SUITS.indexOf(hands.charAt(1)) >= 0
+				&& SUITS.indexOf(hands.charAt(3)) >= 0) {
+			int card1 = cardOf(hands, 0);
+			int card2 = cardOf(hands, 2);
+			if (card1 == card2) {
+				throw new IllegalArgumentException("A card is used twice: "
+						+ hands);
+			}
+			add(comboOf(card1, card2), weight);
+			return;
+		}
+
+		if (hands.endsWith("+")) {
+			int[] hand = handOf(hands, hands.substring(0, hands.length() - 1));
+			// a pair goes up to aces, anything else up to one below the
+			// first rank
+			int last = hand[0] == hand[1] ? 14 : hand[0] - 1;
+			for (int rank = hand[1]; rank <= last; rank++) {
+				addHand(hand[0] == hand[1] ? rank : hand[0], rank, hand[2],
+						weight);
+			}
+		} else if (hands.indexOf('-') >= 0) {
+			int dash = hands.indexOf('-');
+			int[] high = handOf(hands, hands.substring(0, dash));
+			int[] low = handOf(hands, hands.substring(dash + 1));
+			boolean pairs = high[0] == high[1];
+			boolean valid;
+			if (pairs || low[0] == low[1]) {
+				// pairs only go down to pairs (i.e. not "KK-K2")
+				valid = pairs && low[0] == low[1];
+			} else {
+				// the kicker changes under the same first rank, or both
+				// ranks change with the same gap between them
+				valid = high[0] == low[0]
+						|| high[0] - high[1] == low[0] - low[1];
+			}
+			if (!valid || high[2] != low[2] || high[1] < low[1]) {
+				throw new IllegalArgumentException("Invalid range: " + hands);
+			}
+			for (int rank = low[1]; rank <= high[1]; rank++) {
+				if (high[0] == low[0] && !pairs) {
+					// the kicker changes
+					addHand(high[0], rank, high[2], weight);
+				} else {
+					// both ranks change together
+					addHand(rank + high[0] - high[1], rank, high[2], weight);
+				}
+			}
+		} else {
+			int[] hand = handOf(hands, hands);
+			addHand(hand[0], hand[1], hand[2], weight);
+		}
+	}
+
+	/**
+	 * Adds every combo of two ranks to the range.
+	 * 
+	 * @param suited
+	 *            1 for only suited combos, -1 for only offsuit ones, or 0 for
+	 *            both.
+	 */
+	private void addHand(int rank1, int rank2, int suited, double weight) {
+		for (int suit1 = 1; suit1 <= 4; suit1++) {
+			for (int suit2 = 1; suit2 <= 4; suit2++) {
+				if (suited > 0 && suit1 != suit2 || suited < 0
+						&& suit1 == suit2) {
+					continue;
+				}
+				int card1 = Card.index(suit1, rank1);
+				int card2 = Card.index(suit2, rank2);
+				if (card1 != card2) {
+					add(comboOf(card1, card2), weight);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads two ranks and whether they are suited (i.e. "AKs"), with the
+	 * higher rank first.
+	 * 
+	 * @return the two ranks, then 1 for suited, -1 for offsuit or 0 for both.
+	 */
+	private static int[] handOf(String hands, String hand) {
+		if (hand.length() < 2 || hand.length() > 3) {
+			throw new IllegalArgumentException("Invalid hand: " + hands);
+		}
+		int rank1 = rankOf(hands, hand.charAt(0));
+		int rank2 = rankOf(hands, hand.charAt(1));
+		int suited = 0;
+		if (hand.length() == 3) {
+			char suitedness = Character.toLowerCase(hand.charAt(2));
+			if (suitedness == 's') {
+				suited = 1;
+			} else if (suitedness == 'o') {
+				suited = -1;
+			} else {
+				throw new IllegalArgumentException("Invalid hand: " + hands);
+			}
+		}
+		if (rank1 == rank2 && suited != 0) {
+			throw new IllegalArgumentException("A pair can't be suited: "
+					+ hands);
+		}
+		return new int[] { Math.max(rank1, rank2), Math.min(rank1, rank2),
+				suited };
+	}
+
+	/**
+	 * Reads a card with its suit (i.e. "Ah") at a position in a string.
+	 */
+	private static int cardOf(String hands, int position) {
+		int rank = rankOf(hands, hands.charAt(position));
+		int suit = SUITS.indexOf(hands.charAt(position + 1)) + 1;
+		return Card.index(suit, rank);
+	}
+
+	/**
+	 * Reads a rank (2-9, T, J, Q, K or A).
+	 */
+	private static int rankOf(String hands, char rank) {
+		int index = RANKS.indexOf(Character.toUpperCase(rank));
+		if (index < 0) {
+			throw new IllegalArgumentException("Invalid rank '" + rank
+					+ "': " + hands);
+		}
+		return index + 2;
+	}
+
+	/**
+	 * Returns a card in the shorthand (i.e. "Ah").
+	 */
+	private static String nameOf(int card) {
+		return "" + RANKS.charAt(Card.rankOf(card) - 2)
+				+ SUITS.charAt(Card.suitOf(card) - 1);
+	}
+
+}
@@ -0,0 +1,110 @@
+/**
+ * <h1>HandState</h1>
+ * <p>
+ * This class keeps track of a player's cards as they are dealt (their two
+ * cards, then the flop, turn and river), along with how many of each rank and
+ * suit they have. Each time a card is added, the strength of the best
+ * pokerhand the cards make is updated with a couple of table lookups, so it is
+ * always known without going back over the cards.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class HandState {
+	private static final int NUM_RANKS = 13;
+	private static final int MAX_CARDS = 7;
+
+	private CardSet cards = new CardSet();
+	private int[] suitCounts = new int[4];
+	private int flushSuit;
+	private int lowKey;
+	private int highKey;
+	private int strength;
+
+	/**
+	 * Creates an empty hand.
+	 */
+	public HandState() {
+		reset();
+	}
+
+	/**
+	 * Removes every card, to refresh for the next round.
+	 */
+	public void reset() {
+		cards.clear();
+		for (int suit = 0; suit < suitCounts.length; suit++) {
+			suitCounts[suit] = 0;
+		}
+		flushSuit = -1;
+		lowKey = 0;
+		highKey = 0;
+		strength = 0;
+	}
+
+	/**
+	 * Adds a dealt card, and updates the strength of the hand.
+	 * 
+	 * @param card
+	 *            The index of the card dealt.
+	 */
+	public void addCard(int card) {
+		if (cards.contains(card)) {
+			return;
+		}
+		if (cards.count() == MAX_CARDS) {
+			throw new IllegalStateException("A hand can have at most "
+					+ MAX_CARDS + " cards");
+		}
+
+		cards.add(card);
+		lowKey += HandEvaluator.lowKey(card);
+		highKey += HandEvaluator.highKey(card);
+		int suit = card / NUM_RANKS;
+		suitCounts[suit]++;
+		// with seven cards, only one suit can ever have five
+		if (suitCounts[suit] >= 5) {
+			flushSuit = suit;
+		}
+
+		if (flushSuit >= 0) {
+			int suitRanks = (int) (cards.getMask() >>> (flushSuit * NUM_RANKS))
+					& 0x1FFF;
+			strength = HandEvaluator.scoreFlush(suitRanks);
+		} else {
+			strength = HandEvaluator.scoreRanks(lowKey, highKey,
+					cards.count());
+		}
+	}
+
+	/**
+	 * Adds a dealt card, and updates the strength of the hand.
+	 * 
+	 * @param card
+	 *            The card dealt.
+	 */
+	public void addCard(Card card) {
+		addCard(card.getIndex());
+	}
+
+	/**
+	 * Used to get the strength of the best pokerhand the cards dealt so far
+	 * make. Before the flop, this is only a pair or a high card.
+	 * 
+	 * @return the strength of the hand (see PokerHand).
+	 */
+	public int getStrength() {
+		return strength;
+	}
+
+	/**
+	 * Used to get the cards dealt so far.
+	 * 
+	 * @return the cards of the hand.
+	 */
+	public CardSet getCards() {
+		return new CardSet(cards.getMask());
+	}
+
+}
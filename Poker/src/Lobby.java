@@ -0,0 +1,160 @@
+import java.util.HashSet;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * <h1>Lobby</h1>
+ * <p>
+ * Where players wait for a game. Each player that chooses a name no one else
+ * has is seated at the table being filled, and once every seat is taken the
+ * table is started, and the next player is seated at a new one. A player who
+ * leaves before their game has started gives their seat back. The lobby
+ * keeps track of the tables being played at, and lets each one go once its
+ * game is over.
+ * </p>
+ * <p>
+ * Each table's deck gets a source of its own, split off from the lobby's
+ * (chosen by the poker.shuffle and poker.shuffle.seed system properties),
+ * so no two tables deal the same cards, and with a seed the server's games
+ * can be replayed.
+ * </p>
+ * <p>
+ * Players join and leave from the server's network threads, and tables
+ * finish on the scheduler's threads, so the lobby is only changed with its
+ * lock held.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class Lobby implements TableListener {
+	private int seatsPerTable;
+	private int startingChips;
+	private ScheduledExecutorService scheduler;
+	private ShuffleSource shuffles = ShuffleSource.fromSystemProperties();
+
+	/**
+	 * set of names for every client. duplicates are prevented from being
+	 * created.
+	 */
+	private HashSet<String> names = new HashSet<String>();
+
+	/**
+	 * the table players are being seated at, until every seat is taken, and
+	 * the tables being played at
+	 */
+	private Table seating;
+	private HashSet<Table> tables = new HashSet<Table>();
+	private int numTablesCreated;
+	private int numGamesFinished;
+	private int numJoined;
+
+	/**
+	 * Creates an empty lobby.
+	 * 
+	 * @param seatsPerTable
+	 *            The number of players each game is played with.
+	 * @param startingChips
+	 *            The number of chips each player starts with.
+	 * @param scheduler
+	 *            Where every table's game is run.
+	 */
+	public Lobby(int seatsPerTable, int startingChips,
+			ScheduledExecutorService scheduler) {
+		this.seatsPerTable = seatsPerTable;
+		this.startingChips = startingChips;
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Seats a player at the table being filled (a new one, if no table is),
+	 * and starts the table once every seat is taken. The player is attached
+	 * to their connection, so the connection's messages can be handed to
+	 * them.
+	 * 
+	 * @param connection
+	 *            The connection to the player's client.
+	 * @param name
+	 *            The name the player chose.
+	 * @return false if someone else already has the name (and the player
+	 *         isn't seated).
+	 */
+	public synchronized boolean join(Connection connection, String name) {
+		if (names.contains(name)) {
+			return false;
+		}
+		names.add(name);
+		numJoined++;
+		if (seating == null) {
+			seating = new Table(++numTablesCreated, seatsPerTable,
+					startingChips, scheduler, this, shuffles.split());
+		}
+		connection.attach(seating.seat(connection, name));
+		if (seating.isFull()) {
+			tables.add(seating);
+			seating.start();
+			seating = null;
+		}
+		return true;
+	}
+
+	/**
+	 * Takes a player whose client has gone away out of the lobby, so their
+	 * name can be used again. If their game hasn't started, their seat is
+	 * free again; otherwise they fold from then on.
+	 * 
+	 * @param player
+	 *            The player.
+	 */
+	public void leave(Table.PlayerHandler player) {
+		synchronized (this) {
+			names.remove(player.getPlayerName());
+			if (player.getTable() == seating) {
+				seating.unseat(player);
+				if (seating.getNumPlayers() == 0) {
+					seating = null;
+				}
+				return;
+			}
+		}
+		player.disconnected();
+	}
+
+	/**
+	 * 
+	 * @return the number of tables being played at.
+	 */
+	public synchronized int getNumTables() {
+		return tables.size();
+	}
+
+	/**
+	 * 
+	 * @return the number of players waiting for the table being filled.
+	 */
+	public synchronized int getNumSeated() {
+		return seating == null ? 0 : seating.getNumPlayers();
+	}
+
+	/**
+	 * 
+	 * @return the number of players who have been seated since the server
+	 *         started.
+	 */
+	public synchronized int getNumJoined() {
+		return numJoined;
+	}
+
+	/**
+	 * 
+	 * @return the number of games that have finished.
+	 */
+	public synchronized int getNumGamesFinished() {
+		return numGamesFinished;
+	}
+
+	@Override
+	public synchronized void tableFinished(Table table) {
+		tables.remove(table);
+		numGamesFinished++;
+	}
+}
@@ -0,0 +1,192 @@
+import java.util.Arrays;
+
+/**
+ * <h1>Message</h1>
+ * <p>
+ * One message between the server and a client: its type (one of the
+ * Protocol's), and the numbers, cards and text that type carries. The same
+ * message can be sent with either protocol. The binary protocol sends the
+ * fields as they are, and the text protocol turns them into the line older
+ * clients expect.
+ * </p>
+ * <p>
+ * Messages are meant to be reused, so sending or receiving one doesn't
+ * create any objects. A message is encoded as soon as it is sent, so it can
+ * be reset and used for the next one straight away. A message handed to a
+ * ConnectionListener is reused for the next one received, once the listener
+ * returns.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class Message {
+	private static final int INITIAL_NUMBERS = 4;
+	static final int MAX_CARDS = 7;
+
+	private int type;
+	private int[] numbers = new int[INITIAL_NUMBERS];
+	private int numNumbers;
+	private byte[] cards = new byte[MAX_CARDS];
+	private int numCards;
+	private StringBuilder text = new StringBuilder();
+
+	/**
+	 * Creates an empty message, to be given a type with reset().
+	 */
+	public Message() {
+	}
+
+	/**
+	 * Creates a message of a certain type, with no fields yet.
+	 * 
+	 * @param type
+	 *            The type of message (i.e. Protocol.SUBMITNAME).
+	 */
+	public Message(int type) {
+		reset(type);
+	}
+
+	/**
+	 * Empties the message, to be used as another message.
+	 * 
+	 * @param type
+	 *            The type of the new message.
+	 * @return the message.
+	 */
+	public Message reset(int type) {
+		this.type = type;
+		for (int i = 0; i < numNumbers; i++) {
+			numbers[i] = 0;
+		}
+		numNumbers = 0;
+		numCards = 0;
+		text.setLength(0);
+		return this;
+	}
+
+	/**
+	 * Returns the type of the message.
+	 * 
+	 * @return the type (one of the Protocol's).
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * Adds a number after the ones already added (i.e. the pot, then the
+	 * current bet).
+	 * 
+	 * @param number
+	 *            The number to add.
+	 * @return the message.
+	 */
+	public Message addNumber(int number) {
+		if (numNumbers == numbers.length) {
+			// only a SNAPSHOT or DELTA has this many, and the message keeps
+			// the room for next time
+			numbers = Arrays.copyOf(numbers, numbers.length * 2);
+		}
+		numbers[numNumbers++] = number;
+		return this;
+	}
+
+	/**
+	 * Returns how many numbers the message has.
+	 * 
+	 * @return the number of numbers.
+	 */
+	public int getNumNumbers() {
+		return numNumbers;
+	}
+
+	/**
+	 * Returns one of the message's numbers, in the order they were added.
+	 * Numbers that weren't added (of the first four) are 0.
+	 * 
+	 * @param i
+	 *            Which number (starting from 0).
+	 * @return the number.
+	 */
+	public int getNumber(int i) {
+		return numbers[i];
+	}
+
+	/**
+	 * Adds a card after the ones already added.
+	 * 
+	 * @param card
+	 *            The index (0-51) of the card.
+	 * @return the message.
+	 */
+	public Message addCard(int card) {
+		cards[numCards++] = (byte) card;
+		return this;
+	}
+
+	/**
+	 * Returns one of the message's cards, in the order they were added.
+	 * 
+	 * @param i
+	 *            Which card (starting from 0).
+	 * @return the index (0-51) of the card.
+	 */
+	public int getCard(int i) {
+		return cards[i];
+	}
+
+	/**
+	 * Returns how many cards the message has.
+	 * 
+	 * @return the number of cards.
+	 */
+	public int getNumCards() {
+		return numCards;
+	}
+
+	/**
+	 * Adds to the message's text.
+	 * 
+	 * @param text
+	 *            The text to add.
+	 * @return the message.
+	 */
+	public Message appendText(CharSequence text) {
+		this.text.append(text);
+		return this;
+	}
+
+	/**
+	 * Returns the message's text, without copying it.
+	 * 
+	 * @return the text, which changes if the message is reused.
+	 */
+	public CharSequence text() {
+		return text;
+	}
+
+	/**
+	 * Returns a copy of the message's text.
+	 * 
+	 * @return the text.
+	 */
+	public String getText() {
+		return text.toString();
+	}
+
+	/**
+	 * Returns the message the way the text protocol sends it.
+	 */
+	@Override
+	public String toString() {
+		return Protocol.toLine(this);
+	}
+
+	/**
+	 * Gives the text being decoded, for the Protocol to add to.
+	 */
+	StringBuilder textBuilder() {
+		return text;
+	}
+}
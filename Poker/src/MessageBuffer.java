@@ -0,0 +1,265 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <h1>MessageBuffer</h1>
+ * <p>
+ * The bytes waiting to be written to one connection. Each message is encoded
+ * into them as soon as it is sent (as a line until the client asks for the
+ * binary protocol, and as a frame after that), so nothing is created for
+ * each message, and however many are waiting, they are written together.
+ * The buffer starts small, grows when a client falls behind, and shrinks
+ * again once it has caught up.
+ * </p>
+ * <p>
+ * Messages added aren't written until flush() is called, so everything the
+ * game has to tell a client about one event goes out in one write (and
+ * usually one packet), however many messages it is.
+ * </p>
+ * <p>
+ * Messages are added by whichever thread sends them, and the bytes are
+ * taken by the thread that writes them, so every method holds the buffer's
+ * lock. It is a ReentrantLock rather than the buffer's monitor, so a virtual
+ * thread waiting in take() gives up its carrier thread (on Java 21, waiting
+ * on a monitor pins the carrier, and the JVM stops adding carriers at 256).
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class MessageBuffer {
+	private static final int INITIAL_SIZE = 256;
+
+	/**
+	 * how big the buffer can get before it shrinks again once it is empty,
+	 * so a busy client doesn't grow and shrink it over and over
+	 */
+	private static final int SHRINK_SIZE = 4 * 1024;
+
+	private ByteBuffer bytes = ByteBuffer.allocate(INITIAL_SIZE);
+	private StringBuilder line = new StringBuilder();
+	private int maxBytes;
+	private int flushed; // how many bytes can be written
+	private int version; // of the binary protocol, or 0 for text
+	private boolean closed;
+	private ReentrantLock lock = new ReentrantLock();
+	private Condition flushedOrClosed = lock.newCondition();
+
+	/**
+	 * Creates an empty buffer, which encodes messages as lines.
+	 * 
+	 * @param maxBytes
+	 *            The most bytes that can be waiting to be written.
+	 */
+	public MessageBuffer(int maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Encodes a message after the ones already waiting, to be written once
+	 * flush() is called. A message the client isn't sent in the protocol it
+	 * speaks (see Protocol.isSent()) is left out.
+	 * 
+	 * @param message
+	 *            The message.
+	 * @return false if there are now more than maxBytes waiting (i.e. the
+	 *         client has stopped reading).
+	 */
+	public boolean add(Message message) {
+		lock.lock();
+		try {
+			if (!Protocol.isSent(message.getType(), version)) {
+				return true;
+			}
+			int start = bytes.position();
+			while (true) {
+				try {
+					if (version > 0) {
+						Protocol.encode(message, bytes);
+					} else {
+						Protocol.encodeLine(message, line, bytes);
+					}
+					break;
+				} catch (BufferOverflowException e) {
+					bytes.position(start);
+					resize(bytes.capacity() * 2);
+				}
+			}
+			return bytes.position() <= maxBytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Copies messages that have already been encoded after the ones already
+	 * waiting, to be written once flush() is called.
+	 * 
+	 * @param messages
+	 *            The messages.
+	 * @return false if there are now more than maxBytes waiting.
+	 */
+	public boolean add(SharedMessages messages) {
+		lock.lock();
+		try {
+			while (true) {
+				try {
+					messages.copyTo(version, bytes);
+					break;
+				} catch (BufferOverflowException e) {
+					resize(bytes.capacity() * 2);
+				}
+			}
+			return bytes.position() <= maxBytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Lets every message added so far be written.
+	 */
+	public void flush() {
+		lock.lock();
+		try {
+			flushed = bytes.position();
+			flushedOrClosed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Encodes every message after this one as a binary frame, starting with
+	 * the HELLO frame that tells the client so.
+	 * 
+	 * @param version
+	 *            The version of the binary protocol to speak.
+	 * @throws IllegalArgumentException
+	 *             if the version isn't one this server speaks.
+	 * @throws IllegalStateException
+	 *             if the buffer is already encoding frames.
+	 */
+	public void startBinary(int version) {
+		lock.lock();
+		try {
+			if (version < 1 || version > Protocol.VERSION) {
+				throw new IllegalArgumentException("Unknown protocol version: "
+						+ version);
+			} else if (this.version > 0) {
+				throw new IllegalStateException("Already binary");
+			}
+			this.version = version;
+			add(new Message(Protocol.HELLO).addNumber(version));
+			flush();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Copies as many of the flushed bytes as fit, without taking them off
+	 * (see remove()).
+	 * 
+	 * @param out
+	 *            Where to copy them.
+	 * @return the number of bytes copied.
+	 */
+	public int copyTo(ByteBuffer out) {
+		lock.lock();
+		try {
+			int numBytes = Math.min(flushed, out.remaining());
+			out.put(bytes.array(), 0, numBytes);
+			return numBytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Takes bytes that have been written off the front.
+	 * 
+	 * @param numBytes
+	 *            The number of bytes written.
+	 */
+	public void remove(int numBytes) {
+		lock.lock();
+		try {
+			bytes.flip();
+			bytes.position(numBytes);
+			bytes.compact();
+			flushed -= numBytes;
+			if (bytes.position() == 0 && bytes.capacity() > SHRINK_SIZE) {
+				resize(INITIAL_SIZE);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits for bytes to be flushed, then takes as many as fit.
+	 * 
+	 * @param out
+	 *            Where to copy them.
+	 * @return the number of bytes taken, or -1 if the buffer was closed and
+	 *         every byte has been taken.
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting.
+	 */
+	public int take(byte[] out) throws InterruptedException {
+		lock.lock();
+		try {
+			while (flushed == 0 && !closed) {
+				flushedOrClosed.await();
+			}
+			if (flushed == 0) {
+				return -1;
+			}
+			int numBytes = Math.min(flushed, out.length);
+			System.arraycopy(bytes.array(), 0, out, 0, numBytes);
+			remove(numBytes);
+			return numBytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns whether every flushed byte has been taken.
+	 * 
+	 * @return whether there is nothing to write.
+	 */
+	public boolean isEmpty() {
+		lock.lock();
+		try {
+			return flushed == 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Flushes the buffer, and lets take() return -1 once every byte has been
+	 * taken, instead of waiting for more.
+	 */
+	public void close() {
+		lock.lock();
+		try {
+			flushed = bytes.position();
+			closed = true;
+			flushedOrClosed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void resize(int capacity) {
+		ByteBuffer resized = ByteBuffer.allocate(capacity);
+		bytes.flip();
+		resized.put(bytes);
+		bytes = resized;
+	}
+}
@@ -0,0 +1,229 @@
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <h1>MessageDecoder</h1>
+ * <p>
+ * Turns the bytes coming from one connection into messages, whichever
+ * protocol they are in (see Protocol). The protocol is worked out from the
+ * first byte: the bytes a client sends to ask for the binary protocol start
+ * with a 0 byte, which no line can start with, so anything else is text,
+ * and every line is a LINE message.
+ * </p>
+ * <p>
+ * Bytes are decoded straight from the buffer they were read into, and only
+ * a message that hasn't fully arrived yet is copied, to be finished off by
+ * the next bytes. The same Message is decoded into every time, so nothing
+ * is created for each message.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class MessageDecoder {
+	private static final int NEW = 0;
+	private static final int HELLO = 1;
+	private static final int TEXT = 2;
+	private static final int BINARY = 3;
+
+	private int state = NEW;
+	private boolean client; // whether the other side asked for binary
+	private int maxLength;
+	private byte[] partial = new byte[128];
+	private ByteBuffer partialBuffer = ByteBuffer.wrap(partial);
+	private int partialLength;
+	private Message message = new Message();
+
+	/**
+	 * Creates a decoder for a new connection.
+	 * 
+	 * @param maxLength
+	 *            The longest line or frame the other side can send, so it
+	 *            can't use up memory by never finishing one.
+	 */
+	public MessageDecoder(int maxLength) {
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * Decodes everything after this as binary frames (i.e. on a client, once
+	 * the server's first line has been read).
+	 */
+	public void setBinary() {
+		state = BINARY;
+	}
+
+	/**
+	 * Returns whether the connection is using the binary protocol.
+	 * 
+	 * @return whether it is binary.
+	 */
+	public boolean isBinary() {
+		return state == BINARY;
+	}
+
+	/**
+	 * Decodes bytes until a whole message has been decoded, or there are no
+	 * bytes left. Any bytes after the message are left in the buffer, to be
+	 * decoded next time.
+	 * 
+	 * @param in
+	 *            The bytes that have arrived.
+	 * @return whether a message was decoded (see getMessage()).
+	 * @throws ProtocolException
+	 *             if the bytes aren't messages of either protocol.
+	 */
+	public boolean decode(ByteBuffer in) throws ProtocolException {
+		while (in.hasRemaining()) {
+			if (state == NEW) {
+				state = in.get(in.position()) == Protocol.MAGIC[0] ? HELLO
+						: TEXT;
+			}
+			boolean decoded;
+			if (state == TEXT) {
+				decoded = decodeLine(in);
+			} else if (state == HELLO) {
+				decoded = decodeHello(in);
+			} else {
+				decoded = decodeFrame(in);
+			}
+			if (decoded) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the message decode() last decoded. A HELLO message is a
+	 * client asking for the binary protocol, with the version it will be
+	 * spoken in, or on a client, the server's answer. A client can only ask
+	 * once, with the bytes it starts with, so a HELLO frame from a client
+	 * isn't a message.
+	 * 
+	 * @return the message, which is reused for the next one.
+	 */
+	public Message getMessage() {
+		return message;
+	}
+
+	private boolean decodeLine(ByteBuffer in) throws ProtocolException {
+		while (in.hasRemaining()) {
+			byte b = in.get();
+			if (b == '\n') {
+				int length = partialLength;
+				if (length > 0 && partial[length - 1] == '\r') {
+					length--;
+				}
+				partialLength = 0;
+				message.reset(Protocol.LINE);
+				partialBuffer.clear();
+				Protocol.getUtf8(partialBuffer, length, message.textBuilder());
+				return true;
+			} else if (partialLength == maxLength) {
+				throw new ProtocolException("Line too long");
+			}
+			append(b);
+		}
+		return false;
+	}
+
+	private boolean decodeHello(ByteBuffer in) throws ProtocolException {
+		while (in.hasRemaining() && partialLength < Protocol.HELLO_LENGTH) {
+			append(in.get());
+		}
+		if (partialLength < Protocol.HELLO_LENGTH) {
+			return false;
+		}
+		partialLength = 0;
+		int version = partial[Protocol.MAGIC.length] & 0xFF;
+		if (partial[1] != Protocol.MAGIC[1] || partial[2] != Protocol.MAGIC[2]
+				|| version < 1) {
+			throw new ProtocolException("Not a poker client");
+		}
+		state = BINARY;
+		client = true;
+		message.reset(Protocol.HELLO).addNumber(
+				Math.min(version, Protocol.VERSION));
+		return true;
+	}
+
+	private boolean decodeFrame(ByteBuffer in) throws ProtocolException {
+		// most of the time the whole frame is there, and is decoded where it
+		// is
+		if (partialLength == 0 && in.remaining() >= Protocol.LENGTH_SIZE) {
+			int length = frameLength(in.getShort(in.position()) & 0xFFFF);
+			if (in.remaining() >= Protocol.LENGTH_SIZE + length) {
+				int limit = in.limit();
+				in.position(in.position() + Protocol.LENGTH_SIZE);
+				in.limit(in.position() + length);
+				try {
+					Protocol.decode(in, message);
+				} finally {
+					in.limit(limit);
+				}
+				checkFrame();
+				return true;
+			}
+		}
+
+		// otherwise the frame is kept until the rest of it arrives
+		while (partialLength < Protocol.LENGTH_SIZE && in.hasRemaining()) {
+			append(in.get());
+		}
+		if (partialLength < Protocol.LENGTH_SIZE) {
+			return false;
+		}
+		int length = frameLength((partial[0] & 0xFF) << 8 | partial[1] & 0xFF);
+		int frameEnd = Protocol.LENGTH_SIZE + length;
+		int numBytes = Math.min(frameEnd - partialLength, in.remaining());
+		ensureCapacity(frameEnd);
+		in.get(partial, partialLength, numBytes);
+		partialLength += numBytes;
+		if (partialLength < frameEnd) {
+			return false;
+		}
+		partialLength = 0;
+		partialBuffer.limit(frameEnd);
+		partialBuffer.position(Protocol.LENGTH_SIZE);
+		Protocol.decode(partialBuffer, message);
+		checkFrame();
+		return true;
+	}
+
+	/**
+	 * Checks that a client hasn't sent a HELLO frame (which only the server
+	 * sends), which would change the protocol under the game's feet.
+	 */
+	private void checkFrame() throws ProtocolException {
+		if (client && message.getType() == Protocol.HELLO) {
+			throw new ProtocolException("HELLO after the handshake");
+		}
+	}
+
+	/**
+	 * Checks the length of a frame.
+	 */
+	private int frameLength(int length) throws ProtocolException {
+		if (length == 0) {
+			throw new ProtocolException("Empty message");
+		} else if (length > maxLength) {
+			throw new ProtocolException("Message too long");
+		}
+		return length;
+	}
+
+	private void append(byte b) {
+		ensureCapacity(partialLength + 1);
+		partial[partialLength++] = b;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > partial.length) {
+			partial = Arrays.copyOf(partial,
+					Math.max(capacity, partial.length * 2));
+			partialBuffer = ByteBuffer.wrap(partial);
+		}
+	}
+}
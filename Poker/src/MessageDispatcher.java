@@ -0,0 +1,44 @@
+/**
+ * <h1>MessageDispatcher</h1>
+ * <p>
+ * Hands each message a client receives to the handler for its type. The
+ * handlers are kept in a table indexed by type, so a message goes straight
+ * to its handler, however many types there are, instead of being checked
+ * against each type in turn.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class MessageDispatcher {
+	private MessageHandler[] handlers = new MessageHandler[Protocol.NUM_TYPES];
+
+	/**
+	 * Sets the handler for a type of message, replacing any handler it had.
+	 * 
+	 * @param type
+	 *            The type of message (i.e. Protocol.INFO).
+	 * @param handler
+	 *            The handler, or null to ignore the type.
+	 */
+	public void register(int type, MessageHandler handler) {
+		handlers[type] = handler;
+	}
+
+	/**
+	 * Hands a message to the handler for its type.
+	 * 
+	 * @param message
+	 *            The message.
+	 * @return false if there is no handler for its type (and the message is
+	 *         ignored).
+	 */
+	public boolean dispatch(Message message) {
+		MessageHandler handler = handlers[message.getType()];
+		if (handler == null) {
+			return false;
+		}
+		handler.handle(message);
+		return true;
+	}
+}
@@ -0,0 +1,21 @@
+/**
+ * <h1>MessageHandler</h1>
+ * <p>
+ * Handles one type of message from the server, once a MessageDispatcher has
+ * decoded it and looked up its handler.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public interface MessageHandler {
+
+	/**
+	 * Called with each message of the type the handler is registered for.
+	 * 
+	 * @param message
+	 *            The message, which is reused for the next one once this
+	 *            returns.
+	 */
+	void handle(Message message);
+}
@@ -0,0 +1,473 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <h1>NioServer</h1>
+ * <p>
+ * Accepts clients and reads and writes their messages without a thread for
+ * each client. A few selector threads each look after a share of the
+ * connections, and only do anything for a connection when it has something
+ * to read or room to write, so idle clients cost no CPU, and thousands of
+ * clients only need a handful of threads.
+ * </p>
+ * <p>
+ * Each selector thread reads into and writes from its own direct buffers,
+ * which are shared by all of its connections. A connection only keeps the
+ * part of a message that hasn't fully arrived yet, and the bytes that
+ * haven't been written yet (at most MAX_QUEUED_BYTES of them). Every
+ * complete message is passed on to the ConnectionListener from the selector
+ * thread.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class NioServer extends ConnectionServer {
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	private int port;
+	private ConnectionListener listener;
+	private ServerSocketChannel serverChannel;
+	private SelectorLoop[] loops;
+	private Thread[] threads;
+	private int nextLoop;
+	private volatile boolean running;
+	private volatile boolean stopping;
+
+	/**
+	 * Creates a server, which doesn't accept clients until it is started.
+	 * 
+	 * @param port
+	 *            The port to listen on (0 for any free port).
+	 * @param numThreads
+	 *            The number of selector threads.
+	 * @param listener
+	 *            What to tell about the connections.
+	 */
+	public NioServer(int port, int numThreads, ConnectionListener listener) {
+		this.port = port;
+		this.listener = listener;
+		loops = new SelectorLoop[numThreads];
+		threads = new Thread[numThreads];
+	}
+
+	/**
+	 * Starts listening for clients, and starts the selector threads.
+	 * 
+	 * @throws IOException
+	 *             if the port can't be listened on.
+	 */
+	@Override
+	public void start() throws IOException {
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(port));
+		serverChannel.configureBlocking(false);
+		running = true;
+		for (int i = 0; i < loops.length; i++) {
+			loops[i] = new SelectorLoop();
+		}
+		// the first selector thread also accepts new clients
+		serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+		for (int i = 0; i < loops.length; i++) {
+			threads[i] = new Thread(loops[i], "poker-selector-" + i);
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+	}
+
+	/**
+	 * Returns the port the server is listening on (i.e. the one picked when
+	 * it was created with port 0).
+	 * 
+	 * @return the port.
+	 */
+	@Override
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	/**
+	 * Stops accepting clients and closes every connection once its messages
+	 * are written. Each selector thread finishes once all of its connections
+	 * are closed, or is stopped after STOP_TIMEOUT_MILLIS.
+	 */
+	@Override
+	public void stop() {
+		try {
+			serverChannel.close();
+		} catch (IOException e) {
+		}
+		stopping = true;
+		for (SelectorLoop loop : loops) {
+			loop.selector.wakeup();
+		}
+
+		long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MILLIS;
+		try {
+			for (Thread thread : threads) {
+				long timeLeft = deadline - System.currentTimeMillis();
+				if (timeLeft > 0) {
+					thread.join(timeLeft);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// close whatever is left straight away
+		running = false;
+		for (SelectorLoop loop : loops) {
+			loop.selector.wakeup();
+		}
+	}
+
+	/**
+	 * Accepts every client waiting to connect, handing them out to the
+	 * selector threads in turn.
+	 */
+	private void accept() {
+		try {
+			SocketChannel channel;
+			while ((channel = serverChannel.accept()) != null) {
+				channel.configureBlocking(false);
+				channel.socket().setTcpNoDelay(true);
+				SelectorLoop loop = loops[nextLoop];
+				nextLoop = (nextLoop + 1) % loops.length;
+				loop.newChannels.offer(channel);
+				loop.selector.wakeup();
+			}
+		} catch (IOException e) {
+			// i.e. out of file descriptors; the clients still waiting are
+			// accepted the next time around
+			System.out.println(e);
+		}
+	}
+
+	/**
+	 * <h1>SelectorLoop</h1>
+	 * <p>
+	 * One selector thread, and the connections it looks after. Everything
+	 * here is only used by that thread, except for the queues other threads
+	 * use to hand it new connections and connections with messages to write.
+	 * </p>
+	 */
+	private class SelectorLoop implements Runnable {
+		private Selector selector;
+		private ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private ByteBuffer writeBuffer = ByteBuffer
+				.allocateDirect(BUFFER_SIZE);
+		private ConcurrentLinkedQueue<SocketChannel> newChannels;
+		private ConcurrentLinkedQueue<NioConnection> pendingWrites;
+		private int numConnections;
+		private boolean closingAll;
+
+		public SelectorLoop() throws IOException {
+			selector = Selector.open();
+			newChannels = new ConcurrentLinkedQueue<SocketChannel>();
+			pendingWrites = new ConcurrentLinkedQueue<NioConnection>();
+		}
+
+		/**
+		 * Waits for something to do on any of the connections, and does it,
+		 * until the server is stopped.
+		 */
+		public void run() {
+			try {
+				while (running) {
+					selector.select();
+					registerNewChannels();
+					if (stopping && !closingAll) {
+						closeAll();
+					}
+					writePending();
+					if (closingAll && numConnections == 0) {
+						break;
+					}
+
+					Iterator<SelectionKey> keys = selector.selectedKeys()
+							.iterator();
+					while (keys.hasNext()) {
+						SelectionKey key = keys.next();
+						keys.remove();
+						if (!key.isValid()) {
+							continue;
+						}
+						if (key.isAcceptable()) {
+							accept();
+							continue;
+						}
+						NioConnection connection = (NioConnection) key
+								.attachment();
+						if (key.isReadable()) {
+							read(connection);
+						}
+						if (key.isValid() && key.isWritable()) {
+							write(connection);
+						}
+					}
+				}
+			} catch (IOException e) {
+				System.out.println(e);
+			} finally {
+				for (SelectionKey key : selector.keys()) {
+					if (key.attachment() instanceof NioConnection) {
+						close((NioConnection) key.attachment());
+					}
+				}
+				try {
+					selector.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+
+		/**
+		 * Starts looking after the connections the accepting thread has
+		 * handed over.
+		 */
+		private void registerNewChannels() {
+			SocketChannel channel;
+			while ((channel = newChannels.poll()) != null) {
+				NioConnection connection = new NioConnection(this, channel);
+				try {
+					connection.key = channel.register(selector,
+							SelectionKey.OP_READ, connection);
+				} catch (IOException e) {
+					try {
+						channel.close();
+					} catch (IOException e1) {
+					}
+					continue;
+				}
+				numConnections++;
+				try {
+					listener.connected(connection);
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+					close(connection);
+				}
+			}
+		}
+
+		/**
+		 * Asks every connection to close once its messages are written, when
+		 * the server is stopping.
+		 */
+		private void closeAll() {
+			closingAll = true;
+			for (SelectionKey key : selector.keys()) {
+				if (key.attachment() instanceof NioConnection) {
+					((NioConnection) key.attachment()).close();
+				}
+			}
+		}
+
+		/**
+		 * Writes the messages that have been sent since the last time around,
+		 * and closes the connections that have been asked to close.
+		 */
+		private void writePending() {
+			NioConnection connection;
+			while ((connection = pendingWrites.poll()) != null) {
+				connection.writeRequested.set(false);
+				write(connection);
+			}
+		}
+
+		/**
+		 * Reads whatever a client has sent, and passes on each complete
+		 * message.
+		 */
+		private void read(NioConnection connection) {
+			readBuffer.clear();
+			try {
+				if (connection.channel.read(readBuffer) < 0) {
+					close(connection);
+					return;
+				}
+			} catch (IOException e) {
+				close(connection);
+				return;
+			}
+
+			readBuffer.flip();
+			MessageDecoder decoder = connection.decoder;
+			try {
+				while (!connection.closed && decoder.decode(readBuffer)) {
+					Message message = decoder.getMessage();
+					if (message.getType() == Protocol.HELLO) {
+						// the client wants the binary protocol
+						connection.outbound.startBinary(message.getNumber(0));
+						connection.requestWrite();
+					} else {
+						listener.messageReceived(connection, message);
+					}
+				}
+			} catch (ProtocolException e) {
+				System.out.println(e.getMessage() + ", closing connection");
+				close(connection);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+				close(connection);
+			}
+		}
+
+		/**
+		 * Writes as much of a connection's unsent bytes as the socket will
+		 * take. If it won't take them all, the rest are written once the
+		 * selector says there is room.
+		 */
+		private void write(NioConnection connection) {
+			if (connection.closed) {
+				return;
+			}
+			if (connection.overflowed) {
+				System.out.println("Client too far behind, disconnecting");
+				close(connection);
+				return;
+			}
+			try {
+				while (!connection.outbound.isEmpty()) {
+					// copy as many bytes as fit into the direct buffer, and
+					// only take off the ones the socket takes
+					writeBuffer.clear();
+					connection.outbound.copyTo(writeBuffer);
+					writeBuffer.flip();
+					connection.outbound.remove(connection.channel
+							.write(writeBuffer));
+
+					if (writeBuffer.hasRemaining()) {
+						// the socket is full
+						connection.key.interestOps(SelectionKey.OP_READ
+								| SelectionKey.OP_WRITE);
+						return;
+					}
+				}
+				connection.key.interestOps(SelectionKey.OP_READ);
+				if (connection.closing) {
+					close(connection);
+				}
+			} catch (IOException e) {
+				close(connection);
+			}
+		}
+
+		/**
+		 * Closes a connection straight away, and tells the listener.
+		 */
+		private void close(NioConnection connection) {
+			if (connection.closed) {
+				return;
+			}
+			connection.closed = true;
+			connection.closing = true;
+			connection.key.cancel();
+			numConnections--;
+			try {
+				connection.channel.close();
+			} catch (IOException e) {
+			}
+			try {
+				listener.disconnected(connection);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * <h1>NioConnection</h1>
+	 * <p>
+	 * A client's socket, the part of a message it has sent so far, and the
+	 * bytes waiting to be written to it.
+	 * </p>
+	 */
+	private static class NioConnection implements Connection {
+		private SelectorLoop loop;
+		private SocketChannel channel;
+		private SelectionKey key;
+		private MessageDecoder decoder;
+		private MessageBuffer outbound;
+		private AtomicBoolean writeRequested = new AtomicBoolean();
+		private volatile boolean closing;
+		private volatile boolean overflowed;
+		private boolean closed;
+		private volatile Object attachment;
+
+		public NioConnection(SelectorLoop loop, SocketChannel channel) {
+			this.loop = loop;
+			this.channel = channel;
+			decoder = new MessageDecoder(MAX_MESSAGE_LENGTH);
+			outbound = new MessageBuffer(MAX_QUEUED_BYTES);
+		}
+
+		@Override
+		public void send(Message message) {
+			queue(message);
+			flush();
+		}
+
+		@Override
+		public void queue(Message message) {
+			if (!closing && !outbound.add(message)) {
+				overflowed();
+			}
+		}
+
+		@Override
+		public void queue(SharedMessages messages) {
+			if (!closing && !outbound.add(messages)) {
+				overflowed();
+			}
+		}
+
+		@Override
+		public void flush() {
+			outbound.flush();
+			requestWrite();
+		}
+
+		private void overflowed() {
+			// the selector thread disconnects the client
+			overflowed = true;
+			closing = true;
+		}
+
+		@Override
+		public void close() {
+			closing = true;
+			outbound.flush();
+			requestWrite();
+		}
+
+		@Override
+		public void attach(Object attachment) {
+			this.attachment = attachment;
+		}
+
+		@Override
+		public Object attachment() {
+			return attachment;
+		}
+
+		/**
+		 * Asks the selector thread to write this connection's messages, unless
+		 * it has already been asked and hasn't done it yet.
+		 */
+		private void requestWrite() {
+			if (writeRequested.compareAndSet(false, true)) {
+				loop.pendingWrites.offer(this);
+				loop.selector.wakeup();
+			}
+		}
+	}
+}
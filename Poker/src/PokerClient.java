@@ -5,14 +5,15 @@ import java.awt.Image;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowEvent;
-import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.Socket;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -32,14 +33,30 @@ import javax.swing.SwingConstants;
  * table, other players' actions, etc.) as well as send information, such as
  * their decision for each betting round.
  * </p>
+ * <p>
+ * The client asks the server for the binary protocol (see Protocol), so each
+ * message arrives with its numbers and cards as they are, instead of as text
+ * that has to be taken apart again. The pot, the current bet, who is to act,
+ * the cards on the table and the player's chips are kept in a TableState,
+ * which the server keeps up to date by sending what changes. The player's
+ * decision is sent as an ACT for the turn they were asked to act in, which
+ * the server answers with an ACK, so the buttons never wait on the server.
+ * </p>
  * 
  * @author Alex Wong
  * @since 2016-01-19
  */
 public class PokerClient {
 	private final String POKER_RULES_URL = "http://www.pokerlistings.com/poker-rules-texas-holdem";
-	private BufferedReader in;
-	private PrintWriter out;
+	private Socket socket;
+	private InputStream in;
+	private OutputStream out;
+	private MessageDecoder decoder = new MessageDecoder(
+			Protocol.MAX_FRAME_LENGTH);
+	private ByteBuffer inBuffer = ByteBuffer.allocate(4 * 1024);
+	private ByteBuffer outBuffer = ByteBuffer.allocate(1024);
+	private Message outMessage = new Message();
+	private StringBuilder notice = new StringBuilder();
 	private JFrame frame = new JFrame("Poker");
 	private JPanel panel;
 	private JTextArea textArea;
@@ -52,6 +69,7 @@ public class PokerClient {
 	private JPanel card3;
 	private JPanel card4;
 	private JPanel card5;
+	private JPanel[] tableCards;
 	private JButton btnCheck;
 	private JButton btnCall;
 	private JButton btnFold;
@@ -72,7 +90,26 @@ public class PokerClient {
 	private String name;
 	private int chips = 0;
 	private int amountToCall = 0;
-	private boolean acting = false;
+	private volatile boolean acting = false;
+	private boolean cardsDealt = false; // cards fully dealt
+	private MessageDispatcher dispatcher = new MessageDispatcher();
+
+	// which buttons are enabled, one bit each
+	private static final int CHECK_ENABLED = 1;
+	private static final int CALL_ENABLED = 2;
+	private static final int FOLD_ENABLED = 4;
+	private static final int RAISE_ENABLED = 8;
+	private static final int ALLIN_ENABLED = 16;
+	private int buttonsEnabled = -1; // as they start (all of them)
+	private TableState tableState = new TableState();
+	private int seat = -1; // at the table, once it has been sent
+	private int tableCardsShown = 0;
+	private boolean awaitingSnapshot = true; // sent when the game starts
+	private int serverVersion; // of the binary protocol
+	private volatile int turn; // the last one the player was asked to act in
+	private int takenTurn; // the last one the server took a decision for
+	private String redirectHost; // where the player is sent to play, if
+	private int redirectPort; // they connected to a Coordinator
 	private final int MAX_MSG_LINES = 30;
 	private final Sound DEAL = new Sound("deal");
 	private final Sound CHECK = new Sound("check");
@@ -93,47 +130,24 @@ public class PokerClient {
 		initialize();
 		messageArea.setEditable(false);
 		textArea.setEditable(false);
+		registerHandlers();
+		updateButtons();
 
 		btnCheck.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				out.println("check");
-				try {
-					Thread.sleep(50);
-				} catch (InterruptedException e1) {
-					e1.printStackTrace();
-				}
-				acting = false;
-				out.println(" "); // this is a flush message, that tells the
-									// server handler to continue listening for
-									// input. without this message, the run()
-									// method in the handler (PlayerClient)
-									// class stops running.
+				sendAction(Protocol.CHECK, 0);
 			}
 		});
 
 		btnCall.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				out.println("call");
-				try {
-					Thread.sleep(50);
-				} catch (InterruptedException e1) {
-					e1.printStackTrace();
-				}
-				acting = false;
-				out.println(" ");
+				sendAction(Protocol.CALL, 0);
 			}
 		});
 
 		btnFold.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				out.println("fold");
-				try {
-					Thread.sleep(50);
-				} catch (InterruptedException e1) {
-					e1.printStackTrace();
-				}
-				acting = false;
-				out.println(" ");
+				sendAction(Protocol.FOLD, 0);
 			}
 		});
 
@@ -142,15 +156,9 @@ public class PokerClient {
 				// only let the player raise an amount they can actually raise
 				if (!txtFieldRaise.getText().equals("")) {
 					if (!(Integer.parseInt(txtFieldRaise.getText()) > (chips - amountToCall))) {
-						out.println("raise " + txtFieldRaise.getText());
+						sendAction(Protocol.RAISE,
+								Integer.parseInt(txtFieldRaise.getText()));
 						txtFieldRaise.setText("");
-						try {
-							Thread.sleep(50);
-						} catch (InterruptedException e1) {
-							e1.printStackTrace();
-						}
-						acting = false;
-						out.println(" ");
 					}
 				}
 
@@ -160,15 +168,13 @@ public class PokerClient {
 		btnAllIn.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				int allIn = chips - amountToCall;
-				out.println("raise " + allIn);
-				try {
-					Thread.sleep(50);
-				} catch (InterruptedException e1) {
-					e1.printStackTrace();
+				// calling already takes every chip of a player who can't
+				// raise
+				if (allIn > 0) {
+					sendAction(Protocol.RAISE, allIn);
+				} else {
+					sendAction(Protocol.CALL, 0);
 				}
-				acting = false;
-				out.println(" ");
-
 			}
 		});
 
@@ -238,6 +244,8 @@ public class PokerClient {
 		card5.setBounds(401, 11, 80, 116);
 		gamePanel.add(card5);
 
+		tableCards = new JPanel[] { card1, card2, card3, card4, card5 };
+
 		btnCheck = new JButton("Check");
 		btnCheck.setBounds(43, 400, 89, 23);
 		gamePanel.add(btnCheck);
@@ -363,117 +371,167 @@ public class PokerClient {
 	 * connects to the server then enters the processing loop.
 	 */
 	private void run() throws IOException {
-
-		// Make connection and initialize streams
-		String serverAddress = getServerAddress();
-		Socket socket = new Socket(serverAddress, 9001);
-		in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-		out = new PrintWriter(socket.getOutputStream(), true);
-		boolean cardsDealt = false; // cards fully dealt
+		connect(getServerAddress(), 9001);
+		send(setName());
 
 		// Process all messages from server, according to the protocol.
 		while (true) {
+			dispatcher.dispatch(receive());
+			if (redirectHost != null) {
+				// a coordinator has found a server with room for the
+				// player, who gives the same name there
+				connect(redirectHost, redirectPort);
+				redirectHost = null;
+				send(name);
+			}
+		}
+	}
 
-			// enable or disable buttons based on whether or not the player,
-			// based on the rules of the game, can use them
-			if (acting && cardsDealt) {
-				if (amountToCall == 0) {
-					btnCall.setEnabled(false);
-					btnRaise.setEnabled(true);
-					btnFold.setEnabled(true);
-					btnCheck.setEnabled(true);
-				} else if (amountToCall > 0) {
-					btnCheck.setEnabled(false);
-					btnCall.setEnabled(true);
-					btnRaise.setEnabled(true);
-					btnFold.setEnabled(true);
-				}
-				if (chips - amountToCall <= 0) {
-					btnAllIn.setEnabled(false);
-					btnRaise.setEnabled(false);
-				} else {
-					btnAllIn.setEnabled(true);
-				}
+	/**
+	 * Connects to a server (closing the connection to the last one, if
+	 * there was one), and asks it for the binary protocol.
+	 * 
+	 * @param host
+	 *            The server's address.
+	 * @param port
+	 *            The server's port.
+	 */
+	private void connect(String host, int port) throws IOException {
+		Socket socket = new Socket(host, port);
+		socket.setTcpNoDelay(true);
+		synchronized (this) {
+			if (this.socket != null) {
+				this.socket.close();
+			}
+			this.socket = socket;
+			in = socket.getInputStream();
+			out = socket.getOutputStream();
+			decoder = new MessageDecoder(Protocol.MAX_FRAME_LENGTH);
+			inBuffer.clear();
+			inBuffer.flip(); // nothing read yet
+
+			// ask for the binary protocol. the server's first SUBMITNAME is
+			// always a line, and every message after its answer is binary.
+			outBuffer.clear();
+			Protocol.putHello(outBuffer);
+			out.write(outBuffer.array(), 0, outBuffer.position());
+		}
+		receive();
+		decoder.setBinary();
+		Message hello = receive();
+		if (hello.getType() != Protocol.HELLO) {
+			throw new IOException(
+					"The server doesn't speak the binary protocol");
+		}
+		serverVersion = hello.getNumber(0);
+	}
 
-			} else {
-				// turning on buttons only when a player is to act provides a
-				// more intuitive UI, where they better know when it is their
-				// turn
-				btnCall.setEnabled(false);
-				btnRaise.setEnabled(false);
-				btnFold.setEnabled(false);
-				btnCheck.setEnabled(false);
-				btnAllIn.setEnabled(false);
+	/**
+	 * Registers what the client does with each type of message from the
+	 * server. Types without a handler (i.e. RESYNC, which only clients send)
+	 * are ignored.
+	 */
+	private void registerHandlers() {
+		dispatcher.register(Protocol.SUBMITNAME, new MessageHandler() {
+			public void handle(Message message) {
+				send(setName());
 			}
+		});
+
+		// sent by a coordinator, once the player has chosen a name
+		dispatcher.register(Protocol.REDIRECT, new MessageHandler() {
+			public void handle(Message message) {
+				redirectHost = message.getText();
+				redirectPort = message.getNumber(0);
+			}
+		});
 
-			// read input from server, and act appropriately
-			String line = in.readLine();
-			if (line.startsWith("SUBMITNAME")) {
-				out.println(setName());
-			} else if (line.startsWith("MESSAGE")) {
+		dispatcher.register(Protocol.MESSAGE, new MessageHandler() {
+			public void handle(Message message) {
 				checkMsgAreaCapacity();
-				messageArea.append(line.substring(7) + "\n");
+				messageArea.append(message.getText() + "\n");
 				numMsgLines++;
-			} else if (line.startsWith("ACTION")) {
-				acting = true;
-			} else if (line.startsWith("CHIPS")) {
-				lblChips.setText("Chips : " + line.substring(5));
-			} else if (line.equals("BIGBLIND")) {
+			}
+		});
+
+		dispatcher.register(Protocol.ACTION, new MessageHandler() {
+			public void handle(Message message) {
+				setActing(true);
+			}
+		});
+
+		dispatcher.register(Protocol.TURN, new MessageHandler() {
+			public void handle(Message message) {
+				turn = message.getNumber(0);
+				setActing(true);
+			}
+		});
+
+		dispatcher.register(Protocol.ACK, new MessageHandler() {
+			public void handle(Message message) {
+				if (message.getNumber(1) == 1) {
+					takenTurn = message.getNumber(0);
+				} else if (message.getNumber(0) == turn && takenTurn != turn) {
+					// turned down, so the player can decide again
+					setActing(true);
+				}
+			}
+		});
+
+		dispatcher.register(Protocol.BIGBLIND, new MessageHandler() {
+			public void handle(Message message) {
 				lblBlind.setText("You are the big blind.");
-			} else if (line.equals("SMALLBLIND")) {
+			}
+		});
+
+		dispatcher.register(Protocol.SMALLBLIND, new MessageHandler() {
+			public void handle(Message message) {
 				lblBlind.setText("You are the small blind.");
-			} else if (line.startsWith("INFO")) {
-				// updates who is to act, the pot, and the current bet
-				String toAct = line.substring(4, line.indexOf(" "));
+			}
+		});
+
+		// updates who is to act, the pot, and the current bet (servers
+		// older than version 2)
+		dispatcher.register(Protocol.INFO, new MessageHandler() {
+			public void handle(Message message) {
+				String toAct = message.getText();
 				if (name.equals(toAct)) {
 					lblAction.setText("TO ACT: YOU");
 				} else {
 					lblAction.setText("TO ACT: " + toAct);
 				}
+				lblPot.setText("Pot: " + message.getNumber(0));
+				lblCurrentBet.setText("Current bet: " + message.getNumber(1));
+			}
+		});
 
-				lblPot.setText("Pot: "
-						+ line.substring(line.indexOf(" ") + 1,
-								line.indexOf(" ", line.indexOf(" ") + 1)));
-				lblCurrentBet.setText("Current bet: "
-						+ line.substring(line.indexOf(" ",
-								line.indexOf(" ") + 1) + 1));
-			} else if (line.startsWith("HAND")) {
-				// updates player's cards
-				String card1 = line.substring(4).substring(0,
-						line.substring(4).indexOf(" "));
-				String card2 = line.substring(4)
-						.substring(line.substring(4).indexOf(" ") + 1).trim();
-
-				// this is to ensure the player does not act until the cards are
-				// fully dealt
-				cardsDealt = false;
-				setCardImage(card1, playerCard1);
+		// updates player's cards. this is to ensure the player does not act
+		// until the cards are fully dealt
+		dispatcher.register(Protocol.HAND, new MessageHandler() {
+			public void handle(Message message) {
+				setCardsDealt(false);
+				setCardImage(cardName(message.getCard(0)), playerCard1);
 				DEAL.play();
 				try {
 					Thread.sleep(500);
 				} catch (InterruptedException e) {
 					e.printStackTrace();
 				}
-				setCardImage(card2, playerCard2);
+				setCardImage(cardName(message.getCard(1)), playerCard2);
 				DEAL.play();
-				cardsDealt = true;
-
-			} else if (line.startsWith("TABLE")) { // display the table
+				setCardsDealt(true);
+			}
+		});
 
-				String input = line.substring(5);
-				int numCards = Integer.parseInt(input.substring(0, 1));
-				input = input.substring(2);
+		// display the table (servers older than version 2)
+		dispatcher.register(Protocol.TABLE, new MessageHandler() {
+			public void handle(Message message) {
+				int numCards = message.getNumber(0);
 
 				if (numCards == 3) {
-					String tableCard1 = input.substring(0, input.indexOf(" "));
-					input = input.substring(input.indexOf(" ") + 1);
-					String tableCard2 = input.substring(0, input.indexOf(" "));
-					input = input.substring(input.indexOf(" ") + 1);
-					String tableCard3 = input.substring(0, input.indexOf(" "));
+					setCardsDealt(false);
 
-					cardsDealt = false;
-
-					setCardImage(tableCard1, card1);
+					setCardImage(cardName(message.getCard(0)), card1);
 					DEAL.play();
 					try {
 						Thread.sleep(500);
@@ -481,7 +539,7 @@ public class PokerClient {
 						e.printStackTrace();
 					}
 
-					setCardImage(tableCard2, card2);
+					setCardImage(cardName(message.getCard(1)), card2);
 					DEAL.play();
 					try {
 						Thread.sleep(500);
@@ -489,51 +547,76 @@ public class PokerClient {
 						e.printStackTrace();
 					}
 
-					setCardImage(tableCard3, card3);
+					setCardImage(cardName(message.getCard(2)), card3);
 					DEAL.play();
-					cardsDealt = true;
+					setCardsDealt(true);
 				} else if (numCards == 4) {
-					String tableCard4 = input.substring(0);
-					setCardImage(tableCard4, card4);
+					setCardImage(cardName(message.getCard(0)), card4);
 					DEAL.play();
 				} else if (numCards == 5) {
-					String tableCard5 = input.substring(0);
-					setCardImage(tableCard5, card5);
+					setCardImage(cardName(message.getCard(0)), card5);
 					DEAL.play();
 				}
+			}
+		});
+
+		// updates the table (servers from version 2)
+		MessageHandler tableStateHandler = new MessageHandler() {
+			public void handle(Message message) {
+				if (tableState.apply(message)) {
+					if (message.getType() == Protocol.SNAPSHOT) {
+						seat = tableState.seatOf(name);
+						awaitingSnapshot = false;
+					}
+					showTable();
+				} else if (!awaitingSnapshot) {
+					// a DELTA was missed, so the table can't be trusted
+					// until a new SNAPSHOT arrives
+					awaitingSnapshot = true;
+					send(new Message(Protocol.RESYNC));
+				}
+			}
+		};
+		dispatcher.register(Protocol.SNAPSHOT, tableStateHandler);
+		dispatcher.register(Protocol.DELTA, tableStateHandler);
+
+		// updates chips and amount to call labels (servers older than
+		// version 2)
+		dispatcher.register(Protocol.PERSONALINFO, new MessageHandler() {
+			public void handle(Message message) {
+				setChips(message.getNumber(0), message.getNumber(1));
+			}
+		});
 
-			} else if (line.startsWith("PERSONALINFO")) {
-				// updates chips and amount to call labels
-				lblChips.setText("Chips: "
-						+ line.substring(12).substring(0,
-								line.substring(12).indexOf(" ")));
-				chips = Integer.parseInt(line.substring(12).substring(0,
-						line.substring(12).indexOf(" ")));
-				lblAmountToCall.setText("To call: "
-						+ line.substring(12)
-								.substring(line.substring(12).indexOf(" ") + 1)
-								.trim());
-				amountToCall = Integer.parseInt(line.substring(12)
-						.substring(line.substring(12).indexOf(" ") + 1).trim());
-			} else if (line.startsWith("FOLDED")) {
-				// turns over cards when the player folds
+		// turns over cards when the player folds
+		dispatcher.register(Protocol.FOLDED, new MessageHandler() {
+			public void handle(Message message) {
 				setCardImage("cardback", playerCard1);
 				setCardImage("cardback", playerCard2);
-			} else if (line.startsWith("WINNER")) {
-				// updates the winner of the round, displays their winning hand
+			}
+		});
+
+		// updates the winner of the round, displays their winning hand
+		dispatcher.register(Protocol.WINNER, new MessageHandler() {
+			public void handle(Message message) {
+				String line = message.getText();
 				checkMsgAreaCapacity();
 				messageArea
 						.append(line.substring(line.indexOf(".") + 2) + "\n");
 				numMsgLines++;
-				lblWinner.setText(line.substring(6, line.indexOf(".")));
-			} else if (line.startsWith("ENDROUND")) {
-				// clear everything to prepare for the next round
+				lblWinner.setText(line.substring(0, line.indexOf(".")));
+			}
+		});
+
+		// clear everything to prepare for the next round
+		dispatcher.register(Protocol.ENDROUND, new MessageHandler() {
+			public void handle(Message message) {
 				messageArea.setText("");
 				lblWinner.setText("");
 				lblBlind.setText("");
-				// note: the cards will be set visible when they are dealt again
-				// at that point, their previous image icon will be removed and
-				// a new one will be placed into the panel
+				// note: the cards will be set visible when they are dealt
+				// again at that point, their previous image icon will be
+				// removed and a new one will be placed into the panel
 				playerCard1.setVisible(false);
 				playerCard2.setVisible(false);
 				card1.setVisible(false);
@@ -541,47 +624,265 @@ public class PokerClient {
 				card3.setVisible(false);
 				card4.setVisible(false);
 				card5.setVisible(false);
-			} else if (line.startsWith("OUT")) {
-				// it's important it's done like this, as it simulates the "x"
-				// being clicked
+				tableCardsShown = 0;
+			}
+		});
+
+		dispatcher.register(Protocol.OUT, new MessageHandler() {
+			public void handle(Message message) {
+				// it's important it's done like this, as it simulates the
+				// "x" being clicked
 				// this tells the server to close the socket, remove from the
 				// list of playerClients
 				frame.dispatchEvent(new WindowEvent(frame,
 						WindowEvent.WINDOW_CLOSING));
-			} else if (line.startsWith("WONGAME")) {
+			}
+		});
+
+		dispatcher.register(Protocol.WONGAME, new MessageHandler() {
+			public void handle(Message message) {
 				JOptionPane.showMessageDialog(frame, "You won!");
 				frame.dispatchEvent(new WindowEvent(frame,
 						WindowEvent.WINDOW_CLOSING));
-			} else if (line.startsWith("CHECK")) {
-				checkMsgAreaCapacity();
-				messageArea.append(line.substring(5) + "\n");
-				numMsgLines++;
-				CHECK.play(); // sound effect
-			} else if (line.startsWith("RAISE")) {
-				checkMsgAreaCapacity();
-				messageArea.append(line.substring(5) + "\n");
-				numMsgLines++;
-				RAISE.play();
-			} else if (line.startsWith("FOLD")) {
-				checkMsgAreaCapacity();
-				messageArea.append(line.substring(4) + "\n");
-				numMsgLines++;
-				FOLD.play();
-			} else if (line.startsWith("CALL")) {
-				checkMsgAreaCapacity();
-				messageArea.append(line.substring(4) + "\n");
-				numMsgLines++;
-				CALL.play();
-			} else if (line.startsWith("ALLIN")) {
-				checkMsgAreaCapacity();
-				messageArea.append(line.substring(5) + "\n");
-				numMsgLines++;
-				ALLIN.play();
 			}
+		});
+
+		// what the other players do, each with its own sound effect
+		dispatcher.register(Protocol.CHECK, new NoticeHandler(CHECK));
+		dispatcher.register(Protocol.RAISE, new NoticeHandler(RAISE));
+		dispatcher.register(Protocol.FOLD, new NoticeHandler(FOLD));
+		dispatcher.register(Protocol.CALL, new NoticeHandler(CALL));
+		dispatcher.register(Protocol.ALLIN, new NoticeHandler(ALLIN));
+	}
+
+	/**
+	 * Shows what another player did in the message area, and plays its sound
+	 * effect.
+	 */
+	private class NoticeHandler implements MessageHandler {
+		private Sound sound;
+
+		public NoticeHandler(Sound sound) {
+			this.sound = sound;
+		}
+
+		public void handle(Message message) {
+			showNotice(message);
+			sound.play();
+		}
+	}
+
+	/**
+	 * Sets whether the player is to act, and updates the buttons.
+	 */
+	private void setActing(boolean acting) {
+		this.acting = acting;
+		updateButtons();
+	}
+
+	/**
+	 * Sets whether the cards being dealt have all been shown, and updates the
+	 * buttons.
+	 */
+	private void setCardsDealt(boolean cardsDealt) {
+		this.cardsDealt = cardsDealt;
+		updateButtons();
+	}
+
+	/**
+	 * Sets the player's chips and the amount they have to call, and updates
+	 * their labels and the buttons.
+	 */
+	private void setChips(int chips, int amountToCall) {
+		this.chips = chips;
+		this.amountToCall = amountToCall;
+		lblChips.setText("Chips: " + chips);
+		lblAmountToCall.setText("To call: " + amountToCall);
+		updateButtons();
+	}
+
+	/**
+	 * Enables or disables buttons based on whether or not the player, based
+	 * on the rules of the game, can use them. It is called whenever something
+	 * they depend on changes, and only touches the buttons whose state has
+	 * changed.
+	 */
+	private synchronized void updateButtons() {
+		// turning on buttons only when a player is to act provides a more
+		// intuitive UI, where they better know when it is their turn
+		int enabled = 0;
+		if (acting && cardsDealt) {
+			if (amountToCall > 0) {
+				enabled = CALL_ENABLED | RAISE_ENABLED | FOLD_ENABLED;
+			} else {
+				enabled = CHECK_ENABLED | RAISE_ENABLED | FOLD_ENABLED;
+			}
+			if (chips - amountToCall <= 0) {
+				enabled &= ~RAISE_ENABLED;
+			} else {
+				enabled |= ALLIN_ENABLED;
+			}
+		}
+
+		int changed = enabled ^ buttonsEnabled;
+		buttonsEnabled = enabled;
+		if ((changed & CHECK_ENABLED) != 0) {
+			btnCheck.setEnabled((enabled & CHECK_ENABLED) != 0);
+		}
+		if ((changed & CALL_ENABLED) != 0) {
+			btnCall.setEnabled((enabled & CALL_ENABLED) != 0);
+		}
+		if ((changed & FOLD_ENABLED) != 0) {
+			btnFold.setEnabled((enabled & FOLD_ENABLED) != 0);
+		}
+		if ((changed & RAISE_ENABLED) != 0) {
+			btnRaise.setEnabled((enabled & RAISE_ENABLED) != 0);
+		}
+		if ((changed & ALLIN_ENABLED) != 0) {
+			btnAllIn.setEnabled((enabled & ALLIN_ENABLED) != 0);
+		}
+	}
+
+	/**
+	 * Shows the table as the TableState has it: who is to act, the pot, the
+	 * current bet, the player's chips and the amount they have to call, and
+	 * any cards that have been dealt to the table since it was last shown.
+	 */
+	private void showTable() {
+		int toAct = tableState.getToAct();
+		if (toAct < 0) {
+			lblAction.setText("TO ACT:");
+		} else if (toAct == seat) {
+			lblAction.setText("TO ACT: YOU");
+		} else {
+			lblAction.setText("TO ACT: " + tableState.getName(toAct));
+		}
+		if (toAct != seat && acting) {
+			// the turn is over without the player deciding (they took too
+			// long, so the server decided for them)
+			setActing(false);
+		}
+		int currentBet = tableState.get(TableState.CURRENT_BET);
+		lblPot.setText("Pot: " + tableState.get(TableState.POT));
+		lblCurrentBet.setText("Current bet: " + currentBet);
+		if (seat >= 0) {
+			setChips(tableState.get(TableState.chips(seat)), currentBet
+					- tableState.get(TableState.betted(seat)));
+		}
+
+		int numCards = 0;
+		while (numCards < TableState.BOARD_SIZE
+				&& tableState.getBoardCard(numCards) >= 0) {
+			numCards++;
+		}
+		for (int i = tableCardsShown; i < numCards; i++) {
+			if (i > tableCardsShown) {
+				try {
+					Thread.sleep(500);
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				}
+			}
+			setCardImage(cardName(tableState.getBoardCard(i)), tableCards[i]);
+			DEAL.play();
+		}
+		tableCardsShown = numCards;
+	}
+
+	/**
+	 * Waits for the next message from the server.
+	 * 
+	 * @return the message, which is reused for the one after it.
+	 * @throws IOException
+	 *             if the server goes away.
+	 */
+	private Message receive() throws IOException {
+		while (!decoder.decode(inBuffer)) {
+			// everything read so far has been decoded (or kept by the
+			// decoder), so the whole buffer can be read into again
+			int numBytes = in.read(inBuffer.array());
+			if (numBytes < 0) {
+				throw new EOFException("The server closed the connection");
+			}
+			inBuffer.position(0);
+			inBuffer.limit(numBytes);
+		}
+		return decoder.getMessage();
+	}
+
+	/**
+	 * Sends a line to the server (i.e. the player's name or decision). It is
+	 * called by both the buttons and the processing loop, so only one line
+	 * is sent at a time.
+	 * 
+	 * @param line
+	 *            The line to send.
+	 */
+	private synchronized void send(String line) {
+		send(outMessage.reset(Protocol.LINE).appendText(line));
+	}
+
+	/**
+	 * Sends the player's decision, and stops them from acting again until
+	 * they are next asked to. Servers that speak ACT answer it with an ACK
+	 * (see registerHandlers()); older ones are sent the decision as a line.
+	 * 
+	 * @param decision
+	 *            CHECK, CALL, FOLD or RAISE.
+	 * @param amount
+	 *            The amount raised, if they raised.
+	 */
+	private void sendAction(int decision, int amount) {
+		setActing(false);
+		if (serverVersion >= Protocol.ACT_VERSION) {
+			synchronized (this) {
+				send(outMessage.reset(Protocol.ACT).addNumber(turn)
+						.addNumber(decision).addNumber(amount));
+			}
+		} else if (decision == Protocol.RAISE) {
+			send("raise " + amount);
+		} else {
+			send(decision == Protocol.CHECK ? "check"
+					: decision == Protocol.CALL ? "call" : "fold");
+		}
+	}
 
+	/**
+	 * Sends a message to the server.
+	 * 
+	 * @param message
+	 *            The message to send.
+	 */
+	private synchronized void send(Message message) {
+		outBuffer.clear();
+		Protocol.encode(message, outBuffer);
+		try {
+			out.write(outBuffer.array(), 0, outBuffer.position());
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Shows what another player did (i.e. "alex raises 20.") in the message
+	 * area.
+	 */
+	private void showNotice(Message message) {
+		notice.setLength(0);
+		Protocol.appendNotice(message, notice);
+		notice.append('\n');
+		checkMsgAreaCapacity();
+		messageArea.append(notice.toString());
+		numMsgLines++;
+	}
+
+	/**
+	 * Gets the name of a card's image (i.e. "4-14" for the ace of spades).
+	 */
+	private static String cardName(int card) {
+		return Card.fromIndex(card).toString();
+	}
+
 	/**
 	 * Checks whether or not the message area is full. If it is, it is cleared.
 	 */
@@ -5,28 +5,92 @@
  * its value as a hand (i.e. the type of pokerhand, the defining values, the
  * kickers, etc.). They can be compared to one another using these values.
  * </p>
+ * <p>
+ * The values are packed into a single int, its strength, 4 bits per value
+ * with the type of pokerhand in the highest bits, then each defining value
+ * and kicker in order. This way a stronger hand always has a higher strength,
+ * so two hands are compared with a single int comparison.
+ * </p>
  * 
  * @author Alex
  * @since 2016-01-19
  */
 
-public class PokerHand implements Comparable {
-	private int[] valueOfHand = new int[6];
-	private final int HIGH_CARD = 1;
-	private final int PAIR = 2;
-	private final int TWO_PAIR = 3;
-	private final int TRIPLE = 4;
-	private final int STRAIGHT = 5;
-	private final int FLUSH = 6;
-	private final int FULL_HOUSE = 7;
-	private final int QUAD = 8;
-	private final int STRAIGHT_FLUSH = 9;
+public class PokerHand implements Comparable<PokerHand> {
+	public static final int HIGH_CARD = 1;
+	public static final int PAIR = 2;
+	public static final int TWO_PAIR = 3;
+	public static final int TRIPLE = 4;
+	public static final int STRAIGHT = 5;
+	public static final int FLUSH = 6;
+	public static final int FULL_HOUSE = 7;
+	public static final int QUAD = 8;
+	public static final int STRAIGHT_FLUSH = 9;
+
+	/**
+	 * the number of values (the type of pokerhand, then up to five defining
+	 * values/kickers) in a hand, and the number of bits each one takes up in
+	 * the strength
+	 */
+	private static final int NUM_VALUES = 6;
+	private static final int VALUE_BITS = 4;
+
+	private int strength;
+
+	/**
+	 * Creates an empty hand, to be set as one of the types of pokerhand.
+	 */
+	public PokerHand() {
+		strength = 0;
+	}
+
+	/**
+	 * Creates a hand from its strength (i.e. the score given by the
+	 * HandEvaluator).
+	 * 
+	 * @param strength
+	 *            The strength of the hand.
+	 */
+	public PokerHand(int strength) {
+		this.strength = strength;
+	}
+
+	/**
+	 * Packs the type of a pokerhand and its values into a strength.
+	 * 
+	 * @param typeOfHand
+	 *            The type of pokerhand (i.e. PAIR).
+	 * @param v1
+	 *            The first defining value of the hand. The same goes for the
+	 *            rest, which are 0 if the type of hand doesn't use them.
+	 * @return the strength of the hand.
+	 */
+	public static int toStrength(int typeOfHand, int v1, int v2, int v3,
+			int v4, int v5) {
+		return typeOfHand << (5 * VALUE_BITS) | v1 << (4 * VALUE_BITS)
+				| v2 << (3 * VALUE_BITS) | v3 << (2 * VALUE_BITS)
+				| v4 << VALUE_BITS | v5;
+	}
+
+	/**
+	 * Unpacks one of the values of a strength, in the same order as
+	 * getValue() (the type of pokerhand, then the defining values/kickers).
+	 * 
+	 * @param strength
+	 *            The strength of a hand.
+	 * @param i
+	 *            Which value to unpack (0-5).
+	 * @return the value.
+	 */
+	public static int valueOf(int strength, int i) {
+		return (strength >>> ((NUM_VALUES - 1 - i) * VALUE_BITS)) & 0xF;
+	}
 
 	@Override
 	public String toString() {
 		String typeOfHand = "";
 		String determiningRankOfHand = "";
-		switch (valueOfHand[1]) {
+		switch (valueOf(strength, 1)) {
 		case 11:
 			determiningRankOfHand = "jack";
 			break;
@@ -40,11 +104,11 @@ public class PokerHand implements Comparable {
 			determiningRankOfHand = "ace";
 			break;
 		default:
-			determiningRankOfHand = valueOfHand[1] + "";
+			determiningRankOfHand = valueOf(strength, 1) + "";
 			break;
 		}
 
-		switch (valueOfHand[0]) {
+		switch (valueOf(strength, 0)) {
 		case 1:
 			typeOfHand = "high card " + determiningRankOfHand;
 			break;
@@ -90,37 +154,37 @@ public class PokerHand implements Comparable {
 	 * @param otherHand The other hand to be compared to. 
 	 */
 	@Override
-	public int compareTo(Object otherHand) {
-		// first compare poker hand rank
-		if (valueOfHand[0] > ((PokerHand) otherHand).getValue()[0]) {
-			return 1;
-		} else if (valueOfHand[0] < ((PokerHand) otherHand).getValue()[0]) {
-			return -1;
-		} else { // this means they're the same tier of poker hand, need to
-					// compare kickers (i.e. if both pairs, compare pairs. if
-					// both have the same pair, go to next high card, etc.)
-			for (int i = 1; i < valueOfHand.length; i++) {
-				if (valueOfHand[i] > ((PokerHand) otherHand).getValue()[i]) {
-					return 1;
-				} else if (valueOfHand[i] < ((PokerHand) otherHand).getValue()[i]) {
-					return -1;
-				}
-			}
-			return 0; // if the code reaches here, that means that the two hands
-						// are equal
-		}
-
+	public int compareTo(PokerHand otherHand) {
+		// the type of hand, then each defining value/kicker, is packed into
+		// the strength from most to least significant, so comparing
+		// strengths compares each value in turn
+		return Integer.compare(strength, otherHand.getStrength());
 	}
 
 	/**
 	 * Used to get the value of the hand
 	 * 
-	 * @return the value of the hand
+	 * @return the value of the hand (the type of pokerhand, then the defining
+	 *         values/kickers)
 	 */
 	public int[] getValue() {
+		int[] valueOfHand = new int[NUM_VALUES];
+		for (int i = 0; i < NUM_VALUES; i++) {
+			valueOfHand[i] = valueOf(strength, i);
+		}
 		return valueOfHand;
 	}
 
+	/**
+	 * Used to get the strength of the hand, with all of its values packed into
+	 * one int.
+	 * 
+	 * @return the strength of the hand
+	 */
+	public int getStrength() {
+		return strength;
+	}
+
 	/**
 	 * Sets hand as a straight flush
 	 * 
@@ -128,8 +192,7 @@ public class PokerHand implements Comparable {
 	 *            The defining value of the hand
 	 */
 	public void setStraightFlush(int highCard) {
-		valueOfHand[0] = STRAIGHT_FLUSH;
-		valueOfHand[1] = highCard;
+		strength = toStrength(STRAIGHT_FLUSH, highCard, 0, 0, 0, 0);
 	}
 
 	/**
@@ -139,8 +202,7 @@ public class PokerHand implements Comparable {
 	 *            The defining value of the hand
 	 */
 	public void setQuad(int quadRank) {
-		valueOfHand[0] = QUAD;
-		valueOfHand[1] = quadRank;
+		strength = toStrength(QUAD, quadRank, 0, 0, 0, 0);
 	}
 
 	/**
@@ -152,9 +214,7 @@ public class PokerHand implements Comparable {
 	 *            The second defining value of the hand
 	 */
 	public void setFullHouse(int tripleRank, int doubleRank) {
-		valueOfHand[0] = FULL_HOUSE;
-		valueOfHand[1] = tripleRank;
-		valueOfHand[2] = doubleRank;
+		strength = toStrength(FULL_HOUSE, tripleRank, doubleRank, 0, 0, 0);
 	}
 
 	/**
@@ -173,12 +233,8 @@ public class PokerHand implements Comparable {
 	 */
 	public void setFlush(int highCard, int kicker1, int kicker2, int kicker3,
 			int kicker4) {
-		valueOfHand[0] = FLUSH;
-		valueOfHand[1] = highCard;
-		valueOfHand[2] = kicker1;
-		valueOfHand[3] = kicker2;
-		valueOfHand[4] = kicker3;
-		valueOfHand[5] = kicker4;
+		strength = toStrength(FLUSH, highCard, kicker1, kicker2, kicker3,
+				kicker4);
 	}
 
 	/**
@@ -188,8 +244,7 @@ public class PokerHand implements Comparable {
 	 *            The first defining value of the hand
 	 */
 	public void setStraight(int highCard) {
-		valueOfHand[0] = STRAIGHT;
-		valueOfHand[1] = highCard;
+		strength = toStrength(STRAIGHT, highCard, 0, 0, 0, 0);
 	}
 
 	/**
@@ -203,11 +258,7 @@ public class PokerHand implements Comparable {
 	 *            The third defining value of the hand
 	 */
 	public void setTriple(int tripleRank, int kicker1, int kicker2) {
-		valueOfHand[0] = TRIPLE;
-		valueOfHand[1] = tripleRank;
-		valueOfHand[2] = kicker1;
-		valueOfHand[3] = kicker2;
-
+		strength = toStrength(TRIPLE, tripleRank, kicker1, kicker2, 0, 0);
 	}
 
 	/**
@@ -221,10 +272,8 @@ public class PokerHand implements Comparable {
 	 *            The third defining value of the hand
 	 */
 	public void setTwoPair(int double1Rank, int double2Rank, int kicker) {
-		valueOfHand[0] = TWO_PAIR;
-		valueOfHand[1] = double1Rank;
-		valueOfHand[2] = double2Rank;
-		valueOfHand[3] = kicker;
+		strength = toStrength(TWO_PAIR, double1Rank, double2Rank, kicker, 0,
+				0);
 	}
 
 	/**
@@ -240,11 +289,7 @@ public class PokerHand implements Comparable {
 	 *            The fourth defining value of the hand
 	 */
 	public void setPair(int doubleRank, int kicker1, int kicker2, int kicker3) {
-		valueOfHand[0] = PAIR;
-		valueOfHand[1] = doubleRank;
-		valueOfHand[2] = kicker1;
-		valueOfHand[3] = kicker2;
-		valueOfHand[4] = kicker3;
+		strength = toStrength(PAIR, doubleRank, kicker1, kicker2, kicker3, 0);
 	}
 
 	/**
@@ -263,12 +308,8 @@ public class PokerHand implements Comparable {
 	 */
 	public void setHighCard(int highCard, int kicker1, int kicker2,
 			int kicker3, int kicker4) {
-		valueOfHand[0] = HIGH_CARD;
-		valueOfHand[1] = highCard;
-		valueOfHand[2] = kicker1;
-		valueOfHand[3] = kicker2;
-		valueOfHand[4] = kicker3;
-		valueOfHand[5] = kicker4;
+		strength = toStrength(HIGH_CARD, highCard, kicker1, kicker2, kicker3,
+				kicker4);
 	}
 
 }
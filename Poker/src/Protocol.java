@@ -0,0 +1,599 @@
+import java.net.ProtocolException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * <h1>Protocol</h1>
+ * <p>
+ * The two ways messages are sent between the server and its clients. The
+ * text protocol is the one the game has always spoken: each message is a
+ * line starting with the name of its type (i.e. "INFOalex 40 4"). The binary
+ * protocol sends each message as a frame: its length (two bytes), its type
+ * (one byte), then the fields that type has, in a fixed order:
+ * </p>
+ * 
+ * <pre>
+ * numbers  four bytes each, as many as the type has (or for a SNAPSHOT or
+ *          DELTA, a count, then each number, all as varints)
+ * cards    a count (one byte), then the index of each card (one byte each)
+ * text     its length in bytes (two bytes), then the text in UTF-8
+ * </pre>
+ * <p>
+ * A client asks for the binary protocol by sending HELLO_LENGTH bytes
+ * before anything else: a 0 byte (which no line can start with), "PK", and
+ * the newest version of the protocol it speaks. The server has already sent
+ * its first SUBMITNAME as a line by then, so a binary client reads that one
+ * line, then the server's HELLO frame (with the version both sides will
+ * speak), and only frames after that. A client that doesn't ask for it is
+ * spoken to in text, the way it always was.
+ * </p>
+ * <p>
+ * From version 2, what the whole table can see (the pot, the current bet,
+ * who is to act, the cards on the table and everyone's chips) is sent as a
+ * TableState: a SNAPSHOT when the game starts, and a DELTA of whatever has
+ * changed after that, instead of the INFO, PERSONALINFO and TABLE messages
+ * (see isSent()). A client that misses a DELTA sends RESYNC for a new
+ * SNAPSHOT.
+ * </p>
+ * <p>
+ * From version 3, a player is asked to act with a TURN (with the number of
+ * the turn) instead of ACTION, and sends their decision as an ACT for that
+ * turn, which the server answers with an ACK saying whether it was taken.
+ * </p>
+ * <p>
+ * From version 4, a client can be sent to another server with a REDIRECT,
+ * which is how a Coordinator hands each player to a server with room for
+ * them. The servers tell the coordinator they are there with NODE, and how
+ * busy they are with LOAD.
+ * </p>
+ * <p>
+ * Nothing here creates any objects (except toLine()), so a message can be
+ * encoded straight into the bytes waiting to be written to a client, and
+ * decoded into a Message that is reused.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class Protocol {
+	/**
+	 * the newest version of the binary protocol
+	 */
+	public static final int VERSION = 4;
+
+	/**
+	 * the first version of the binary protocol the table is sent as a
+	 * TableState in
+	 */
+	public static final int TABLE_STATE_VERSION = 2;
+
+	/**
+	 * the first version of the binary protocol decisions are sent as ACT
+	 * messages in
+	 */
+	public static final int ACT_VERSION = 3;
+
+	/**
+	 * the first version of the binary protocol a client can be sent to
+	 * another server in
+	 */
+	public static final int REDIRECT_VERSION = 4;
+
+	/**
+	 * how many bytes a client sends to ask for the binary protocol
+	 */
+	public static final int HELLO_LENGTH = 4;
+
+	/**
+	 * the longest a frame can be, not counting the length itself
+	 */
+	public static final int MAX_FRAME_LENGTH = 0xFFFF;
+
+	/**
+	 * how many bytes each frame's length takes up
+	 */
+	public static final int LENGTH_SIZE = 2;
+
+	static final byte[] MAGIC = { 0, 'P', 'K' };
+
+	// the types of message, which are also each binary frame's type byte.
+	// HELLO starts the binary protocol, and LINE is a line of text from a
+	// client (i.e. their name or their decision).
+	public static final int HELLO = 1;
+	public static final int LINE = 2;
+	public static final int SUBMITNAME = 3;
+	public static final int MESSAGE = 4;
+	public static final int ACTION = 5;
+	public static final int BIGBLIND = 6;
+	public static final int SMALLBLIND = 7;
+	public static final int INFO = 8;
+	public static final int PERSONALINFO = 9;
+	public static final int HAND = 10;
+	public static final int TABLE = 11;
+	public static final int FOLDED = 12;
+	public static final int WINNER = 13;
+	public static final int ENDROUND = 14;
+	public static final int OUT = 15;
+	public static final int WONGAME = 16;
+	public static final int CHECK = 17;
+	public static final int CALL = 18;
+	public static final int FOLD = 19;
+	public static final int RAISE = 20;
+	public static final int ALLIN = 21;
+	public static final int SNAPSHOT = 22;
+	public static final int DELTA = 23;
+	public static final int RESYNC = 24;
+	public static final int TURN = 25;
+	public static final int ACT = 26;
+	public static final int ACK = 27;
+	public static final int REDIRECT = 28;
+	public static final int NODE = 29;
+	public static final int LOAD = 30;
+
+	/**
+	 * how many types of message there are (one more than the highest)
+	 */
+	public static final int NUM_TYPES = 31;
+
+	/**
+	 * the number of numbers of a type that can have any number of them
+	 */
+	private static final int VARIABLE = -1;
+
+	// what each type of message is called in the text protocol, and the
+	// fields it has
+	private static final String[] NAMES = new String[NUM_TYPES];
+	private static final int[] NUM_NUMBERS = new int[NUM_TYPES];
+	private static final boolean[] HAS_CARDS = new boolean[NUM_TYPES];
+	private static final boolean[] HAS_TEXT = new boolean[NUM_TYPES];
+
+	static {
+		type(HELLO, "HELLO", 1, false, false); // version
+		type(LINE, "", 0, false, true);
+		type(SUBMITNAME, "SUBMITNAME", 0, false, false);
+		type(MESSAGE, "MESSAGE", 0, false, true);
+		type(ACTION, "ACTION", 0, false, false);
+		type(BIGBLIND, "BIGBLIND", 0, false, false);
+		type(SMALLBLIND, "SMALLBLIND", 0, false, false);
+		type(INFO, "INFO", 2, false, true); // to act, pot, current bet
+		type(PERSONALINFO, "PERSONALINFO", 2, false, false); // chips, to call
+		type(HAND, "HAND", 0, true, false);
+		type(TABLE, "TABLE", 1, true, false); // cards on the table, new ones
+		type(FOLDED, "FOLDED", 0, false, false);
+		type(WINNER, "WINNER", 0, false, true);
+		type(ENDROUND, "ENDROUND", 0, false, false);
+		type(OUT, "OUT", 0, false, false);
+		type(WONGAME, "WONGAME", 0, false, false);
+		type(CHECK, "CHECK", 0, false, true); // player
+		type(CALL, "CALL", 0, false, true); // player
+		type(FOLD, "FOLD", 0, false, true); // player
+		type(RAISE, "RAISE", 1, false, true); // player, amount
+		type(ALLIN, "ALLIN", 2, false, true); // player, amount, by calling
+		// version, number of seats, every slot; the names of the seats
+		type(SNAPSHOT, "SNAPSHOT", VARIABLE, false, true);
+		// version, then each slot that changed and its value
+		type(DELTA, "DELTA", VARIABLE, false, false);
+		type(RESYNC, "RESYNC", 0, false, false);
+		type(TURN, "TURN", 1, false, false); // turn
+		// turn, decision (CHECK, CALL, FOLD or RAISE), amount raised
+		type(ACT, "ACT", 3, false, false);
+		type(ACK, "ACK", 2, false, false); // turn, 1 if it was taken
+		type(REDIRECT, "REDIRECT", 1, false, true); // port; host
+		// port, seats at each table, most tables (0 for no limit); host
+		type(NODE, "NODE", 3, false, true);
+		// tables, players seated, players who joined since the last LOAD
+		type(LOAD, "LOAD", 3, false, false);
+	}
+
+	private static void type(int type, String name, int numNumbers,
+			boolean hasCards, boolean hasText) {
+		NAMES[type] = name;
+		NUM_NUMBERS[type] = numNumbers;
+		HAS_CARDS[type] = hasCards;
+		HAS_TEXT[type] = hasText;
+	}
+
+	/**
+	 * Returns whether a type of message is sent to a client. Clients from
+	 * version 2 are sent the table as a TableState, and clients from version
+	 * 3 are asked to act with a TURN, instead of in the messages older
+	 * clients understand, and older clients aren't sent them. Only clients
+	 * from version 4 are sent REDIRECT.
+	 * 
+	 * @param type
+	 *            The type of message.
+	 * @param version
+	 *            The version of the binary protocol the client speaks, or 0
+	 *            if it speaks the text protocol.
+	 * @return whether to send it.
+	 */
+	public static boolean isSent(int type, int version) {
+		switch (type) {
+		case INFO:
+		case PERSONALINFO:
+		case TABLE:
+			return version < TABLE_STATE_VERSION;
+		case SNAPSHOT:
+		case DELTA:
+			return version >= TABLE_STATE_VERSION;
+		case ACTION:
+			return version < ACT_VERSION;
+		case TURN:
+		case ACK:
+			return version >= ACT_VERSION;
+		case REDIRECT:
+			return version >= REDIRECT_VERSION;
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * Puts the bytes a client sends to ask for the binary protocol.
+	 * 
+	 * @param out
+	 *            Where to put them.
+	 */
+	public static void putHello(ByteBuffer out) {
+		out.put(MAGIC);
+		out.put((byte) VERSION);
+	}
+
+	/**
+	 * Encodes a message as a binary frame.
+	 * 
+	 * @param message
+	 *            The message.
+	 * @param out
+	 *            Where to put the frame.
+	 * @throws java.nio.BufferOverflowException
+	 *             if the frame doesn't fit (out is left part way through
+	 *             it).
+	 */
+	public static void encode(Message message, ByteBuffer out) {
+		int type = message.getType();
+		int start = out.position();
+		out.putShort((short) 0); // the length, once it is known
+		out.put((byte) type);
+		if (NUM_NUMBERS[type] == VARIABLE) {
+			putVarint(message.getNumNumbers(), out);
+			for (int i = 0; i < message.getNumNumbers(); i++) {
+				putVarint(message.getNumber(i), out);
+			}
+		}
+		for (int i = 0; i < NUM_NUMBERS[type]; i++) {
+			out.putInt(message.getNumber(i));
+		}
+		if (HAS_CARDS[type]) {
+			out.put((byte) message.getNumCards());
+			for (int i = 0; i < message.getNumCards(); i++) {
+				out.put((byte) message.getCard(i));
+			}
+		}
+		if (HAS_TEXT[type]) {
+			int textStart = out.position();
+			out.putShort((short) 0);
+			putUtf8(message.text(), out);
+			out.putShort(textStart,
+					(short) (out.position() - textStart - LENGTH_SIZE));
+		}
+		int length = out.position() - start - LENGTH_SIZE;
+		if (length > MAX_FRAME_LENGTH) {
+			throw new IllegalArgumentException("Message too long: " + length
+					+ " bytes");
+		}
+		out.putShort(start, (short) length);
+	}
+
+	/**
+	 * Decodes a binary frame.
+	 * 
+	 * @param frame
+	 *            The frame, after its length, up to its limit.
+	 * @param message
+	 *            The message to decode it into.
+	 * @throws ProtocolException
+	 *             if the frame isn't a message.
+	 */
+	public static void decode(ByteBuffer frame, Message message)
+			throws ProtocolException {
+		try {
+			int type = frame.get() & 0xFF;
+			if (type >= NUM_TYPES || NAMES[type] == null) {
+				throw new ProtocolException("Unknown message type " + type);
+			}
+			message.reset(type);
+			if (NUM_NUMBERS[type] == VARIABLE) {
+				int numNumbers = getVarint(frame);
+				// each number takes at least a byte
+				if (numNumbers < 0 || numNumbers > frame.remaining()) {
+					throw new ProtocolException("Message too short");
+				}
+				for (int i = 0; i < numNumbers; i++) {
+					message.addNumber(getVarint(frame));
+				}
+			}
+			for (int i = 0; i < NUM_NUMBERS[type]; i++) {
+				message.addNumber(frame.getInt());
+			}
+			if (HAS_CARDS[type]) {
+				int numCards = frame.get() & 0xFF;
+				if (numCards > Message.MAX_CARDS) {
+					throw new ProtocolException("Too many cards: " + numCards);
+				}
+				for (int i = 0; i < numCards; i++) {
+					int card = frame.get() & 0xFF;
+					if (card >= 52) {
+						throw new ProtocolException("No such card: " + card);
+					}
+					message.addCard(card);
+				}
+			}
+			if (HAS_TEXT[type]) {
+				int numBytes = frame.getShort() & 0xFFFF;
+				if (numBytes > frame.remaining()) {
+					throw new ProtocolException("Message too short");
+				}
+				getUtf8(frame, numBytes, message.textBuilder());
+			}
+		} catch (BufferUnderflowException e) {
+			throw new ProtocolException("Message too short");
+		}
+		if (frame.hasRemaining()) {
+			throw new ProtocolException("Message too long");
+		}
+	}
+
+	/**
+	 * Encodes a message as a line of the text protocol, ending with "\n".
+	 * 
+	 * @param message
+	 *            The message.
+	 * @param line
+	 *            Somewhere to build the line, so the caller can reuse it.
+	 * @param out
+	 *            Where to put the line.
+	 * @throws java.nio.BufferOverflowException
+	 *             if the line doesn't fit (out is left part way through it).
+	 */
+	public static void encodeLine(Message message, StringBuilder line,
+			ByteBuffer out) {
+		line.setLength(0);
+		appendLine(message, line);
+		line.append('\n');
+		putUtf8(line, out);
+	}
+
+	/**
+	 * Returns a message as the line the text protocol sends (without the
+	 * "\n"), i.e. for printing.
+	 * 
+	 * @param message
+	 *            The message.
+	 * @return the line.
+	 */
+	public static String toLine(Message message) {
+		StringBuilder line = new StringBuilder();
+		appendLine(message, line);
+		return line.toString();
+	}
+
+	/**
+	 * Adds the line the text protocol sends for a message, exactly as the
+	 * server has always sent it.
+	 */
+	private static void appendLine(Message message, StringBuilder line) {
+		int type = message.getType();
+		line.append(NAMES[type]);
+		switch (type) {
+		case HELLO:
+			line.append(message.getNumber(0));
+			break;
+		case INFO:
+			line.append(message.text()).append(' ')
+					.append(message.getNumber(0)).append(' ')
+					.append(message.getNumber(1));
+			break;
+		case PERSONALINFO:
+			line.append(message.getNumber(0)).append(' ')
+					.append(message.getNumber(1));
+			break;
+		case HAND:
+			for (int i = 0; i < message.getNumCards(); i++) {
+				if (i > 0) {
+					line.append(' ');
+				}
+				appendCard(message.getCard(i), line);
+			}
+			break;
+		case TABLE:
+			line.append(message.getNumber(0));
+			for (int i = 0; i < message.getNumCards(); i++) {
+				line.append(' ');
+				appendCard(message.getCard(i), line);
+			}
+			// the flop has a space after each card
+			if (message.getNumCards() > 1) {
+				line.append(' ');
+			}
+			break;
+		case CHECK:
+		case CALL:
+		case FOLD:
+		case RAISE:
+		case ALLIN:
+			appendNotice(message, line);
+			break;
+		case SNAPSHOT:
+		case DELTA:
+		case TURN:
+		case ACT:
+		case ACK:
+			// never sent as text, but printed
+			for (int i = 0; i < message.getNumNumbers(); i++) {
+				if (i > 0) {
+					line.append(' ');
+				}
+				line.append(message.getNumber(i));
+			}
+			break;
+		default:
+			if (HAS_TEXT[type]) {
+				line.append(message.text());
+			}
+		}
+	}
+
+	/**
+	 * Adds what a CHECK, CALL, FOLD, RAISE or ALLIN message says happened
+	 * (i.e. "alex raises 20.").
+	 * 
+	 * @param message
+	 *            The message.
+	 * @param text
+	 *            Where to add it.
+	 */
+	public static void appendNotice(Message message, StringBuilder text) {
+		text.append(message.text());
+		switch (message.getType()) {
+		case CHECK:
+			text.append(" checks.");
+			break;
+		case CALL:
+			text.append(" calls.");
+			break;
+		case FOLD:
+			text.append(" folds.");
+			break;
+		case RAISE:
+			text.append(" raises ").append(message.getNumber(0)).append('.');
+			break;
+		case ALLIN:
+			if (message.getNumber(1) != 0) {
+				text.append(" calls (all in).");
+			} else {
+				text.append(" goes all in! (").append(message.getNumber(0))
+						.append(" chips).");
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Adds a card the way it is named in the text protocol (and in the
+	 * clients' card images), i.e. "4-14" for the ace of spades.
+	 * 
+	 * @param card
+	 *            The index (0-51) of the card.
+	 * @param text
+	 *            Where to add it.
+	 */
+	public static void appendCard(int card, StringBuilder text) {
+		text.append(Card.suitOf(card)).append('-').append(Card.rankOf(card));
+	}
+
+	/**
+	 * Puts a number in as few bytes as it takes, seven bits at a time
+	 * (lowest first), with the top bit of each byte set if more follow.
+	 */
+	private static void putVarint(int number, ByteBuffer out) {
+		while ((number & ~0x7F) != 0) {
+			out.put((byte) (number & 0x7F | 0x80));
+			number >>>= 7;
+		}
+		out.put((byte) number);
+	}
+
+	/**
+	 * Gets a number put by putVarint().
+	 */
+	private static int getVarint(ByteBuffer in) throws ProtocolException {
+		int number = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.get();
+			number |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return number;
+			}
+		}
+		throw new ProtocolException("Number too long");
+	}
+
+	/**
+	 * Puts text in UTF-8, a character at a time.
+	 */
+	private static void putUtf8(CharSequence text, ByteBuffer out) {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				out.put((byte) c);
+			} else if (c < 0x800) {
+				out.put((byte) (0xC0 | c >> 6));
+				out.put((byte) (0x80 | c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+					&& Character.isLowSurrogate(text.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, text.charAt(++i));
+				out.put((byte) (0xF0 | codePoint >> 18));
+				out.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+				out.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+				out.put((byte) (0x80 | codePoint & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				out.put((byte) '?'); // half of a character
+			} else {
+				out.put((byte) (0xE0 | c >> 12));
+				out.put((byte) (0x80 | c >> 6 & 0x3F));
+				out.put((byte) (0x80 | c & 0x3F));
+			}
+		}
+	}
+
+	/**
+	 * Gets text in UTF-8, a character at a time. Bytes that aren't UTF-8 are
+	 * each read as the replacement character.
+	 * 
+	 * @param in
+	 *            Where to get the text from.
+	 * @param numBytes
+	 *            How many bytes of text there are.
+	 * @param text
+	 *            Where to add the text.
+	 */
+	static void getUtf8(ByteBuffer in, int numBytes, StringBuilder text) {
+		int end = in.position() + numBytes;
+		while (in.position() < end) {
+			int b = in.get() & 0xFF;
+			int numMore;
+			int codePoint;
+			if (b < 0x80) {
+				text.append((char) b);
+				continue;
+			} else if ((b & 0xE0) == 0xC0) {
+				numMore = 1;
+				codePoint = b & 0x1F;
+			} else if ((b & 0xF0) == 0xE0) {
+				numMore = 2;
+				codePoint = b & 0x0F;
+			} else if ((b & 0xF8) == 0xF0) {
+				numMore = 3;
+				codePoint = b & 0x07;
+			} else {
+				text.append('\uFFFD');
+				continue;
+			}
+			int i = 0;
+			for (; i < numMore && in.position() < end; i++) {
+				int next = in.get(in.position());
+				if ((next & 0xC0) != 0x80) {
+					break;
+				}
+				codePoint = codePoint << 6 | next & 0x3F;
+				in.get();
+			}
+			if (i < numMore || codePoint > Character.MAX_CODE_POINT) {
+				text.append('\uFFFD');
+			} else {
+				text.appendCodePoint(codePoint);
+			}
+		}
+	}
+}
@@ -0,0 +1,176 @@
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * <h1>SecureShuffleSource</h1>
+ * <p>
+ * A cryptographically secure source of random numbers, for games where the
+ * cards must not be predictable. Each hand's numbers are the HMAC-SHA256 of
+ * the hand's seed and a counter, under a secret 256-bit key, so without the
+ * key nothing about the cards can be worked out from the seeds, but with the
+ * key (kept by whoever runs the server, see ShuffleSource.KEY_PROPERTY) any
+ * hand can be replayed. Sources split off from this one share its key, so
+ * one key replays every table's hands.
+ * </p>
+ * <p>
+ * The seeds (and the key, if none is given) come from SecureRandom, and
+ * numbers are picked with rejection sampling so that every card is exactly
+ * as likely.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public final class SecureShuffleSource extends ShuffleSource {
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final int KEY_BYTES = 32;
+	private static final int FINGERPRINT_BYTES = 8;
+
+	private SecureRandom seeds = new SecureRandom();
+	private byte[] key;
+	private String fingerprint;
+	private Mac mac;
+	private byte[] input = new byte[16];
+	private byte[] output;
+	private int outputUsed;
+	private long handSeed;
+	private long block;
+
+	/**
+	 * Creates a source with a new random key.
+	 */
+	public SecureShuffleSource() {
+		this(newKey());
+	}
+
+	/**
+	 * Creates a source with a certain key (i.e. to replay hands).
+	 * 
+	 * @param key
+	 *            The 32-byte key.
+	 */
+	public SecureShuffleSource(byte[] key) {
+		if (key.length != KEY_BYTES) {
+			throw new IllegalArgumentException("The key must be "
+					+ KEY_BYTES + " bytes");
+		}
+		this.key = key.clone();
+		try {
+			mac = Mac.getInstance(ALGORITHM);
+			mac.init(new SecretKeySpec(this.key, ALGORITHM));
+		} catch (GeneralSecurityException e) {
+			// every Java platform has HmacSHA256
+			throw new IllegalStateException(ALGORITHM + " unavailable", e);
+		}
+		output = new byte[mac.getMacLength()];
+		startHand(seeds.nextLong());
+	}
+
+	/**
+	 * Returns the key, which along with a hand's seed is needed to replay the
+	 * hand.
+	 * 
+	 * @return the key.
+	 */
+	public byte[] getKey() {
+		return key.clone();
+	}
+
+	@Override
+	public long startHand() {
+		long seed = seeds.nextLong();
+		startHand(seed);
+		return seed;
+	}
+
+	@Override
+	public void startHand(long seed) {
+		handSeed = seed;
+		block = 0;
+		outputUsed = output.length;
+	}
+
+	@Override
+	public int nextInt(int bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException("bound must be positive");
+		}
+		// numbers past the last whole multiple of bound are thrown away, so
+		// every number from 0 to bound - 1 is equally likely
+		int bits;
+		int value;
+		do {
+			bits = nextBits() >>> 1;
+			value = bits % bound;
+		} while (bits - value + (bound - 1) < 0);
+		return value;
+	}
+
+	@Override
+	public ShuffleSource split() {
+		return new SecureShuffleSource(key);
+	}
+
+	/**
+	 * Returns the first bytes of the SHA-256 of the key, in hex.
+	 */
+	@Override
+	public String getKeyFingerprint() {
+		if (fingerprint != null) {
+			return fingerprint;
+		}
+		byte[] hash;
+		try {
+			hash = MessageDigest.getInstance("SHA-256").digest(key);
+		} catch (GeneralSecurityException e) {
+			// every Java platform has SHA-256
+			throw new IllegalStateException("SHA-256 unavailable", e);
+		}
+		StringBuilder hex = new StringBuilder();
+		for (int i = 0; i < FINGERPRINT_BYTES; i++) {
+			hex.append(String.format("%02x", hash[i]));
+		}
+		fingerprint = hex.toString();
+		return fingerprint;
+	}
+
+	/**
+	 * Gets the next 32 bits of the hand's numbers, working out the next
+	 * HMAC block when the last one is used up.
+	 */
+	private int nextBits() {
+		if (outputUsed == output.length) {
+			putLong(input, 0, handSeed);
+			putLong(input, 8, block++);
+			mac.update(input);
+			try {
+				mac.doFinal(output, 0);
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException(e);
+			}
+			outputUsed = 0;
+		}
+		int bits = 0;
+		for (int i = 0; i < 4; i++) {
+			bits = bits << 8 | (output[outputUsed++] & 0xFF);
+		}
+		return bits;
+	}
+
+	private static void putLong(byte[] bytes, int offset, long value) {
+		for (int i = 7; i >= 0; i--) {
+			bytes[offset + i] = (byte) value;
+			value >>>= 8;
+		}
+	}
+
+	private static byte[] newKey() {
+		byte[] key = new byte[KEY_BYTES];
+		new SecureRandom().nextBytes(key);
+		return key;
+	}
+}
@@ -0,0 +1,117 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * <h1>SharedMessages</h1>
+ * <p>
+ * Messages that go to several connections at once (i.e. everything the table
+ * is told after a player acts). Each message is encoded once for each version
+ * of the protocols, and the bytes are copied into every connection's
+ * MessageBuffer, instead of the message being encoded again for every client.
+ * </p>
+ * <p>
+ * Only meant to be used by one thread (i.e. the game thread).
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class SharedMessages {
+	private static final int INITIAL_SIZE = 256;
+
+	/**
+	 * the messages for the clients of each version of the binary protocol,
+	 * and at 0, for text clients
+	 */
+	private ByteBuffer[] versions = new ByteBuffer[Protocol.VERSION + 1];
+	private StringBuilder line = new StringBuilder();
+	private boolean empty = true;
+
+	/**
+	 * Creates an empty set of messages.
+	 */
+	public SharedMessages() {
+		for (int version = 0; version < versions.length; version++) {
+			versions[version] = ByteBuffer.allocate(INITIAL_SIZE);
+		}
+	}
+
+	/**
+	 * Encodes a message after the ones already added, for every version it
+	 * is sent to (see Protocol.isSent()).
+	 * 
+	 * @param message
+	 *            The message, which can be reused as soon as this returns.
+	 */
+	public void add(Message message) {
+		for (int version = 0; version < versions.length; version++) {
+			if (!Protocol.isSent(message.getType(), version)) {
+				continue;
+			}
+			ByteBuffer bytes = versions[version];
+			int start = bytes.position();
+			while (true) {
+				try {
+					if (version == 0) {
+						Protocol.encodeLine(message, line, bytes);
+					} else {
+						Protocol.encode(message, bytes);
+					}
+					break;
+				} catch (BufferOverflowException e) {
+					bytes.position(start);
+					bytes = resize(bytes);
+					versions[version] = bytes;
+				}
+			}
+		}
+		empty = false;
+	}
+
+	/**
+	 * Returns whether any messages have been added since clear().
+	 * 
+	 * @return whether there are no messages.
+	 */
+	public boolean isEmpty() {
+		return empty;
+	}
+
+	/**
+	 * Removes every message, so the next ones can be added.
+	 */
+	public void clear() {
+		for (ByteBuffer bytes : versions) {
+			bytes.clear();
+		}
+		empty = true;
+	}
+
+	/**
+	 * Copies the messages for one version of the protocols to the end of a
+	 * buffer.
+	 * 
+	 * @param version
+	 *            The version of the binary protocol, or 0 for the lines of
+	 *            the text protocol.
+	 * @param out
+	 *            Where to copy them.
+	 * @throws BufferOverflowException
+	 *             if there isn't room for them all (in which case nothing is
+	 *             copied).
+	 */
+	void copyTo(int version, ByteBuffer out) {
+		ByteBuffer bytes = versions[version];
+		if (bytes.position() > out.remaining()) {
+			throw new BufferOverflowException();
+		}
+		out.put(bytes.array(), 0, bytes.position());
+	}
+
+	private static ByteBuffer resize(ByteBuffer bytes) {
+		ByteBuffer resized = ByteBuffer.allocate(bytes.capacity() * 2);
+		bytes.flip();
+		resized.put(bytes);
+		return resized;
+	}
+}
@@ -0,0 +1,205 @@
+import java.util.Arrays;
+
+/**
+ * <h1>Showdown</h1>
+ * <p>
+ * This class ranks the hands of the players still in a round once every card
+ * has been dealt. Players are referred to by their seat (their position in
+ * the list of players), and their hands by their strength from the
+ * HandEvaluator, so nothing but ints are compared or moved around.
+ * </p>
+ * <p>
+ * The players are ranked from best hand to worst, with players whose hands
+ * are equally strong grouped together (a tie). The winners of any pot, such
+ * as a side pot only some of the players are in, are the players in the pot
+ * with the best hand, which is found without ranking everyone; the ranking
+ * is only worked out if it is asked for.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class Showdown {
+	private int[] strengths;
+	private boolean[] inShowdown;
+	private long[] ranking;
+	private int[] groupStarts;
+	private int numGroups;
+
+	/**
+	 * Creates a showdown between the players still in the round. The arrays
+	 * are copied, so the caller can go on changing theirs.
+	 * 
+	 * @param strengths
+	 *            The strength of each seat's hand.
+	 * @param inShowdown
+	 *            Whether or not each seat is still in the round (i.e. hasn't
+	 *            folded).
+	 */
+	public Showdown(int[] strengths, boolean[] inShowdown) {
+		this.strengths = strengths.clone();
+		this.inShowdown = inShowdown.clone();
+	}
+
+	/**
+	 * Ranks the hands of the players still in the round from their cards.
+	 * 
+	 * @param hands
+	 *            The two cards of each seat, or null if they are no longer in
+	 *            the round.
+	 * @param table
+	 *            The five cards on the table.
+	 * @return the ranking of the hands.
+	 */
+	public static Showdown of(CardSet[] hands, CardSet table) {
+		int[] strengths = new int[hands.length];
+		boolean[] inShowdown = new boolean[hands.length];
+		for (int seat = 0; seat < hands.length; seat++) {
+			if (hands[seat] != null) {
+				strengths[seat] = HandEvaluator.evaluate(hands[seat]
+						.getMask() | table.getMask());
+				inShowdown[seat] = true;
+			}
+		}
+		return new Showdown(strengths, inShowdown);
+	}
+
+	/**
+	 * Returns the seats of the players in the showdown, from best hand to
+	 * worst (tied players are in order of their seats).
+	 * 
+	 * @return the ranking of the seats.
+	 */
+	public int[] getRanking() {
+		rank();
+		int[] seats = new int[ranking.length];
+		for (int i = 0; i < ranking.length; i++) {
+			seats[i] = seatOf(ranking[i]);
+		}
+		return seats;
+	}
+
+	/**
+	 * Returns the number of groups of tied players (if no one tied, this is
+	 * the number of players).
+	 * 
+	 * @return the number of groups.
+	 */
+	public int getNumGroups() {
+		rank();
+		return numGroups;
+	}
+
+	/**
+	 * Returns the seats of the players in a group of tied players.
+	 * 
+	 * @param group
+	 *            The place of the group (0 for the best hands).
+	 * @return the seats of the group's players.
+	 */
+	public int[] getGroup(int group) {
+		rank();
+		int[] seats = new int[groupStarts[group + 1] - groupStarts[group]];
+		for (int i = 0; i < seats.length; i++) {
+			seats[i] = seatOf(ranking[groupStarts[group] + i]);
+		}
+		return seats;
+	}
+
+	/**
+	 * Returns the seats of the players who win the main pot.
+	 * 
+	 * @return the seats of the winners.
+	 */
+	public int[] getWinners() {
+		return getWinners(inShowdown);
+	}
+
+	/**
+	 * Returns the seats of the players who win a pot only some of the players
+	 * are in (i.e. a side pot an all-in player can't win). This only needs one
+	 * pass over the players to find the best hand, then one to collect the
+	 * players who have it, so the full ranking isn't needed.
+	 * 
+	 * @param inPot
+	 *            Whether or not each seat is in the pot.
+	 * @return the seats of the winners, or none if no one in the showdown is
+	 *         in the pot.
+	 */
+	public int[] getWinners(boolean[] inPot) {
+		int best = -1;
+		int numWinners = 0;
+		for (int seat = 0; seat < strengths.length; seat++) {
+			if (inShowdown[seat] && inPot[seat]) {
+				if (strengths[seat] > best) {
+					best = strengths[seat];
+					numWinners = 1;
+				} else if (strengths[seat] == best) {
+					numWinners++;
+				}
+			}
+		}
+
+		int[] winners = new int[numWinners];
+		numWinners = 0;
+		for (int seat = 0; seat < strengths.length; seat++) {
+			if (inShowdown[seat] && inPot[seat] && strengths[seat] == best) {
+				winners[numWinners++] = seat;
+			}
+		}
+		return winners;
+	}
+
+	/**
+	 * Returns the strength of a seat's hand.
+	 * 
+	 * @param seat
+	 *            The seat of the player.
+	 * @return the strength of their hand.
+	 */
+	public int getStrength(int seat) {
+		return strengths[seat];
+	}
+
+	/**
+	 * Ranks the players, the first time the ranking is needed. The strength
+	 * and the seat of each player are packed together (the seat counted down
+	 * from the last one), so sorting them sorts the seats by strength,
+	 * strongest and then lowest seat last. The ties are then grouped in one
+	 * pass.
+	 */
+	private void rank() {
+		if (ranking != null) {
+			return;
+		}
+		int lastSeat = strengths.length - 1;
+		long[] hands = new long[strengths.length];
+		int numHands = 0;
+		for (int seat = 0; seat <= lastSeat; seat++) {
+			if (inShowdown[seat]) {
+				hands[numHands++] = (long) strengths[seat] << 32
+						| (lastSeat - seat);
+			}
+		}
+		Arrays.sort(hands, 0, numHands);
+
+		ranking = new long[numHands];
+		groupStarts = new int[numHands + 1];
+		numGroups = 0;
+		for (int i = 0; i < numHands; i++) {
+			ranking[i] = hands[numHands - 1 - i];
+			if (i == 0 || ranking[i] >>> 32 != ranking[i - 1] >>> 32) {
+				groupStarts[numGroups++] = i;
+			}
+		}
+		groupStarts[numGroups] = numHands;
+	}
+
+	/**
+	 * Unpacks the seat of a player from the ranking.
+	 */
+	private int seatOf(long rankedHand) {
+		return strengths.length - 1 - (int) rankedHand;
+	}
+
+}
@@ -0,0 +1,164 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h1>ShuffleSource</h1>
+ * <p>
+ * Where a deck gets its random numbers from when it is shuffled. Each hand
+ * is shuffled from its own seed, which the source picks when the hand starts,
+ * so the hand can be shuffled exactly the same way again later (i.e. to look
+ * into a disputed hand, or to rerun a simulation) by starting it with the
+ * same seed.
+ * </p>
+ * <p>
+ * A source is only used by one thread at a time. Each table or simulation
+ * thread gets its own source, split off from another one, which shares
+ * nothing with it.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public abstract class ShuffleSource {
+	/**
+	 * the system properties that choose the server's source: "fast" (the
+	 * default) or "secure", the seed of a fast source, and the key of a
+	 * secure one (64 hex digits, kept by whoever runs the server, without
+	 * which its hands can't be replayed)
+	 */
+	public static final String MODE_PROPERTY = "poker.shuffle";
+	public static final String SEED_PROPERTY = "poker.shuffle.seed";
+	public static final String KEY_PROPERTY = "poker.shuffle.key";
+
+	private static final AtomicLong SEED_UNIQUIFIER = new AtomicLong();
+
+	/**
+	 * Starts a new hand with a new seed.
+	 * 
+	 * @return the seed of the hand.
+	 */
+	public abstract long startHand();
+
+	/**
+	 * Starts a hand from a seed, so it is shuffled the same way as the hand
+	 * that seed was given by.
+	 * 
+	 * @param seed
+	 *            The seed of the hand.
+	 */
+	public abstract void startHand(long seed);
+
+	/**
+	 * Gets a random number from 0 up to (not including) bound, from the
+	 * current hand's seed.
+	 * 
+	 * @param bound
+	 *            The upper bound (exclusive).
+	 * @return the random number.
+	 */
+	public abstract int nextInt(int bound);
+
+	/**
+	 * Creates another source, to be used by another thread, whose numbers
+	 * are unrelated to this one's.
+	 * 
+	 * @return the new source.
+	 */
+	public abstract ShuffleSource split();
+
+	/**
+	 * Returns a fingerprint of the key the hands are shuffled under, which
+	 * tells which key a hand needs to be replayed without giving the key
+	 * away.
+	 * 
+	 * @return the fingerprint, or null if the source has no key (and a
+	 *         hand's seed is all it needs).
+	 */
+	public String getKeyFingerprint() {
+		return null;
+	}
+
+	/**
+	 * Creates a fast source, seeded differently every time.
+	 * 
+	 * @return the new source.
+	 */
+	public static ShuffleSource fast() {
+		return fast(System.nanoTime()
+				+ SEED_UNIQUIFIER.addAndGet(SplitMixSource.GOLDEN_GAMMA));
+	}
+
+	/**
+	 * Creates a fast source from a seed. Two sources with the same seed give
+	 * the same hands in the same order.
+	 * 
+	 * @param seed
+	 *            The seed of the source.
+	 * @return the new source.
+	 */
+	public static ShuffleSource fast(long seed) {
+		return new SplitMixSource(seed);
+	}
+
+	/**
+	 * Creates a source that is cryptographically secure, for games where the
+	 * cards must not be predictable (i.e. played for money).
+	 * 
+	 * @return the new source.
+	 */
+	public static ShuffleSource secure() {
+		return new SecureShuffleSource();
+	}
+
+	/**
+	 * Creates a cryptographically secure source with a certain key, so its
+	 * hands can be replayed by whoever has the key.
+	 * 
+	 * @param key
+	 *            The 32-byte key.
+	 * @return the new source.
+	 */
+	public static ShuffleSource secure(byte[] key) {
+		return new SecureShuffleSource(key);
+	}
+
+	/**
+	 * Creates the source chosen by the system properties (see MODE_PROPERTY,
+	 * SEED_PROPERTY and KEY_PROPERTY). A secure source without a key gets a
+	 * new random one, which no one can replay its hands with.
+	 * 
+	 * @return the new source.
+	 */
+	public static ShuffleSource fromSystemProperties() {
+		String mode = System.getProperty(MODE_PROPERTY, "fast");
+		String seed = System.getProperty(SEED_PROPERTY);
+		if (mode.equals("secure")) {
+			String key = System.getProperty(KEY_PROPERTY);
+			return key == null ? secure() : secure(parseHex(key));
+		} else if (!mode.equals("fast")) {
+			throw new IllegalArgumentException("Unknown " + MODE_PROPERTY
+					+ ": " + mode);
+		}
+		return seed == null ? fast() : fast(Long.parseLong(seed));
+	}
+
+	/**
+	 * Turns hex digits into the bytes they spell out.
+	 */
+	private static byte[] parseHex(String hex) {
+		if (hex.length() % 2 != 0) {
+			throw new IllegalArgumentException("Odd number of hex digits in "
+					+ KEY_PROPERTY);
+		}
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			int high = Character.digit(hex.charAt(2 * i), 16);
+			int low = Character.digit(hex.charAt(2 * i + 1), 16);
+			if (high < 0 || low < 0) {
+				throw new IllegalArgumentException("Not a hex digit in "
+						+ KEY_PROPERTY);
+			}
+			bytes[i] = (byte) (high << 4 | low);
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * <h1>SplitMixSource</h1>
+ * <p>
+ * A fast source of random numbers, using the SplitMix64 generator. Each
+ * number is just an addition and a few multiplications, with no locking, so
+ * it is the default for the server and is used for simulations.
+ * </p>
+ * <p>
+ * The seeds of the hands come from one sequence, and the numbers of each
+ * hand from another sequence starting at the hand's seed.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public final class SplitMixSource extends ShuffleSource {
+	static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private long handSeeds;
+	private long state;
+
+	/**
+	 * Creates a source from a seed. The numbers before the first hand is
+	 * started come from the seed itself.
+	 * 
+	 * @param seed
+	 *            The seed of the source.
+	 */
+	public SplitMixSource(long seed) {
+		handSeeds = seed;
+		state = seed;
+	}
+
+	/**
+	 * Gets the seed of one of a number of streams from the same seed (i.e.
+	 * one batch of a simulation), so every stream gets its own, unrelated
+	 * sequence of random numbers.
+	 * 
+	 * @param seed
+	 *            The seed of all of the streams.
+	 * @param stream
+	 *            The number of the stream.
+	 * @return the seed of the stream.
+	 */
+	public static long seedOf(long seed, long stream) {
+		return mix(seed + stream * GOLDEN_GAMMA);
+	}
+
+	@Override
+	public long startHand() {
+		handSeeds += GOLDEN_GAMMA;
+		state = mix(handSeeds);
+		return state;
+	}
+
+	@Override
+	public void startHand(long seed) {
+		state = seed;
+	}
+
+	@Override
+	public int nextInt(int bound) {
+		return (int) (((nextLong() >>> 32) * bound) >>> 32);
+	}
+
+	/**
+	 * Gets a random number from 0 up to (not including) 1.
+	 * 
+	 * @return the random number.
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * Gets a random long.
+	 * 
+	 * @return the random number.
+	 */
+	public long nextLong() {
+		state += GOLDEN_GAMMA;
+		return mix(state);
+	}
+
+	@Override
+	public ShuffleSource split() {
+		handSeeds += GOLDEN_GAMMA;
+		// mixed a second time, so the new source's hand seeds don't line up
+		// with this one's
+		return new SplitMixSource(mix(mix(handSeeds)));
+	}
+
+	/**
+	 * Scrambles the bits of a number (the output function of SplitMix64).
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
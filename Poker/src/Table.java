@@ -0,0 +1,1693 @@
+import java.util.ArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>Table</h1>
+ * <p>
+ * One game of Texas hold'em: its players, their chips, the deck, the cards on
+ * the table and the pot. Everything a game needs is kept by its table, so a
+ * server can run as many games at once as it has tables (see PokerServer).
+ * </p>
+ * <p>
+ * Players are seated by the Lobby until every seat is taken, then the table
+ * is started, and the game is played until one player has every chip (or
+ * every player has gone). The table then tells its TableListener, so the
+ * server can let it go.
+ * </p>
+ * <p>
+ * A table never holds on to a thread. The game is played in steps (dealing
+ * a stage, asking a player to act, carrying out their decision, ending the
+ * round), each of which runs on a scheduler shared by every table, and
+ * returns as soon as the game has to wait: for the cards to be shown, for
+ * the players to see who won, or for a player to decide. The wait is a
+ * timer on the scheduler, and a player's decision is handed to the
+ * scheduler by the network thread it arrives on, so a table that is waiting
+ * costs nothing but its memory, and a few threads can run thousands of
+ * tables.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class Table {
+	private final static int SMALL_BLIND = 2;
+	private final static int BIG_BLIND = 4;
+
+	/**
+	 * how long the cards dealt are shown for before the betting starts, and
+	 * how long the winners are shown for before the next round
+	 */
+	private static final long DEAL_DELAY_MILLIS = 1000;
+	private static final long ROUND_DELAY_MILLIS = 3000;
+
+	/**
+	 * the system property that sets how many seconds a player has to decide
+	 * (30 by default, or 0 to wait as long as they take), after which they
+	 * check if they can, and fold if they can't
+	 */
+	public static final String TURN_TIMEOUT_PROPERTY = "poker.turn.timeout";
+	private static final long TURN_TIMEOUT_MILLIS = 1000 * Long.parseLong(System
+			.getProperty(TURN_TIMEOUT_PROPERTY, "30"));
+
+	// the kinds of step the game is played in (see runStep())
+	private static final int START = 0;
+	private static final int BET = 1; // once the cards dealt have been shown
+	private static final int NEXT_ROUND = 2; // once the winners have been shown
+	private static final int TIME_OUT = 3; // when a player takes too long
+
+	/**
+	 * the system property that turns off the log of every message a table
+	 * sends ("false"), which costs more than the game itself once a server
+	 * has many tables
+	 */
+	public static final String LOG_PROPERTY = "poker.log";
+	private static final boolean LOG = !"false".equals(System
+			.getProperty(LOG_PROPERTY));
+
+	private int number;
+	private int numSeats;
+	private int startingChips;
+	private ScheduledExecutorService scheduler;
+	private TableListener listener;
+	private ShuffleSource shuffles;
+
+	/**
+	 * the step waiting to be run (i.e. once the cards have been shown), the
+	 * number of the last step scheduled, and whether the game is over
+	 */
+	private ScheduledFuture<?> timer;
+	private int numSteps;
+	private boolean over = false;
+	private int pot;
+	private int numFolded;
+	private int round;
+	private boolean onePlayerInRound = false;
+	private Deck deck;
+	private ArrayList<Card> tableCards; // contains the five table cards
+
+	// where the round and its betting are up to, between steps
+	private int stage;
+	private int currentBet;
+	private int currentPlayer;
+	private int amountToCall;
+	private int successfulActs;
+	private boolean bettingOver;
+	private boolean goAllTheWay;
+
+	/**
+	 * reused for every message the game sends, as each one is encoded as
+	 * soon as it is sent
+	 */
+	private Message message = new Message();
+
+	/**
+	 * the messages for every player since the last message for only one,
+	 * encoded once for all of them
+	 */
+	private SharedMessages shared = new SharedMessages();
+
+	/**
+	 * what everyone at the table can see, sent to newer clients as it
+	 * changes (instead of in INFO, PERSONALINFO and TABLE messages)
+	 */
+	private TableState tableState;
+
+	/**
+	 * the number of the last turn a player was asked to act in
+	 */
+	private int turns;
+
+	private ArrayList<PlayerHandler> players = new ArrayList<PlayerHandler>();
+
+	/**
+	 * Creates an empty table.
+	 * 
+	 * @param number
+	 *            The table's number on the server (i.e. for the log).
+	 * @param numSeats
+	 *            The number of players the game is played with.
+	 * @param startingChips
+	 *            The number of chips each player starts with.
+	 * @param scheduler
+	 *            Where the game's steps are run, shared with other tables.
+	 * @param listener
+	 *            What to tell once the game is over.
+	 * @param shuffles
+	 *            Where the deck's random numbers come from, used by no other
+	 *            table.
+	 */
+	public Table(int number, int numSeats, int startingChips,
+			ScheduledExecutorService scheduler, TableListener listener,
+			ShuffleSource shuffles) {
+		this.number = number;
+		this.numSeats = numSeats;
+		this.startingChips = startingChips;
+		this.scheduler = scheduler;
+		this.listener = listener;
+		this.shuffles = shuffles;
+	}
+
+	/**
+	 * Seats a player at the table. Only called before the table is started,
+	 * and never by two threads at once (the server seats players one at a
+	 * time).
+	 * 
+	 * @param connection
+	 *            The connection to the player's client.
+	 * @param name
+	 *            The name the player chose.
+	 * @return the player, to be told about the messages the client sends.
+	 */
+	public PlayerHandler seat(Connection connection, String name) {
+		PlayerHandler player = new PlayerHandler(connection, name,
+				startingChips);
+		players.add(player);
+		log(name + " has joined.");
+		return player;
+	}
+
+	/**
+	 * Gives up a player's seat, when they go away before the table is
+	 * started.
+	 * 
+	 * @param player
+	 *            The player.
+	 */
+	public void unseat(PlayerHandler player) {
+		players.remove(player);
+	}
+
+	/**
+	 * 
+	 * @return whether every seat has been taken, so the table can start.
+	 */
+	public boolean isFull() {
+		return players.size() == numSeats;
+	}
+
+	/**
+	 * 
+	 * @return the number of players seated.
+	 */
+	public int getNumPlayers() {
+		return players.size();
+	}
+
+	/**
+	 * 
+	 * @return the table's number on the server.
+	 */
+	public int getNumber() {
+		return number;
+	}
+
+	/**
+	 * Starts the game, once every seat is taken. The game is played one step
+	 * at a time on the scheduler's threads (see Step), until one player has
+	 * every chip, or until every player has gone (there is no one left to
+	 * play for).
+	 */
+	public synchronized void start() {
+		schedule(START, 0);
+	}
+
+	/**
+	 * Runs a step of the game, unless it has been cancelled (i.e. a turn
+	 * timing out after the player has acted) or the game is over. Steps of
+	 * the same table never run at once.
+	 * 
+	 * @param kind
+	 *            What the step does (i.e. BET).
+	 * @param number
+	 *            The step's number, which is the last one scheduled unless it
+	 *            has been cancelled.
+	 */
+	private synchronized void runStep(int kind, int number) {
+		if (over || number != numSteps) {
+			return;
+		}
+		try {
+			switch (kind) {
+			case START:
+				initializeGame();
+				startRound();
+				break;
+			case BET:
+				startBetting();
+				break;
+			case NEXT_ROUND:
+				endRound();
+				break;
+			case TIME_OUT:
+				timedOut();
+				break;
+			}
+		} catch (RuntimeException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Runs a step once a delay is over, in place of any step still waiting.
+	 * 
+	 * @param kind
+	 *            What the step does.
+	 * @param delayMillis
+	 *            How long to wait first.
+	 */
+	private void schedule(int kind, long delayMillis) {
+		cancelStep();
+		timer = scheduler.schedule(new Step(kind, numSteps), delayMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Cancels the step waiting to be run, if there is one.
+	 */
+	private void cancelStep() {
+		numSteps++;
+		if (timer != null) {
+			timer.cancel(false);
+			timer = null;
+		}
+	}
+
+	/**
+	 * Ends the game when a step goes wrong (i.e. a client sent a raise that
+	 * isn't a number), so the table is let go instead of waiting forever.
+	 */
+	private void failed(RuntimeException e) {
+		e.printStackTrace();
+		if (!over) {
+			endGame();
+		}
+	}
+
+	/**
+	 * Ends the game. The winner, if there is one, is sent WONGAME, everyone
+	 * else still at the table is disconnected, and the TableListener is told.
+	 */
+	private void endGame() {
+		over = true;
+		cancelStep();
+		if (players.size() == 1) {
+			players.get(0).setOutput(message.reset(Protocol.WONGAME));
+		} else {
+			for (PlayerHandler player : players) {
+				player.connection.close();
+			}
+		}
+		log("Game over.");
+		listener.tableFinished(this);
+	}
+
+	/**
+	 * 
+	 * @return whether any player's client is still connected.
+	 */
+	private boolean anyoneConnected() {
+		for (PlayerHandler player : players) {
+			if (player.connected) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Starts a round of Texas hold'em, reseting all variables, moving the
+	 * blinds and dealing each player their hand. The round then goes through
+	 * four stages, each representing a stage in the game: each stage
+	 * (excluding the first, where no cards are dealt) has a card(s) dealt
+	 * then a round of betting, before the next stage is reached. After the
+	 * four stages have passed, the winner is determined.
+	 */
+	private void startRound() {
+		// reset everything server side
+		round++;
+		pot = 0;
+		numFolded = 0;
+		deck.reset();
+		tableCards.clear();
+		onePlayerInRound = false;
+		// resets PlayerHandler private fields
+		for (PlayerHandler player : players) {
+			player.reset();
+		}
+
+		broadcastMsg("Round " + round, Protocol.MESSAGE);
+
+		for (PlayerHandler player : players) {
+			broadcastMsg(player.getPlayerName() + " has " + player.getChips()
+					+ " chips.", Protocol.MESSAGE);
+		}
+
+		// move big and small blinds, and account for them in the pot/player's
+		// amount betted
+		for (int i = 0; i < players.size(); i++) {
+			if (players.get(i).isBigBlind()) {
+				players.get(i).setBigBlind(false);
+				getNextPlayer(i).setBigBlind(true);
+				getNextPlayer(i).setOutput(message.reset(Protocol.BIGBLIND));
+				getNextPlayer(i).bet(BIG_BLIND);
+				pot += BIG_BLIND;
+
+				// that big blind is now small blind
+				players.get(i).setSmallBlind(true);
+				players.get(i).setOutput(message.reset(Protocol.SMALLBLIND));
+				players.get(i).bet(SMALL_BLIND);
+				pot += SMALL_BLIND;
+				getPreviousPlayer(i).setSmallBlind(false);
+
+				break;
+			}
+		}
+
+		// only the cards the round can deal need to be shuffled
+		deck.shuffle(2 * players.size() + 5);
+		// so the round can be replayed from its seed (and the key, if the
+		// source has one)
+		String key = shuffles.getKeyFingerprint();
+		log("Round " + round + " shuffled with seed " + deck.getSeed()
+				+ (key == null ? "" : " under key " + key));
+		dealHands();
+
+		// show players their hands (their two cards)
+		for (PlayerHandler player : players) {
+			player.lookAtHand();
+		}
+
+		stage = 0;
+		dealStage();
+	}
+
+	/**
+	 * Deals the cards of the stage, then waits for them to be shown (as there
+	 * is a delay for aesthetic purposes) before the betting starts.
+	 */
+	private void dealStage() {
+		if (stage == 1) {
+			// deal the flop (3 cards)
+			for (int i = 1; i <= 3; i++) {
+				Card dealtCard = deck.deal();
+				tableCards.add(dealtCard);
+				for (PlayerHandler player : players) {
+					player.addCard(dealtCard);
+				}
+
+			}
+		} else if (stage == 2 || stage == 3) {
+			// for the turn and river, only one card is dealt
+			Card dealtCard = deck.deal();
+			tableCards.add(dealtCard);
+			for (PlayerHandler player : players) {
+				player.addCard(dealtCard);
+			}
+
+		}
+
+		// update table for clients
+		for (int i = 0; i < tableCards.size(); i++) {
+			tableState.setBoardCard(i, tableCards.get(i).getIndex());
+		}
+		for (PlayerHandler player : players) {
+			player.lookAtTable(tableCards);
+		}
+
+		sendUpdates();
+		schedule(BET, DEAL_DELAY_MILLIS);
+	}
+
+	/**
+	 * Determines the winner of the round, once every stage has been played
+	 * (or everyone but one player has folded), and gives them the pot. The
+	 * round ends after a pause, to allow players to reflect/rejoice before
+	 * starting a new round.
+	 */
+	private void showdown() {
+		if (onePlayerInRound) {
+			// this means that everyone else folded. this player wins by
+			// default.
+			for (PlayerHandler player : players) {
+				if (!player.folded()) {
+					player.addChips(pot);
+					broadcastMsg(player.getPlayerName() + " wins " + pot
+							+ " chips!", Protocol.MESSAGE);
+					break;
+				}
+			}
+		} else {
+			// otherwise, the player with the best hand has to be determined
+			for (PlayerHandler player : players) {
+				player.calculateBestPokerHand();
+				player.setOutput(message.reset(Protocol.MESSAGE).appendText(
+						"You have a " + player.getPokerHand()));
+			}
+
+			ArrayList<PlayerHandler> winners = getWinners();
+
+			// one winner, gets the whole pot
+			if (winners.size() == 1) {
+				winners.get(0).addChips(pot);
+				broadcastMsg(winners.get(0).getPlayerName() + " wins with "
+						+ winners.get(0).getPokerHand() + ". "
+						+ winners.get(0).getPlayerName() + " wins " + pot
+						+ " chips!", Protocol.WINNER);
+			} else {
+				// otherwise, split the pot between winners
+				String tiedMessage = "";
+				for (PlayerHandler winner : winners) {
+					winner.addChips(pot / winners.size());
+					tiedMessage += winner.getPlayerName() + " and ";
+				}
+
+				// to remove the last " and "
+				tiedMessage = tiedMessage
+						.substring(0, tiedMessage.length() - 6);
+				broadcastMsg(tiedMessage + " tied with "
+						+ winners.get(0).getPokerHand() + ". "
+						+ "They each win " + pot / winners.size() + " chips!",
+						Protocol.WINNER);
+			}
+		}
+
+		broadcastMsg("Preparing for next round...", Protocol.MESSAGE);
+		sendUpdates();
+		schedule(NEXT_ROUND, ROUND_DELAY_MILLIS);
+	}
+
+	/**
+	 * Ends the round, removes the players who have no chips left, and starts
+	 * the next round, or ends the game if there is no one left to play.
+	 */
+	private void endRound() {
+		// tell each client to clean up their interface for next round
+		broadcastMsg(message.reset(Protocol.ENDROUND));
+		for (int i = 0; i < TableState.BOARD_SIZE; i++) {
+			tableState.setBoardCard(i, -1);
+		}
+		tableState.setToAct(-1);
+		sendUpdates();
+
+		// remove player from the list of clients if they have no chips
+		for (int j = 0; j < players.size(); j++) {
+			if (players.get(j).getChips() == 0) {
+				players.get(j).setOutput(message.reset(Protocol.OUT));
+				players.remove(j);
+				j--;
+			}
+		}
+
+		if (players.size() > 1 && anyoneConnected()) {
+			startRound();
+		} else {
+			endGame();
+		}
+	}
+
+	/**
+	 * This method writes a message to all clients. The message is encoded
+	 * once for all of them, and isn't written until sendUpdates() is called,
+	 * along with everything else the clients are told about the same event.
+	 * 
+	 * @param msg
+	 *            The message to be sent.
+	 */
+	public void broadcastMsg(Message msg) {
+		shared.add(msg);
+		log(msg);
+	}
+
+	/**
+	 * Writes every message sent since the last time this was called, in one
+	 * write for each client. Each client's messages are written by the
+	 * server's own threads, so this never waits for them to be written. It
+	 * is called whenever the game is about to wait (i.e. for a player to
+	 * act), so the clients are never left waiting for an update.
+	 */
+	public void sendUpdates() {
+		broadcastState();
+		queueShared();
+		for (PlayerHandler player : players) {
+			if (player.needsSnapshot) {
+				// as of the DELTA just sent, so the next one follows on
+				player.needsSnapshot = false;
+				tableState.toSnapshot(message);
+				player.connection.queue(message);
+			}
+			player.connection.flush();
+		}
+	}
+
+	/**
+	 * Sends whatever has changed on the table since it was last sent, to the
+	 * clients that are sent the table as a TableState.
+	 */
+	private void broadcastState() {
+		if (tableState != null && tableState.toDelta(message)) {
+			broadcastMsg(message);
+		}
+	}
+
+	/**
+	 * Tells every client who is to act, the pot and the current bet, and each
+	 * client their chips and the amount they have to call.
+	 * 
+	 * @param toAct
+	 *            The player to act.
+	 * @param currentBet
+	 *            The current bet of the betting round.
+	 */
+	private void sendBettingInfo(PlayerHandler toAct, int currentBet) {
+		broadcastMsg(message.reset(Protocol.INFO)
+				.appendText(toAct.getPlayerName()).addNumber(pot)
+				.addNumber(currentBet));
+
+		tableState.set(TableState.POT, pot);
+		tableState.set(TableState.CURRENT_BET, currentBet);
+		tableState.setToAct(toAct.getSeat());
+		for (PlayerHandler player : players) {
+			tableState.set(TableState.chips(player.getSeat()),
+					player.getChips());
+			tableState.set(TableState.betted(player.getSeat()),
+					player.getAmountBettedInRound());
+		}
+		broadcastState();
+
+		for (PlayerHandler player : players) {
+			player.setOutput(message.reset(Protocol.PERSONALINFO)
+					.addNumber(player.getChips())
+					.addNumber(player.amountToCall(currentBet)));
+		}
+	}
+
+	/**
+	 * Queues the messages for every player, before a message for only one of
+	 * them, so each client gets its messages in the order they were sent.
+	 */
+	private void queueShared() {
+		if (!shared.isEmpty()) {
+			for (PlayerHandler player : players) {
+				player.connection.queue(shared);
+			}
+			shared.clear();
+		}
+	}
+
+	/**
+	 * This method writes a message with only text to all clients.
+	 * 
+	 * @param msg
+	 *            The text to be sent.
+	 * @param type
+	 *            The type of message (i.e. whether it be a message for all
+	 *            players, or the winner of the round)
+	 */
+	public void broadcastMsg(String msg, int type) {
+		broadcastMsg(message.reset(type).appendText(msg));
+	}
+
+	/**
+	 * This determines the winner of the round by ranking the hands of the
+	 * players who haven't folded.
+	 * 
+	 * @return the list of winners for the round (can be more than 1 winner).
+	 */
+	public ArrayList<PlayerHandler> getWinners() {
+		// players are referred to by their seat, so the list of players
+		// doesn't need to be copied or sorted
+		int[] strengths = new int[players.size()];
+		boolean[] inShowdown = new boolean[players.size()];
+		for (int seat = 0; seat < players.size(); seat++) {
+			strengths[seat] = players.get(seat).getHandStrength();
+			inShowdown[seat] = !players.get(seat).folded();
+		}
+
+		ArrayList<PlayerHandler> listOfWinners = new ArrayList<PlayerHandler>();
+		for (int seat : new Showdown(strengths, inShowdown).getWinners()) {
+			listOfWinners.add(players.get(seat));
+		}
+		return listOfWinners;
+	}
+
+	/**
+	 * This method starts the betting of each stage. Betting continues until
+	 * 1. if it is the first stage, everyone calls the blind 2. everyone checks
+	 * 3. everyone has called the latest raise 4. everyone folds except one
+	 * person. The stage of the game affects how betting is run (i.e. before
+	 * game starts, big blind acts last, but afterwards, big blind always acts
+	 * second)
+	 */
+	private void startBetting() {
+
+		// first position is the first person to act each round
+		int firstPosition = 0;
+		if (stage == 0) { // before cards are laid down, first position is the
+							// one after big blind. the minimum bet is the big
+							// blind.
+			currentBet = BIG_BLIND;
+			for (int i = 0; i < players.size(); i++) {
+				if (getPreviousPlayer(i).isBigBlind()) {
+					firstPosition = i;
+					break;
+				}
+			}
+		} else { // for the rest of the game, first to act is the first player,
+					// starting from the small blind, who has not folded
+			currentBet = 0;
+			for (int i = 0; i < players.size(); i++) {
+				if (players.get(i).isSmallBlind()) {
+					firstPosition = i;
+					break;
+				}
+			}
+		}
+
+		bettingOver = false;
+		currentPlayer = firstPosition;
+		goAllTheWay = false;
+		successfulActs = 0; // if playerSize() - numFolded == successfulActs,
+		// all players in the game have acted.
+
+		continueBetting();
+	}
+
+	/**
+	 * Goes round the table until a player has to make a decision, and asks
+	 * them for it, or until the betting is over.
+	 */
+	private void continueBetting() {
+		do {
+
+			if (!players.get(currentPlayer).folded()) {
+				// check if one person is playing against all-ined players
+				// if that's the case, just lay all the cards down
+				// this is done by counting each player's move as a
+				// "successful act"
+				// despite them not doing anything (b/c they can't)
+
+				// go all the way determines if all the cards can be laid down
+				// or not. this occurs when no one else can act (or only one
+				// person can act, which would be pointless)
+
+				int playersToAct = players.size();
+				int lastPlayerToAct = 0; // the player who has to act if
+											// everyone else folded or all-ined
+
+				for (int i = 0; i < players.size(); i++) {
+					if (players.get(i).allIned() || players.get(i).folded()) {
+						playersToAct--;
+					} else {
+						lastPlayerToAct = i;
+					}
+				}
+
+				// this means that everyone all-ined/folded except for one
+				if (playersToAct == 1) {
+					// if the last player acted, then all the cards can be laid
+					// down (no decisions left to make)
+					if (players.get(lastPlayerToAct).acted()) {
+						goAllTheWay = true;
+					} else { // otherwise, wait until that player has acted
+								// (then lay down all the cards)
+						goAllTheWay = false;
+					}
+				}
+
+				// if the person can act
+				if (!players.get(currentPlayer).allIned && !goAllTheWay) {
+
+					amountToCall = players.get(currentPlayer).amountToCall(
+							currentBet);
+
+					// update clients with the current pot and person to act,
+					// and each client with the amount they need to call and
+					// their chips
+					sendBettingInfo(players.get(currentPlayer), currentBet);
+
+					// prompt the current player to make a decision, and wait
+					// until it has been received (or the turn times out)
+					players.get(currentPlayer).promptAction();
+					sendUpdates();
+					if (TURN_TIMEOUT_MILLIS > 0) {
+						schedule(TIME_OUT, TURN_TIMEOUT_MILLIS);
+					}
+					return;
+
+				} else { // this means that the player cannot act. count it as a
+							// succesful act, and move to the next player
+					successfulActs++;
+				}
+
+			}
+
+		} while (nextPlayer());
+
+		endBetting();
+	}
+
+	/**
+	 * Called (by the scheduler) with the current player's decision, once it
+	 * has been taken from them (see PlayerHandler.take()).
+	 * 
+	 * @param playerAction
+	 *            The decision (i.e. "raise 20").
+	 */
+	private synchronized void actionReceived(String playerAction) {
+		if (over) {
+			return;
+		}
+		try {
+			// the turn is over, so it can't time out
+			cancelStep();
+			playerActed(playerAction);
+		} catch (RuntimeException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * Called when the current player has taken too long to decide. They
+	 * check if they can, and fold if they can't.
+	 */
+	private void timedOut() {
+		PlayerHandler player = players.get(currentPlayer);
+		if (player.take(player.turn)) {
+			log(player.getPlayerName() + " took too long to act");
+			playerActed(amountToCall == 0 ? "check" : "fold");
+		}
+	}
+
+	/**
+	 * Carries out the current player's decision, then goes on with the
+	 * betting.
+	 * 
+	 * @param playerAction
+	 *            The decision (i.e. "raise 20").
+	 */
+	private void playerActed(String playerAction) {
+		// player has the option to check, raise, or fold
+		if (amountToCall == 0) {
+			if (playerAction.equals("check")) {
+				successfulActs++;
+				broadcastMsg(message.reset(Protocol.CHECK)
+						.appendText(players.get(currentPlayer)
+								.getPlayerName()));
+				players.get(currentPlayer).act();
+			} else if (playerAction.startsWith("raise")) {
+				int raisedAmount = Integer.parseInt(playerAction
+						.substring(6));
+				// a raise is a call of the current bet, then a
+				// raise on top
+				players.get(currentPlayer).call(currentBet);
+				pot += amountToCall;
+				players.get(currentPlayer).raise(raisedAmount);
+				pot += raisedAmount;
+				successfulActs = 1; // resets the successful act
+									// count b/c everyone needs to
+									// decide if they want to call
+									// the new raise, or fold
+				currentBet += raisedAmount;
+
+				if (players.get(currentPlayer).getChips() == 0) {
+					// in the case that they raise and it's an
+					// all-in
+					players.get(currentPlayer).allIn();
+					broadcastMsg(message.reset(Protocol.ALLIN)
+							.appendText(players.get(currentPlayer)
+									.getPlayerName())
+							.addNumber(raisedAmount).addNumber(0));
+
+				} else {
+					broadcastMsg(message.reset(Protocol.RAISE)
+							.appendText(players.get(currentPlayer)
+									.getPlayerName())
+							.addNumber(raisedAmount));
+
+				}
+
+			} else if (playerAction.equals("fold")) {
+				players.get(currentPlayer).fold();
+				numFolded++;
+
+				broadcastMsg(message.reset(Protocol.FOLD)
+						.appendText(players.get(currentPlayer)
+								.getPlayerName()));
+
+				// tells player to turn over his cards
+				players.get(currentPlayer).setOutput(
+						message.reset(Protocol.FOLDED));
+			}
+			// player has the option to call, raise, or fold
+		} else if (amountToCall > 0) {
+
+			if (playerAction.equals("call")) {
+				successfulActs++;
+				int chipsBeforeCalling = players.get(currentPlayer)
+						.getChips();
+				players.get(currentPlayer).call(currentBet);
+
+				// if they go all-in by calling
+				if (players.get(currentPlayer).getChips() == 0) {
+					pot += chipsBeforeCalling;
+					broadcastMsg(message.reset(Protocol.ALLIN)
+							.appendText(players.get(currentPlayer)
+									.getPlayerName())
+							.addNumber(chipsBeforeCalling)
+							.addNumber(1));
+					players.get(currentPlayer).allIn();
+
+				} else {
+					pot += amountToCall;
+					broadcastMsg(message.reset(Protocol.CALL)
+							.appendText(players.get(currentPlayer)
+									.getPlayerName()));
+
+				}
+
+			} else if (playerAction.equals("fold")) {
+				players.get(currentPlayer).fold();
+				numFolded++;
+				broadcastMsg(message.reset(Protocol.FOLD)
+						.appendText(players.get(currentPlayer)
+								.getPlayerName()));
+
+				// tells player to turn over his cards
+				players.get(currentPlayer).setOutput(
+						message.reset(Protocol.FOLDED));
+
+			} else if (playerAction.startsWith("raise")) {
+				int raisedAmount = Integer.parseInt(playerAction
+						.substring(6));
+				players.get(currentPlayer).call(currentBet);
+				pot += amountToCall;
+				players.get(currentPlayer).raise(raisedAmount);
+				pot += raisedAmount;
+				successfulActs = 1;
+				currentBet += raisedAmount;
+
+				if (players.get(currentPlayer).getChips() == 0) {
+					players.get(currentPlayer).allIn();
+					broadcastMsg(message.reset(Protocol.ALLIN)
+							.appendText(players.get(currentPlayer)
+									.getPlayerName())
+							.addNumber(raisedAmount).addNumber(0));
+
+				} else {
+					broadcastMsg(message.reset(Protocol.RAISE)
+							.appendText(players.get(currentPlayer)
+									.getPlayerName())
+							.addNumber(raisedAmount));
+
+				}
+
+			}
+
+		}
+
+		// reupdate player clients with new information
+		amountToCall = players.get(currentPlayer).amountToCall(
+				currentBet);
+
+		sendBettingInfo(players.get(currentPlayer), currentBet);
+
+		if (nextPlayer()) {
+			continueBetting();
+		} else {
+			endBetting();
+		}
+	}
+
+	/**
+	 * Moves on to the next player who hasn't folded, unless everyone has
+	 * acted.
+	 * 
+	 * @return whether the betting goes on.
+	 */
+	private boolean nextPlayer() {
+		// this means that everyone who hasn't folded has acted
+		if (players.size() - numFolded == successfulActs) {
+			bettingOver = true;
+		} else { // otherwise, move to next player (who hasn't folded)
+			boolean isActivePlayer = false;
+
+			while (!isActivePlayer) {
+				if (currentPlayer == players.size() - 1) {
+					currentPlayer = 0;
+				} else {
+					currentPlayer++;
+				}
+
+				if (!players.get(currentPlayer).folded()) {
+					isActivePlayer = true;
+				}
+
+			}
+		}
+
+		if (players.size() - numFolded == 1) {
+			onePlayerInRound = true;
+			return false;
+		}
+		return !bettingOver;
+
+	}
+
+	/**
+	 * Ends the betting of the stage, then deals the next stage, or ends the
+	 * round if that was the last stage (or one player is left in the round).
+	 */
+	private void endBetting() {
+		// at the end of betting, reset the amount betted in round
+		// for each player, for the next betting round
+		for (PlayerHandler player : players) {
+			player.resetAmountBettedInRound();
+		}
+
+		// if one player is left in the round, stop betting process
+		if (onePlayerInRound || stage == 3) {
+			showdown();
+		} else {
+			stage++;
+			dealStage();
+		}
+	}
+
+	/**
+	 * Deals two cards to each player
+	 */
+	public void dealHands() {
+		for (int c = 1; c <= 2; c++) {
+			for (PlayerHandler player : players) {
+				player.addCard(deck.deal());
+			}
+		}
+	}
+
+	/**
+	 * Gets next player in turn (used for when calculating next player at last
+	 * PlayerHandler in arraylist
+	 * 
+	 * @param i
+	 *            The index of the current player.
+	 * @return the next player.
+	 */
+	public PlayerHandler getNextPlayer(int i) {
+		if (i == players.size() - 1) {
+			return players.get(0);
+		} else {
+			return players.get(i + 1);
+		}
+	}
+
+	/**
+	 * Gets previous player (used for when calculating previous player for first
+	 * player in arraylist)
+	 * 
+	 * @param i
+	 *            The index of the current player.
+	 * @return the previous player.
+	 */
+	public PlayerHandler getPreviousPlayer(int i) {
+		if (i == 0) {
+			return players.get(players.size() - 1);
+		} else {
+			return players.get(i - 1);
+		}
+	}
+
+	/**
+	 * Initializes the deck and table, and sets blinds.
+	 */
+	public void initializeGame() {
+
+		deck = new Deck(shuffles);
+		tableCards = new ArrayList<Card>();
+
+		players.get(1).setBigBlind(true);
+		players.get(0).setSmallBlind(true);
+
+		// players keep their seat at the table, even once others are out
+		String[] names = new String[players.size()];
+		for (int seat = 0; seat < players.size(); seat++) {
+			names[seat] = players.get(seat).getPlayerName();
+			players.get(seat).setSeat(seat);
+		}
+		tableState = new TableState(names);
+		for (PlayerHandler player : players) {
+			tableState.set(TableState.chips(player.getSeat()),
+					player.getChips());
+			player.needsSnapshot = true;
+		}
+
+		log("Game has been initialized.");
+	}
+
+	/**
+	 * Prints a line to the server's log, with the table's number, unless the
+	 * log has been turned off (see LOG_PROPERTY).
+	 * 
+	 * @param line
+	 *            What to print (only turned into a String if it is printed).
+	 */
+	private void log(Object line) {
+		if (LOG) {
+			System.out.println("[" + number + "] " + line);
+		}
+	}
+
+	/**
+	 * <h1>Step</h1>
+	 * <p>
+	 * A step of the game, waiting to be run by the scheduler.
+	 * </p>
+	 */
+	private class Step implements Runnable {
+		private int kind;
+		private int number;
+
+		public Step(int kind, int number) {
+			this.kind = kind;
+			this.number = number;
+		}
+
+		@Override
+		public void run() {
+			runStep(kind, number);
+		}
+	}
+
+	/**
+	 * <h1>PlayerHandler</h1>
+	 * <p>
+	 * The PlayerHandler class represents both the player in the game (i.e.
+	 * contains their chips, whether or not they folded), as well as the Handler
+	 * for the actual client they are connected to (i.e. handles communication
+	 * between the server and client programs, through their Connection).
+	 * Each one belongs to the table the player is seated at.
+	 * </p>
+	 */
+	class PlayerHandler {
+		private String name;
+		private Connection connection;
+		private boolean acted = false;
+		private boolean folded = false;
+		private boolean allIned = false;
+		private boolean smallBlind = false;
+		private boolean bigBlind = false;
+		private int chips;
+		private int amountBettedInRound;
+		private PokerHand bestPokerHand;
+		private HandState hand = new HandState();
+		private volatile boolean awaitingAction = false;
+		private volatile boolean connected = true;
+		private int seat;
+
+		/**
+		 * the number of the turn the player was last asked to act in, which
+		 * an ACT has to be for to be taken
+		 */
+		private volatile int turn;
+
+		/**
+		 * the amount the player had to call when they were asked to act, and
+		 * the most they could raise by, which an ACT is checked against
+		 */
+		private int turnAmountToCall;
+		private int turnMaxRaise;
+
+		/**
+		 * reused for every ACK, which is only sent from the thread reading
+		 * the client's messages
+		 */
+		private Message ack = new Message();
+
+		/**
+		 * set when the client needs a SNAPSHOT of the table (when the game
+		 * starts, or when it has missed a DELTA), which it is sent with the
+		 * next sendUpdates()
+		 */
+		private volatile boolean needsSnapshot = false;
+
+		/**
+		 * PlayerHandler constructor, created everytime a client chooses a name
+		 * that isn't taken.
+		 * 
+		 * @param connection
+		 *            The connection to the client.
+		 * @param name
+		 *            The name the player chose.
+		 * @param chips
+		 *            The number of chips the player starts with.
+		 */
+		public PlayerHandler(Connection connection, String name, int chips) {
+			this.connection = connection;
+			this.name = name;
+			this.chips = chips;
+		}
+
+		/**
+		 * Resets variables, to refresh for the next round.
+		 */
+		public void reset() {
+			allIned = false;
+			folded = false;
+			hand.reset();
+			bestPokerHand = null;
+		}
+
+		/**
+		 * Called with each message the client sends. The "ACTION" msg prompts
+		 * the player for a response, so the first line after it that is a
+		 * decision they can make is taken (they are sent ACTION again after
+		 * any other line); anything else they send is ignored, except
+		 * RESYNC, which asks for a new SNAPSHOT of the table. Newer clients
+		 * send their decision as an ACT instead, which is answered with an
+		 * ACK straight away, and only taken if it is for the turn the player
+		 * is being asked to act in (so one sent twice, or too late, is
+		 * turned down without the game ever seeing it) and is a decision
+		 * they can make.
+		 * 
+		 * @param message
+		 *            The message sent by the client.
+		 */
+		public void messageReceived(Message message) {
+			if (message.getType() == Protocol.RESYNC) {
+				needsSnapshot = true;
+			} else if (message.getType() == Protocol.ACT) {
+				String action = take(message);
+				boolean taken = action != null;
+				if (taken) {
+					log("Returned from " + name + ": " + action);
+					decide(action);
+				}
+				connection.send(ack.reset(Protocol.ACK)
+						.addNumber(message.getNumber(0))
+						.addNumber(taken ? 1 : 0));
+			} else if (awaitingAction) {
+				String line = message.getText();
+				log("Returned from " + name + ": " + line);
+				String action = take(line);
+				if (action != null) {
+					decide(action);
+				} else if (awaitingAction) {
+					// not a decision they can make, so they are asked again
+					connection.send(ack.reset(Protocol.ACTION));
+				}
+			}
+		}
+
+		/**
+		 * Takes the player's decision for a turn, if it is the turn they are
+		 * being asked to act in and they haven't decided yet. A decision can
+		 * arrive from the client, or be made for them when they go away or
+		 * take too long, so this makes sure only one of them counts.
+		 * 
+		 * @param turn
+		 *            The turn the decision is for.
+		 * @return whether the decision was taken.
+		 */
+		public synchronized boolean take(int turn) {
+			if (!awaitingAction || turn != this.turn) {
+				return false;
+			}
+			awaitingAction = false;
+			return true;
+		}
+
+		/**
+		 * Takes the decision in an ACT (see take(int, int, int)).
+		 * 
+		 * @param message
+		 *            The ACT.
+		 * @return the decision (i.e. "raise 20"), or null if it wasn't
+		 *         taken.
+		 */
+		private String take(Message message) {
+			return take(message.getNumber(0), message.getNumber(1),
+					message.getNumber(2));
+		}
+
+		/**
+		 * Takes the decision in a line from a text client ("check", "call",
+		 * "fold" or "raise" and an amount) for the current turn (see
+		 * take(int, int, int)).
+		 * 
+		 * @param line
+		 *            The line.
+		 * @return the decision, or null if it wasn't taken (i.e. the line
+		 *         isn't a decision at all).
+		 */
+		private String take(String line) {
+			String[] words = line.trim().split("\\s+");
+			int decision = -1;
+			int amount = 0;
+			if (words.length == 1 && words[0].equals("check")) {
+				decision = Protocol.CHECK;
+			} else if (words.length == 1 && words[0].equals("call")) {
+				decision = Protocol.CALL;
+			} else if (words.length == 1 && words[0].equals("fold")) {
+				decision = Protocol.FOLD;
+			} else if (words.length == 2 && words[0].equals("raise")) {
+				try {
+					amount = Integer.parseInt(words[1]);
+					decision = Protocol.RAISE;
+				} catch (NumberFormatException e) {
+					// not an amount
+				}
+			}
+			return take(turn, decision, amount);
+		}
+
+		/**
+		 * Takes a decision from the client (see take(int)), if it is one the
+		 * player can make in the turn. Every decision the client sends comes
+		 * through here, so the game only ever carries out ones it can. A
+		 * player can only check if there is nothing to call, only call if
+		 * there is, and only raise by more than nothing and no more than the
+		 * chips they have left once they have called. A decision they can't
+		 * make isn't taken, and they can still decide.
+		 * 
+		 * @param turn
+		 *            The turn the decision is for.
+		 * @param decision
+		 *            CHECK, CALL, FOLD or RAISE.
+		 * @param amount
+		 *            The amount raised by.
+		 * @return the decision as the table carries it out (i.e. "raise
+		 *         20"), or null if it wasn't taken.
+		 */
+		private synchronized String take(int turn, int decision, int amount) {
+			if (!awaitingAction || turn != this.turn) {
+				return null;
+			}
+			String action;
+			switch (decision) {
+			case Protocol.CHECK:
+				action = turnAmountToCall == 0 ? "check" : null;
+				break;
+			case Protocol.CALL:
+				action = turnAmountToCall > 0 ? "call" : null;
+				break;
+			case Protocol.FOLD:
+				action = "fold";
+				break;
+			case Protocol.RAISE:
+				action = amount > 0 && amount <= turnMaxRaise ? "raise "
+						+ amount : null;
+				break;
+			default:
+				action = null;
+			}
+			if (action != null) {
+				awaitingAction = false;
+			}
+			return action;
+		}
+
+		/**
+		 * Hands a decision that has been taken to the scheduler, to be
+		 * carried out by the table.
+		 * 
+		 * @param action
+		 *            The decision (i.e. "raise 20").
+		 */
+		private void decide(final String action) {
+			scheduler.execute(new Runnable() {
+				@Override
+				public void run() {
+					actionReceived(action);
+				}
+			});
+		}
+
+		/**
+		 * Called when the client goes away. The player can't make any more
+		 * decisions, so they fold, straight away if it is their turn.
+		 */
+		public void disconnected() {
+			connected = false;
+			if (take(turn)) {
+				decide("fold");
+			}
+		}
+
+		/**
+		 * 
+		 * @return whether or not the player all-ined.
+		 */
+		public boolean allIned() {
+			return allIned;
+		}
+
+		/**
+		 * Sets the player to be all in
+		 */
+		public void allIn() {
+			allIned = true;
+		}
+
+		/**
+		 * Used to update information and prompt for responses from the
+		 * client. The message is written with the next sendUpdates().
+		 * 
+		 * @param outputMsg
+		 *            The message to be sent to the corresponding client
+		 */
+		public void setOutput(Message outputMsg) {
+			int type = outputMsg.getType();
+			queueShared();
+			connection.queue(outputMsg);
+			log(outputMsg);
+			if (type == Protocol.OUT || type == Protocol.WONGAME) {
+				connection.close();
+			}
+		}
+
+		/**
+		 * Prompts the player for a decision in a new turn, which is handed to
+		 * the table once it arrives. Older clients are sent ACTION, and newer
+		 * ones TURN, with the number of the turn.
+		 */
+		public void promptAction() {
+			synchronized (this) {
+				turnAmountToCall = amountToCall;
+				turnMaxRaise = chips - amountToCall;
+				turn = ++turns;
+				awaitingAction = true;
+			}
+			setOutput(message.reset(Protocol.ACTION));
+			setOutput(message.reset(Protocol.TURN).addNumber(turn));
+			if (!connected && take(turn)) {
+				decide("fold");
+			}
+		}
+
+		/**
+		 * Used to calculate what the player can do, and how much they subtract
+		 * from their chips if they call/raise
+		 * 
+		 * @param currentBet
+		 *            The current bet of the betting round.
+		 * @return the amount required to call the current bet.
+		 */
+		public int amountToCall(int currentBet) {
+			return currentBet - amountBettedInRound;
+		}
+
+		/**
+		 * Adds dealt cards to the PlayerHandler. The strength of the player's
+		 * hand is updated as each card arrives, so it is known at every stage
+		 * of the round.
+		 * 
+		 * @param card
+		 *            The card dealt.
+		 */
+		public void addCard(Card card) {
+			hand.addCard(card);
+		}
+
+		/**
+		 * Used to increment a player's chips if they win a round.
+		 * 
+		 * @param chips
+		 *            Amount of chips won.
+		 */
+		public void addChips(int chips) {
+			this.chips += chips;
+		}
+
+		/**
+		 * Used in the scenario that all players have folded/all-ined except for
+		 * one. This is used to determine whether or not that player has acted
+		 * yet. if they did, then all the cards are dealt. If not, that will
+		 * occur after the player acts.
+		 * 
+		 * @return whether or not the player acted.
+		 */
+		public boolean acted() {
+			return acted;
+		}
+
+		/**
+		 * Used for the big blind and small blind, who have to bet a certain
+		 * amount at the beginning of each round
+		 * 
+		 * @param amount
+		 *            The amount the player needs to put in.
+		 */
+		public void bet(int amount) {
+			chips -= amount;
+			amountBettedInRound += amount;
+		}
+
+		/**
+		 * Used when a player raises the current bet.
+		 * 
+		 * @param newBet
+		 *            The raised amount.
+		 */
+		public void raise(int newBet) {
+
+			if (chips - newBet > 0) { // have enough to raise
+				chips -= newBet;
+				amountBettedInRound += newBet;
+			} else { // all in
+				amountBettedInRound += chips;
+				chips = 0;
+			}
+
+			for (PlayerHandler player : players) {
+				player.resetAct();
+			}
+
+			acted = true;
+
+		}
+
+		/**
+		 * Used when the player calls (matches the current bet).
+		 * 
+		 * @param currentBet
+		 *            The amount needed to call.
+		 */
+		public void call(int currentBet) {
+			// if enough chips to call
+			log("Chips " + chips);
+			log("current bet: " + currentBet);
+			log("amount betted :" + amountBettedInRound);
+			if (chips > currentBet - amountBettedInRound) {
+				chips -= (currentBet - amountBettedInRound);
+				amountBettedInRound = currentBet;
+			} else { // else, all in
+				amountBettedInRound += chips;
+				chips = 0;
+			}
+
+			acted = true;
+		}
+
+		/**
+		 * Folds the player for the round.
+		 */
+		public void fold() {
+			folded = true;
+		}
+
+		/**
+		 * Used when determining if the player needs to act or not (i.e. folded
+		 * player can't bet, so skip their betting turn)
+		 * 
+		 * @return whether or not the player folded.
+		 */
+		public boolean folded() {
+			return folded;
+		}
+
+		/**
+		 * Used after someone acts (calls, folds, raises, checks).
+		 */
+		public void act() {
+			acted = true;
+		}
+
+		/**
+		 * Used after someone raises. Everyone has to act again.
+		 */
+		public void resetAct() {
+			acted = false;
+		}
+
+		/**
+		 * Used after every betting round, setting the amount each player bet in
+		 * the round to 0 for the next betting round (b/c the current bet starts
+		 * at 0 again)
+		 */
+		public void resetAmountBettedInRound() {
+			amountBettedInRound = 0;
+		}
+
+		/**
+		 * This is used to determine how much the player has to bet (0, small
+		 * blind, big blind), as well as the position of betting (i.e. small
+		 * blind starts first for all rounds except for the first)
+		 * 
+		 * @return whether or not the player is the small blind.
+		 */
+		public boolean isSmallBlind() {
+			return smallBlind;
+		}
+
+		/**
+		 * This is used to determine how much the player has to bet (0, small
+		 * blind, big blind), as well as the position of betting (i.e. big blind
+		 * acts last in first round, but acts second in the rest).
+		 * 
+		 * @return whether or not the player is the big blind.
+		 */
+		public boolean isBigBlind() {
+			return bigBlind;
+		}
+
+		/**
+		 * Gives the player their seat at the table, once the game starts.
+		 * 
+		 * @param seat
+		 *            The seat (their position in the list of players).
+		 */
+		public void setSeat(int seat) {
+			this.seat = seat;
+		}
+
+		/**
+		 * 
+		 * @return the player's seat at the table.
+		 */
+		public int getSeat() {
+			return seat;
+		}
+
+		/**
+		 * Sets or unsets the player as small blind.
+		 * 
+		 * @param isSmallBlind
+		 *            Whether or not the player is small blind.
+		 */
+		public void setSmallBlind(boolean isSmallBlind) {
+			smallBlind = isSmallBlind;
+		}
+
+		/**
+		 * Sets or unsets the player as big blind.
+		 * 
+		 * @param isBigBlind
+		 *            Whether or not the player is big blind.
+		 */
+		public void setBigBlind(boolean isBigBlind) {
+			bigBlind = isBigBlind;
+		}
+
+		/**
+		 * Sends a message to the client, sending their hand and a prompt
+		 * message (which prompts the client to display the graphics for each
+		 * card).
+		 */
+		public void lookAtHand() {
+			CardSet cards = hand.getCards();
+			message.reset(Protocol.HAND);
+			for (int card = cards.nextCard(0); card >= 0; card = cards
+					.nextCard(card + 1)) {
+				message.addCard(card);
+			}
+			setOutput(message);
+		}
+
+		/**
+		 * Sends a message to the client, sending the table cards and a prompt
+		 * message (which prompts the client to display the graphics for each
+		 * card on the table).
+		 * 
+		 * @param table
+		 *            The list of cards on the table.
+		 */
+		public void lookAtTable(ArrayList<Card> table) {
+			message.reset(Protocol.TABLE).addNumber(table.size());
+			if (table.size() == 3) {
+				for (Card card : table) {
+					message.addCard(card.getIndex());
+				}
+				setOutput(message);
+			} else if (table.size() == 4 || table.size() == 5) {
+				// only the card just dealt
+				message.addCard(table.get(table.size() - 1).getIndex());
+				setOutput(message);
+			}
+		}
+
+		/**
+		 * Used to determine whether or not a player is out (i.e. 0 chips) and
+		 * if the player went all in (i.e. if they raised/called and they have 0
+		 * chips left)
+		 * 
+		 * @return the player's current chips.
+		 */
+		public int getChips() {
+			return chips;
+		}
+
+		/**
+		 * 
+		 * @return how much the player has bet in the current betting round.
+		 */
+		public int getAmountBettedInRound() {
+			return amountBettedInRound;
+		}
+
+		/**
+		 * Calculates the best pokerhand out of all combinations of the player's
+		 * available cards (i.e. those in his hand and those on the table).
+		 */
+		public void calculateBestPokerHand() {
+			bestPokerHand = new PokerHand(hand.getStrength());
+		}
+
+		/**
+		 * Used to get the strength of the player's best pokerhand with the
+		 * cards dealt so far (i.e. to show a player their hand before the
+		 * river).
+		 * 
+		 * @return the current strength of the player's hand.
+		 */
+		public int getHandStrength() {
+			return hand.getStrength();
+		}
+
+		/**
+		 * Used to get the value of the player's hand.
+		 * 
+		 * @return their best pokerhand out of all the possible pokerhands.
+		 */
+		public PokerHand getPokerHand() {
+			return bestPokerHand;
+		}
+
+		/**
+		 * Used for sending broadcast messages (i.e. "____" calls).
+		 * 
+		 * @return the player's name.
+		 */
+		public String getPlayerName() {
+			return name;
+		}
+
+		/**
+		 * 
+		 * @return the table the player is seated at.
+		 */
+		public Table getTable() {
+			return Table.this;
+		}
+	}
+}
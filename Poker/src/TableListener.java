@@ -0,0 +1,22 @@
+/**
+ * <h1>TableListener</h1>
+ * <p>
+ * Is told when a table's game is over, so whatever started the table (i.e.
+ * PokerServer) can let it go.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public interface TableListener {
+
+	/**
+	 * Called once a table's game is over, on the thread that ran its last
+	 * step, with the table's lock held. Every player still at the table has
+	 * been sent their last messages.
+	 * 
+	 * @param table
+	 *            The table.
+	 */
+	void tableFinished(Table table);
+}
@@ -0,0 +1,315 @@
+/**
+ * <h1>TableState</h1>
+ * <p>
+ * What every player at the table can see: the pot, the current bet, who is to
+ * act, the cards on the table, and each seat's chips and how much they have
+ * bet in the betting round. Each value is kept in a slot (an int), so the
+ * whole table is an array of ints.
+ * </p>
+ * <p>
+ * The server changes the slots as the game goes on, and every so often sends
+ * the slots that have changed as a DELTA message, numbered one after the
+ * other (its version). A client that has just joined is sent a SNAPSHOT with
+ * every slot instead, and keeps its own TableState up to date by applying
+ * each DELTA to it. If a client ever misses one (its version skips a
+ * number), it ignores the rest and asks for a new SNAPSHOT.
+ * </p>
+ * <p>
+ * Only meant to be used by one thread at a time (i.e. by the table's steps,
+ * which never run at once, or by the thread a client reads messages on).
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class TableState {
+	// the slots for the whole table. cards and seats are stored as one more
+	// than their index, so an empty slot is 0.
+	public static final int POT = 0;
+	public static final int CURRENT_BET = 1;
+	public static final int TO_ACT = 2;
+	public static final int BOARD = 3;
+	public static final int BOARD_SIZE = 5;
+	private static final int FIRST_SEAT = BOARD + BOARD_SIZE;
+
+	// the slots for each seat, after the ones for the table
+	private static final int CHIPS = 0;
+	private static final int BETTED = 1;
+	private static final int SEAT_SIZE = 2;
+
+	private String[] names;
+	private int[] values;
+	private boolean[] changed;
+	private int numChanged;
+	private int version;
+	private boolean inSync;
+
+	/**
+	 * Creates a table with no seats, to be filled in by a SNAPSHOT (i.e. on
+	 * a client).
+	 */
+	public TableState() {
+		this(new String[0]);
+	}
+
+	/**
+	 * Creates an empty table.
+	 * 
+	 * @param names
+	 *            The name of the player in each seat.
+	 */
+	public TableState(String[] names) {
+		setSeats(names);
+	}
+
+	/**
+	 * Returns the slot holding a seat's chips.
+	 * 
+	 * @param seat
+	 *            The seat.
+	 * @return the slot.
+	 */
+	public static int chips(int seat) {
+		return FIRST_SEAT + seat * SEAT_SIZE + CHIPS;
+	}
+
+	/**
+	 * Returns the slot holding how much a seat has bet in the betting round.
+	 * 
+	 * @param seat
+	 *            The seat.
+	 * @return the slot.
+	 */
+	public static int betted(int seat) {
+		return FIRST_SEAT + seat * SEAT_SIZE + BETTED;
+	}
+
+	/**
+	 * Changes a slot. The change is sent with the next DELTA, unless the
+	 * slot is changed back before then.
+	 * 
+	 * @param slot
+	 *            The slot (i.e. POT, or chips(seat)).
+	 * @param value
+	 *            Its new value.
+	 */
+	public void set(int slot, int value) {
+		if (values[slot] != value) {
+			values[slot] = value;
+			if (!changed[slot]) {
+				changed[slot] = true;
+				numChanged++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the value of a slot.
+	 * 
+	 * @param slot
+	 *            The slot.
+	 * @return its value.
+	 */
+	public int get(int slot) {
+		return values[slot];
+	}
+
+	/**
+	 * Sets who is to act.
+	 * 
+	 * @param seat
+	 *            Their seat, or -1 if no one is.
+	 */
+	public void setToAct(int seat) {
+		set(TO_ACT, seat + 1);
+	}
+
+	/**
+	 * Returns who is to act.
+	 * 
+	 * @return their seat, or -1 if no one is.
+	 */
+	public int getToAct() {
+		return values[TO_ACT] - 1;
+	}
+
+	/**
+	 * Sets one of the cards on the table.
+	 * 
+	 * @param i
+	 *            Which card (0-4).
+	 * @param card
+	 *            The index (0-51) of the card, or -1 if it hasn't been dealt.
+	 */
+	public void setBoardCard(int i, int card) {
+		set(BOARD + i, card + 1);
+	}
+
+	/**
+	 * Returns one of the cards on the table.
+	 * 
+	 * @param i
+	 *            Which card (0-4).
+	 * @return the index (0-51) of the card, or -1 if it hasn't been dealt.
+	 */
+	public int getBoardCard(int i) {
+		return values[BOARD + i] - 1;
+	}
+
+	/**
+	 * Returns how many seats there are.
+	 * 
+	 * @return the number of seats.
+	 */
+	public int getNumSeats() {
+		return names.length;
+	}
+
+	/**
+	 * Returns the name of the player in a seat.
+	 * 
+	 * @param seat
+	 *            The seat.
+	 * @return their name.
+	 */
+	public String getName(int seat) {
+		return names[seat];
+	}
+
+	/**
+	 * Finds the seat of a player.
+	 * 
+	 * @param name
+	 *            Their name.
+	 * @return their seat, or -1 if they don't have one.
+	 */
+	public int seatOf(String name) {
+		for (int seat = 0; seat < names.length; seat++) {
+			if (names[seat].equals(name)) {
+				return seat;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the version of the table (i.e. the number of the last DELTA).
+	 * 
+	 * @return the version.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns whether a client's table is up to date: it has been sent a
+	 * SNAPSHOT, and hasn't missed a DELTA since.
+	 * 
+	 * @return whether the table can be shown.
+	 */
+	public boolean isInSync() {
+		return inSync;
+	}
+
+	/**
+	 * Makes a DELTA message of every slot that has changed since the last
+	 * one, and counts it as the next version.
+	 * 
+	 * @param message
+	 *            The message to make it in.
+	 * @return false if nothing has changed (and the message is left alone).
+	 */
+	public boolean toDelta(Message message) {
+		if (numChanged == 0) {
+			return false;
+		}
+		version++;
+		message.reset(Protocol.DELTA).addNumber(version);
+		for (int slot = 0; slot < values.length; slot++) {
+			if (changed[slot]) {
+				message.addNumber(slot).addNumber(values[slot]);
+				changed[slot] = false;
+			}
+		}
+		numChanged = 0;
+		return true;
+	}
+
+	/**
+	 * Makes a SNAPSHOT message of the whole table, as of the last DELTA (so
+	 * toDelta() should be called first).
+	 * 
+	 * @param message
+	 *            The message to make it in.
+	 */
+	public void toSnapshot(Message message) {
+		message.reset(Protocol.SNAPSHOT).addNumber(version)
+				.addNumber(names.length);
+		for (int slot = 0; slot < values.length; slot++) {
+			message.addNumber(values[slot]);
+		}
+		for (int seat = 0; seat < names.length; seat++) {
+			if (seat > 0) {
+				message.appendText("\n");
+			}
+			message.appendText(names[seat]);
+		}
+	}
+
+	/**
+	 * Applies a SNAPSHOT or DELTA from the server.
+	 * 
+	 * @param message
+	 *            The message.
+	 * @return whether the table changed. If a DELTA was missed, the table
+	 *         is out of sync (see isInSync()) until the next SNAPSHOT.
+	 * @throws IllegalArgumentException
+	 *             if the message doesn't fit the table.
+	 */
+	public boolean apply(Message message) {
+		if (message.getType() == Protocol.SNAPSHOT) {
+			int numSeats = message.getNumber(1);
+			String[] names = numSeats == 0 ? new String[0] : message
+					.getText().split("\n", -1);
+			if (names.length != numSeats
+					|| message.getNumNumbers() != 2 + numSlots(numSeats)) {
+				throw new IllegalArgumentException("Bad snapshot");
+			}
+			setSeats(names);
+			for (int slot = 0; slot < values.length; slot++) {
+				values[slot] = message.getNumber(2 + slot);
+			}
+			version = message.getNumber(0);
+			inSync = true;
+			return true;
+		}
+
+		if (!inSync) {
+			// waiting for a snapshot
+			return false;
+		} else if (message.getNumber(0) != version + 1) {
+			inSync = false;
+			return false;
+		}
+		for (int i = 1; i + 1 < message.getNumNumbers(); i += 2) {
+			int slot = message.getNumber(i);
+			if (slot < 0 || slot >= values.length) {
+				throw new IllegalArgumentException("No such slot: " + slot);
+			}
+			values[slot] = message.getNumber(i + 1);
+		}
+		version++;
+		return true;
+	}
+
+	private void setSeats(String[] names) {
+		this.names = names;
+		values = new int[numSlots(names.length)];
+		changed = new boolean[values.length];
+		numChanged = 0;
+	}
+
+	private static int numSlots(int numSeats) {
+		return FIRST_SEAT + numSeats * SEAT_SIZE;
+	}
+}
@@ -0,0 +1,195 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * <h1>ConnectionBenchmark</h1>
+ * <p>
+ * Measures how much memory each seated client costs each kind of
+ * ConnectionServer, and how many clients it can seat at once. This isn't a
+ * JMH benchmark (JMH measures time, not what a waiting client holds on to),
+ * so it is run on its own, once for each kind of server:
+ * </p>
+ * 
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ConnectionBenchmark nio 10000 1000
+ * java -cp benchmarks/target/benchmarks.jar ConnectionBenchmark virtual
+ * java -cp benchmarks/target/benchmarks.jar ConnectionBenchmark threads
+ * </pre>
+ * <p>
+ * Clients connect in steps, from the same JVM, and are seated the way the
+ * game seats them: the server sends SUBMITNAME, the client sends a name, and
+ * the server answers. The clients are plain sockets read by the main thread,
+ * so they add no threads of their own, and the same memory for every kind of
+ * server. After each step the heap used (after a GC), the resident memory of
+ * the process (on Linux) and the number of threads are printed, along with
+ * the cost of each client so far. The run stops at the most clients asked
+ * for, or as soon as a client can't be seated (i.e. out of file descriptors,
+ * memory or threads).
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class ConnectionBenchmark {
+	private static final int TIMEOUT_MILLIS = 10000;
+	private static final double MB = 1024 * 1024;
+
+	public static void main(String[] args) throws Exception {
+		String mode = args.length > 0 ? args[0] : "nio";
+		int maxClients = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+		int step = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+		ConnectionServer server = ConnectionServer.create(mode, 0,
+				new ConnectionListener() {
+					@Override
+					public void connected(Connection connection) {
+						connection.send(new Message(Protocol.SUBMITNAME));
+					}
+
+					@Override
+					public void messageReceived(Connection connection,
+							Message message) {
+						connection.send(new Message(Protocol.MESSAGE)
+								.appendText("Welcome, ").appendText(
+										message.text()));
+					}
+
+					@Override
+					public void disconnected(Connection connection) {
+					}
+				});
+		server.start();
+		String threadKind = "selector threads";
+		if (server instanceof BlockingServer) {
+			// a virtual server falls back to platform threads unless built
+			// on JDK 21 or later
+			boolean virtual = ((BlockingServer) server).isVirtual();
+			threadKind = virtual ? "virtual threads" : "platform threads";
+		}
+		System.out.println("Server: " + mode + " (" + threadKind + "), Java "
+				+ System.getProperty("java.version"));
+		System.out.printf("%8s %10s %10s %8s %12s %12s %12s%n", "clients",
+				"heap MB", "rss MB", "threads", "heap/client", "rss/client",
+				"threads/100");
+
+		long baseHeap = usedHeap();
+		long baseRss = residentMemory();
+		int baseThreads = threadCount();
+		ArrayList<Socket> clients = new ArrayList<Socket>();
+		String failure = null;
+		while (clients.size() < maxClients && failure == null) {
+			int target = Math.min(maxClients, clients.size() + step);
+			try {
+				while (clients.size() < target) {
+					clients.add(seat(server.getPort(), clients.size()));
+				}
+			} catch (IOException | Error e) {
+				failure = e.toString();
+			}
+
+			int numClients = clients.size();
+			long heap = usedHeap();
+			long rss = residentMemory();
+			int threads = threadCount();
+			System.out.printf("%8d %10.1f %10.1f %8d %12.0f %12.0f %12.1f%n",
+					numClients, heap / MB, rss / MB, threads,
+					(double) (heap - baseHeap) / numClients,
+					(double) (rss - baseRss) / numClients,
+					100.0 * (threads - baseThreads) / numClients);
+		}
+
+		if (failure != null) {
+			System.out.println("Most clients seated: " + clients.size()
+					+ " (stopped by " + failure + ")");
+		} else {
+			System.out.println("Seated all " + clients.size() + " clients");
+		}
+		for (Socket client : clients) {
+			client.close();
+		}
+		server.stop();
+	}
+
+	/**
+	 * Connects a client and gives it a name, once the server asks for it.
+	 */
+	private static Socket seat(int port, int number) throws IOException {
+		Socket socket = new Socket("localhost", port);
+		try {
+			socket.setSoTimeout(TIMEOUT_MILLIS);
+			InputStream in = socket.getInputStream();
+			OutputStream out = socket.getOutputStream();
+			expect(in, "SUBMITNAME");
+			out.write(("player" + number + "\n")
+					.getBytes(StandardCharsets.UTF_8));
+			out.flush();
+			expect(in, "MESSAGE");
+			return socket;
+		} catch (IOException e) {
+			socket.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads a line (without buffering, so a client holds on to nothing but
+	 * its socket) and checks how it starts.
+	 */
+	private static void expect(InputStream in, String start)
+			throws IOException {
+		StringBuilder line = new StringBuilder();
+		int b;
+		while ((b = in.read()) != '\n') {
+			if (b < 0) {
+				throw new IOException("Connection closed by the server");
+			}
+			line.append((char) b);
+		}
+		if (!line.toString().startsWith(start)) {
+			throw new IOException("Expected " + start + ": " + line);
+		}
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static int threadCount() {
+		return ManagementFactory.getThreadMXBean().getThreadCount();
+	}
+
+	/**
+	 * Gets the resident memory of the process (heap, thread stacks, direct
+	 * buffers and everything else), or 0 if it can't be read.
+	 */
+	private static long residentMemory() {
+		try {
+			BufferedReader status = new BufferedReader(new FileReader(
+					"/proc/self/status"));
+			try {
+				String line;
+				while ((line = status.readLine()) != null) {
+					if (line.startsWith("VmRSS:")) {
+						String kb = line.substring(6).trim().split("\\s+")[0];
+						return Long.parseLong(kb) * 1024;
+					}
+				}
+			} finally {
+				status.close();
+			}
+		} catch (IOException e) {
+		}
+		return 0;
+	}
+}
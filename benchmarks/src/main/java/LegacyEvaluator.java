@@ -0,0 +1,241 @@
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * <h1>LegacyEvaluator</h1>
+ * <p>
+ * The way PlayerHandler used to find a player's best pokerhand, before the
+ * HandEvaluator: every combination of five of the seven cards is listed,
+ * sorted and scored, then the scores are sorted to find the best. It is kept
+ * here unchanged (including only listing 20 of the 21 combinations), as the
+ * baseline the benchmarks measure the HandEvaluator against.
+ * </p>
+ * 
+ * @author Alex
+ * @since 2016-01-19
+ */
+public class LegacyEvaluator {
+	private ArrayList<Card> availableCards = new ArrayList<Card>();
+	private ArrayList<ArrayList<Card>> possibleHands = new ArrayList<ArrayList<Card>>();
+	private PokerHand bestPokerHand;
+
+	/**
+	 * Finds the best pokerhand of seven cards, the same way a PlayerHandler
+	 * used to at the end of a round (starting from no cards).
+	 * 
+	 * @param cards
+	 *            The index of each of the seven cards.
+	 * @return the best pokerhand.
+	 */
+	public PokerHand evaluate(int[] cards) {
+		availableCards.clear();
+		possibleHands.clear();
+		for (int card : cards) {
+			availableCards.add(Card.fromIndex(card));
+		}
+		calculateBestPokerHand();
+		return bestPokerHand;
+	}
+
+	/**
+	 * Calculates the best pokerhand out of all combinations of the player's
+	 * available cards (i.e. those in his hand and those on the table).
+	 */
+	public void calculateBestPokerHand() {
+		generatePokerHands(0, 1);
+
+		// find the pokerhand value of each possible hand
+		ArrayList<PokerHand> possiblePokerHands = new ArrayList<PokerHand>();
+		for (ArrayList<Card> hand : possibleHands) {
+			// sort, then determine the hand (sorting is required for the
+			// process)
+			Collections.sort(hand);
+			possiblePokerHands.add(determinePokerHand(hand));
+		}
+
+		// once all the possible pokerhands have been generated/evaluated,
+		// sort them to find the best one (last one in the list, as sorting
+		// ranks them in ascending order)
+		Collections.sort(possiblePokerHands);
+		bestPokerHand = possiblePokerHands
+				.get(possiblePokerHands.size() - 1);
+	}
+
+	/**
+	 * Used to determine the value of each possible hand
+	 * 
+	 * @param hand
+	 *            the set of five cards that can make a hand
+	 * @return the PokerHand that the hand makes
+	 */
+	private PokerHand determinePokerHand(ArrayList<Card> hand) {
+
+		PokerHand pokerHand = new PokerHand();
+
+		// check if all same suit
+		boolean isFlush = true;
+		int startingSuit = hand.get(0).getSuit();
+		for (int i = 1; i < 5; i++) { // check if the remaining 4 cards are
+										// the
+			// same suit
+			if (hand.get(i).getSuit() != startingSuit) {
+				isFlush = false;
+			}
+		}
+
+		boolean isStraight = true;
+		int previousRank = hand.get(0).getRank();
+		for (int i = 1; i < 5; i++) { // check if the remaining 4 cards are
+										// the
+			if (hand.get(i).getRank() != previousRank + 1) { // break in
+																// chain,
+				// can't be
+				// straight
+				isStraight = false;
+				break;
+			}
+			previousRank++;
+		}
+
+		// make histogram of each card by rank
+		// used to determine pairs, triples, full houses, and quads
+		int[] histogramOfRanks = new int[14];
+
+		for (int i = 0; i < 5; i++) {
+			int currentRank = hand.get(i).getRank();
+			histogramOfRanks[currentRank - 2]++; // b/c my cards value range
+			// from 2-14
+		}
+
+		ArrayList<Integer> quads = new ArrayList<Integer>();
+		ArrayList<Integer> triples = new ArrayList<Integer>();
+		ArrayList<Integer> pairs = new ArrayList<Integer>();
+		ArrayList<Integer> singles = new ArrayList<Integer>();
+
+		for (int i = 0; i < histogramOfRanks.length; i++) {
+			if (histogramOfRanks[i] == 1) {
+				singles.add(i + 2); // i+2 b/c the cards' values start at 2,
+									// not 0
+			} else if (histogramOfRanks[i] == 2) {
+				pairs.add(i + 2);
+			} else if (histogramOfRanks[i] == 3) {
+				triples.add(i + 2);
+			} else if (histogramOfRanks[i] == 4) {
+				quads.add(i + 2);
+			}
+		}
+
+		// straight flush
+		if (isFlush && isStraight) {
+			pokerHand.setStraightFlush(singles.get(singles.size() - 1));
+			return pokerHand;
+		}
+
+		// quadruples
+		else if (!quads.isEmpty()) {
+			pokerHand.setQuad(quads.get(0));
+			return pokerHand;
+		}
+
+		// full house
+		else if (!triples.isEmpty() && !pairs.isEmpty()) {
+			pokerHand.setFullHouse(triples.get(triples.size() - 1),
+					pairs.get(pairs.size() - 1));
+			return pokerHand;
+
+		}
+
+		// flush
+		else if (isFlush) {
+			pokerHand.setFlush(singles.get(4), singles.get(3),
+					singles.get(2), singles.get(1), singles.get(0));
+			return pokerHand;
+		}
+
+		// straight
+		else if (isStraight) {
+			pokerHand.setStraight(singles.get(4));
+			return pokerHand;
+		}
+
+		// triples
+		else if (!triples.isEmpty() && pairs.isEmpty()) {
+			pokerHand.setTriple(triples.get(triples.size() - 1),
+					singles.get(1), singles.get(0));
+			return pokerHand;
+
+		}
+
+		else if (!pairs.isEmpty() && triples.isEmpty()) {
+
+			// two pair
+			if (pairs.size() >= 2) {
+
+				pokerHand.setTwoPair(pairs.get(pairs.size() - 1),
+						pairs.get(pairs.size() - 2), singles.get(0));
+				return pokerHand;
+			}
+
+			// pair
+			else {
+				pokerHand.setPair(pairs.get(pairs.size() - 1),
+						singles.get(2), singles.get(1), singles.get(0));
+				return pokerHand;
+			}
+		}
+
+		else { // high card
+			pokerHand.setHighCard(singles.get(4), singles.get(3),
+					singles.get(2), singles.get(1), singles.get(0));
+			return pokerHand;
+		}
+	}
+
+	/**
+	 * Recursive function that generates all possible combinations of hands
+	 * (5 cards) for a given set of 7 cards
+	 * 
+	 * @param i
+	 *            The location of the current card being used as the
+	 *            reference point that is to be removed
+	 * @param k
+	 *            The location of the second card to be removed.
+	 */
+	private void generatePokerHands(int i, int k) {
+		ArrayList<Card> currentHand = (ArrayList<Card>) availableCards
+				.clone();
+		// the concept behind this is to remove two different cards from the
+		// set of seven each time in order to generate a new, unique set of
+		// five cards each time. This is done by calculating all the
+		// possibilities of the two cards that could be removed, and
+		// recursively calling the function over and over again until all
+		// the possibilities have been generated. The cards are removed in
+		// the following pattern : (1,2), (1,3)...(1,7), (2,3),
+		// (2,4)...(2,7)...(6,7). Once's 6,7 has been reached, all
+		// possibilities have been generated.
+		if (i < 5) {
+			currentHand.remove(i);
+			currentHand.remove(i + k - 1); // accommodate for new size
+			addPossibleHands(currentHand);
+			if (i + k < 6) { // still more possibilities with the same
+								// starting
+				// card 1
+				generatePokerHands(i, k + 1);
+			} else { // all possibilities for that starting card done
+				// move to next starting card to remove
+				generatePokerHands(i + 1, 1);
+			}
+		}
+	}
+
+	/**
+	 * After generating a combination, add it to the possible hands
+	 * arraylist.
+	 * 
+	 * @param possibleHand
+	 *            A possible combination of five cards.
+	 */
+	public void addPossibleHands(ArrayList<Card> possibleHand) {
+		possibleHands.add(possibleHand);
+	}
+}
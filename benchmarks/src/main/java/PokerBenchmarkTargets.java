@@ -0,0 +1,227 @@
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import poker.bench.PokerTargets;
+
+/**
+ * <h1>PokerBenchmarkTargets</h1>
+ * <p>
+ * Calls the game's classes for the benchmarks (see PokerTargets). Nothing
+ * here is measured on its own; each method is just the code being measured.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class PokerBenchmarkTargets implements PokerTargets {
+	private LegacyEvaluator legacyEvaluator = new LegacyEvaluator();
+	private HandState hand = new HandState();
+	private Deck deck = new Deck();
+	private boolean[] inShowdown = new boolean[0];
+	private ByteBuffer sent = ByteBuffer.allocate(1024);
+	private Message message = new Message();
+	private StringBuilder line = new StringBuilder();
+	private MessageDecoder decoder;
+
+	@Override
+	public int evaluateLegacy(int[] cards) {
+		return legacyEvaluator.evaluate(cards).getStrength();
+	}
+
+	@Override
+	public int evaluate(long cards) {
+		return HandEvaluator.evaluate(cards);
+	}
+
+	@Override
+	public int evaluateIncremental(int[] cards) {
+		hand.reset();
+		for (int card : cards) {
+			hand.addCard(card);
+		}
+		return hand.getStrength();
+	}
+
+	@Override
+	public int dealRound(int numPlayers) {
+		// the same deck is reused every round, like the server's
+		int numCards = 2 * numPlayers + 5;
+		deck.shuffle(numCards);
+		int sum = 0;
+		for (int i = 0; i < numCards; i++) {
+			sum += deck.deal().getIndex();
+		}
+		return sum;
+	}
+
+	@Override
+	public Object legacyShowdown(int[] strengths) {
+		ArrayList<PokerHand> players = new ArrayList<PokerHand>();
+		for (int strength : strengths) {
+			players.add(new PokerHand(strength));
+		}
+		return players;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public int winnersLegacy(Object legacyShowdown) {
+		ArrayList<PokerHand> players = (ArrayList<PokerHand>) legacyShowdown;
+		ArrayList<PokerHand> listOfPlayers = (ArrayList<PokerHand>) players
+				.clone();
+		Collections.sort(listOfPlayers);
+		PokerHand winner = listOfPlayers.get(listOfPlayers.size() - 1);
+		ArrayList<PokerHand> listOfWinners = new ArrayList<PokerHand>();
+		listOfWinners.add(winner);
+		for (int i = listOfPlayers.size() - 2; i >= 0; i--) {
+			if (listOfPlayers.get(i).compareTo(winner) == 0) {
+				listOfWinners.add(listOfPlayers.get(i));
+			}
+		}
+		return listOfWinners.size();
+	}
+
+	@Override
+	public int winners(int[] strengths) {
+		// like the server, which knows who is still in the round already
+		if (inShowdown.length != strengths.length) {
+			inShowdown = new boolean[strengths.length];
+			Arrays.fill(inShowdown, true);
+		}
+		return new Showdown(strengths, inShowdown).getWinners().length;
+	}
+
+	@Override
+	public int sendLegacy(String player, int[] numbers) {
+		sent.clear();
+		sendLegacy("INFO" + player + " " + numbers[0] + " " + numbers[1]);
+		sendLegacy("PERSONALINFO" + numbers[2] + " " + numbers[3]);
+		sendLegacy("RAISE" + player + " raises " + numbers[4] + ".");
+		return sent.position();
+	}
+
+	private void sendLegacy(String line) {
+		sent.put((line + "\n").getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public int sendText(String player, int[] numbers) {
+		sent.clear();
+		Protocol.encodeLine(info(player, numbers), line, sent);
+		Protocol.encodeLine(personalInfo(numbers), line, sent);
+		Protocol.encodeLine(raise(player, numbers), line, sent);
+		return sent.position();
+	}
+
+	@Override
+	public int sendBinary(String player, int[] numbers) {
+		sent.clear();
+		Protocol.encode(info(player, numbers), sent);
+		Protocol.encode(personalInfo(numbers), sent);
+		Protocol.encode(raise(player, numbers), sent);
+		return sent.position();
+	}
+
+	private Message info(String player, int[] numbers) {
+		return message.reset(Protocol.INFO).appendText(player)
+				.addNumber(numbers[0]).addNumber(numbers[1]);
+	}
+
+	private Message personalInfo(int[] numbers) {
+		return message.reset(Protocol.PERSONALINFO).addNumber(numbers[2])
+				.addNumber(numbers[3]);
+	}
+
+	private Message raise(String player, int[] numbers) {
+		return message.reset(Protocol.RAISE).appendText(player)
+				.addNumber(numbers[4]);
+	}
+
+	@Override
+	public byte[] sent() {
+		return Arrays.copyOf(sent.array(), sent.position());
+	}
+
+	@Override
+	public int receiveLegacy(byte[] bytes) {
+		int sum = 0;
+		int start = 0;
+		for (int end = 0; end < bytes.length; end++) {
+			if (bytes[end] == '\n') {
+				// a new string for each line, as readLine() makes
+				String line = new String(bytes, start, end - start,
+						StandardCharsets.UTF_8);
+				start = end + 1;
+				if (line.startsWith("SUBMITNAME") || line.startsWith("MESSAGE")
+						|| line.startsWith("ACTION")
+						|| line.startsWith("CHIPS") || line.equals("BIGBLIND")
+						|| line.equals("SMALLBLIND")) {
+					continue;
+				} else if (line.startsWith("INFO")) {
+					sum += line.substring(4, line.indexOf(" ")).length();
+					sum += Integer.parseInt(line.substring(
+							line.indexOf(" ") + 1,
+							line.indexOf(" ", line.indexOf(" ") + 1)));
+					sum += Integer.parseInt(line.substring(line.indexOf(" ",
+							line.indexOf(" ") + 1) + 1));
+				} else if (line.startsWith("HAND")
+						|| line.startsWith("TABLE")) {
+					continue;
+				} else if (line.startsWith("PERSONALINFO")) {
+					sum += Integer.parseInt(line.substring(12).substring(0,
+							line.substring(12).indexOf(" ")));
+					sum += Integer.parseInt(line.substring(12)
+							.substring(line.substring(12).indexOf(" ") + 1)
+							.trim());
+				} else if (line.startsWith("FOLDED")
+						|| line.startsWith("WINNER")
+						|| line.startsWith("ENDROUND")
+						|| line.startsWith("OUT")
+						|| line.startsWith("WONGAME")
+						|| line.startsWith("CHECK")) {
+					continue;
+				} else if (line.startsWith("RAISE")) {
+					sum += (line.substring(5) + "\n").length();
+				}
+			}
+		}
+		return sum;
+	}
+
+	@Override
+	public int receiveBinary(byte[] bytes) {
+		// a client keeps one decoder for as long as it is connected
+		if (decoder == null) {
+			decoder = new MessageDecoder(Protocol.MAX_FRAME_LENGTH);
+			decoder.setBinary();
+		}
+		ByteBuffer in = ByteBuffer.wrap(bytes);
+		int sum = 0;
+		try {
+			while (decoder.decode(in)) {
+				Message received = decoder.getMessage();
+				switch (received.getType()) {
+				case Protocol.INFO:
+					sum += received.text().length() + received.getNumber(0)
+							+ received.getNumber(1);
+					break;
+				case Protocol.PERSONALINFO:
+					sum += received.getNumber(0) + received.getNumber(1);
+					break;
+				case Protocol.RAISE:
+					line.setLength(0);
+					Protocol.appendNotice(received, line);
+					sum += line.length() + 1;
+					break;
+				}
+			}
+		} catch (ProtocolException e) {
+			throw new IllegalStateException(e);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,414 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <h1>TableBenchmark</h1>
+ * <p>
+ * Measures how many tables one core can run, with every table playing at the
+ * game's own pace (the pauses while cards are dealt and between rounds), the
+ * way a server full of small games would. Like ConnectionBenchmark, it isn't
+ * a JMH benchmark, and is run on its own:
+ * </p>
+ * 
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar TableBenchmark 500 4 60
+ * </pre>
+ * <p>
+ * A PokerServer is started in the same JVM, and enough bots connect to fill
+ * the tables asked for (500 tables of 4 seats above). The bots speak the
+ * binary protocol over real sockets, all from the main thread, and always
+ * check or call the moment they are asked to act, so every game is played
+ * as fast as the server lets it. A bot whose game is over connects again
+ * under a new name, so tables keep being created and let go for the whole
+ * run. Every 10 seconds (for 60 seconds above) the number of tables being
+ * played at, the rounds and decisions played, the server's threads, and the
+ * CPU the server has used (the process's CPU time, less the bots') are
+ * printed. The tables per core is the number of tables over the cores the
+ * server kept busy.
+ * </p>
+ * <p>
+ * An optional fourth argument is how many milliseconds the bots take to
+ * decide (0 by default), so most tables are waiting on a player at any
+ * moment, the way tables of real players are:
+ * </p>
+ * 
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar TableBenchmark 5000 4 60 2000
+ * </pre>
+ * <p>
+ * An optional fifth argument is a number of nodes to spread the tables
+ * over. A Coordinator is started in the same JVM instead of a PokerServer,
+ * and each node is a PokerServer in a JVM of its own, with room for its
+ * share of the tables (and a few more, for the tables that start while
+ * others are finishing, before the coordinator hears of it). The bots
+ * connect to the coordinator, and are sent on to a node. The nodes' CPU
+ * isn't measured, so the number of tables each node is playing at is
+ * printed instead:
+ * </p>
+ * 
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar TableBenchmark 2000 4 60 0 4
+ * </pre>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class TableBenchmark {
+	private static final int STARTING_CHIPS = 200;
+	private static final long INTERVAL_MILLIS = 10000;
+
+	private static Selector selector;
+	private static int port; // of the server, or the coordinator
+	private static long thinkNanos;
+	private static int numNames;
+	private static long numRounds; // ENDROUNDs seen by every bot
+	private static long numDecisions;
+
+	/**
+	 * the bots waiting to send their decisions, in the order they were asked
+	 * (which is the order they are due in, as every bot takes as long)
+	 */
+	private static ArrayDeque<Reply> replies = new ArrayDeque<Reply>();
+
+	public static void main(String[] args) throws Exception {
+		int numTables = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		int numSeats = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+		int thinkMillis = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+		thinkNanos = thinkMillis * 1000000L;
+		int numNodes = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+		// printing every message would cost more than the games
+		System.setProperty(Table.LOG_PROPERTY, "false");
+		PokerServer server = null;
+		Coordinator coordinator = null;
+		List<Process> nodes = new ArrayList<Process>();
+		if (numNodes == 0) {
+			server = new PokerServer(numSeats, STARTING_CHIPS);
+			server.start(0);
+			port = server.getPort();
+		} else {
+			coordinator = new Coordinator();
+			coordinator.start(0, 0);
+			port = coordinator.getPort();
+			int maxTables = (numTables + numNodes - 1) / numNodes;
+			maxTables += maxTables / 10 + 1;
+			for (int i = 0; i < numNodes; i++) {
+				nodes.add(startNode(coordinator.getNodePort(), numSeats,
+						maxTables));
+			}
+			while (coordinator.getNumNodes() < numNodes) {
+				Thread.sleep(100);
+			}
+		}
+		selector = Selector.open();
+		for (int i = 0; i < numTables * numSeats; i++) {
+			connect("localhost", port, "bot" + numNames++);
+		}
+		System.out.println((numNodes == 0 ? "Server: " : numNodes
+				+ " nodes: ")
+				+ System.getProperty(ConnectionServer.MODE_PROPERTY, "nio")
+				+ ", " + numTables + " tables of " + numSeats + ", bots take "
+				+ thinkMillis + " ms, "
+				+ Runtime.getRuntime().availableProcessors() + " cores, Java "
+				+ System.getProperty("java.version"));
+		if (numNodes == 0) {
+			System.out.printf("%8s %8s %10s %10s %8s %10s %12s %12s%n",
+					"seconds", "tables", "rounds/s", "acts/s", "threads",
+					"cpu cores", "cpu ms/round", "tables/core");
+		} else {
+			System.out.printf("%8s %8s %10s %10s  %s%n", "seconds", "tables",
+					"rounds/s", "acts/s", "tables on each node");
+		}
+
+		long start = System.nanoTime();
+		long end = start + seconds * 1000000000L;
+		long nextReport = start + INTERVAL_MILLIS * 1000000L;
+		long startCpu = processCpuTime();
+		long startBotCpu = botCpuTime();
+		long lastRounds = 0;
+		long lastDecisions = 0;
+		long lastTime = start;
+		long lastCpu = 0;
+		while (System.nanoTime() < end) {
+			long wait = 100;
+			if (!replies.isEmpty()) {
+				long due = (replies.peek().due - System.nanoTime()) / 1000000;
+				wait = Math.max(1, Math.min(wait, due));
+			}
+			selector.select(wait);
+			Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+			while (keys.hasNext()) {
+				SelectionKey key = keys.next();
+				keys.remove();
+				Bot bot = (Bot) key.attachment();
+				boolean open = bot.read();
+				if (bot.redirectHost != null) {
+					// sent on to a node by the coordinator
+					key.cancel();
+					bot.channel.close();
+					connect(bot.redirectHost, bot.redirectPort, bot.name);
+				} else if (!open) {
+					key.cancel();
+					bot.channel.close();
+					connect("localhost", port, "bot" + numNames++);
+				}
+			}
+			while (!replies.isEmpty()
+					&& replies.peek().due - System.nanoTime() <= 0) {
+				replies.poll().send();
+			}
+
+			long now = System.nanoTime();
+			if (now >= nextReport && coordinator != null) {
+				double interval = (now - lastTime) / 1e9;
+				long rounds = numRounds / numSeats;
+				System.out.printf("%8.0f %8d %10.1f %10.1f  %s%n",
+						(now - start) / 1e9, coordinator.getNumTables(),
+						(rounds - lastRounds) / interval,
+						(numDecisions - lastDecisions) / interval,
+						Arrays.toString(coordinator.getTablesPerNode()));
+				lastRounds = rounds;
+				lastDecisions = numDecisions;
+				lastTime = now;
+				nextReport += INTERVAL_MILLIS * 1000000L;
+			} else if (now >= nextReport) {
+				long cpu = processCpuTime() - startCpu
+						- (botCpuTime() - startBotCpu);
+				double interval = (now - lastTime) / 1e9;
+				long rounds = numRounds / numSeats;
+				double cores = (cpu - lastCpu) / 1e9 / interval;
+				int tables = server.getNumTables();
+				System.out.printf("%8.0f %8d %10.1f %10.1f %8d %10.3f %12.3f "
+						+ "%12.0f%n", (now - start) / 1e9, tables,
+						(rounds - lastRounds) / interval,
+						(numDecisions - lastDecisions) / interval,
+						ManagementFactory.getThreadMXBean().getThreadCount(),
+						cores, (cpu - lastCpu) / 1e6
+								/ Math.max(1, rounds - lastRounds), tables
+								/ cores);
+				lastRounds = rounds;
+				lastDecisions = numDecisions;
+				lastTime = now;
+				lastCpu = cpu;
+				nextReport += INTERVAL_MILLIS * 1000000L;
+			}
+		}
+		if (server != null) {
+			System.out.println("Games finished: "
+					+ server.getNumGamesFinished());
+			server.stop();
+		} else {
+			coordinator.stop();
+			for (Process node : nodes) {
+				node.destroy();
+			}
+		}
+	}
+
+	/**
+	 * Starts a PokerServer in a JVM of its own, as a node of the
+	 * coordinator, on any free port.
+	 * 
+	 * @param coordinatorPort
+	 *            The port nodes join the coordinator on.
+	 * @param numSeats
+	 *            The number of seats at each of its tables.
+	 * @param maxTables
+	 *            The most tables the coordinator sends it players for.
+	 * @return the node's process.
+	 */
+	private static Process startNode(int coordinatorPort, int numSeats,
+			int maxTables) throws IOException {
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin"
+				+ File.separator + "java");
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add("-D" + Table.LOG_PROPERTY + "=false");
+		command.add("-D" + PokerServer.PORT_PROPERTY + "=0");
+		command.add("-D" + PokerServer.COORDINATOR_PROPERTY + "=localhost:"
+				+ coordinatorPort);
+		command.add("-D" + PokerServer.MAX_TABLES_PROPERTY + "=" + maxTables);
+		String mode = System.getProperty(ConnectionServer.MODE_PROPERTY);
+		if (mode != null) {
+			command.add("-D" + ConnectionServer.MODE_PROPERTY + "=" + mode);
+		}
+		command.add("PokerServer");
+		command.add(Integer.toString(numSeats));
+		command.add(Integer.toString(STARTING_CHIPS));
+		return new ProcessBuilder(command).inheritIO().start();
+	}
+
+	/**
+	 * Connects a bot, which asks for the binary protocol straight away.
+	 */
+	private static void connect(String host, int port, String name)
+			throws IOException {
+		SocketChannel channel = SocketChannel.open(new InetSocketAddress(
+				host, port));
+		channel.socket().setTcpNoDelay(true);
+		Bot bot = new Bot(channel, name);
+		ByteBuffer hello = ByteBuffer.allocate(Protocol.HELLO_LENGTH);
+		Protocol.putHello(hello);
+		hello.flip();
+		bot.write(hello);
+		channel.configureBlocking(false);
+		channel.register(selector, SelectionKey.OP_READ, bot);
+	}
+
+	private static long processCpuTime() {
+		return ((com.sun.management.OperatingSystemMXBean) ManagementFactory
+				.getOperatingSystemMXBean()).getProcessCpuTime();
+	}
+
+	/**
+	 * Gets the CPU time of the bots (i.e. the main thread).
+	 */
+	private static long botCpuTime() {
+		return ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+	}
+
+	/**
+	 * <h1>Bot</h1>
+	 * <p>
+	 * A player that always checks or calls, keeping its own TableState to
+	 * know which.
+	 * </p>
+	 */
+	private static class Bot {
+		private SocketChannel channel;
+		private String name;
+		private MessageDecoder decoder = new MessageDecoder(
+				Protocol.MAX_FRAME_LENGTH);
+		private ByteBuffer in = ByteBuffer.allocate(4 * 1024);
+		private ByteBuffer out = ByteBuffer.allocate(1024);
+		private Message reply = new Message();
+		private TableState tableState = new TableState();
+		private boolean firstLineRead = false;
+		private int seat = -1;
+		private String redirectHost; // if the coordinator sent it on
+		private int redirectPort;
+
+		public Bot(SocketChannel channel, String name) {
+			this.channel = channel;
+			this.name = name;
+		}
+
+		/**
+		 * Reads what the server has sent, and answers it.
+		 * 
+		 * @return false once the server has closed the connection.
+		 */
+		public boolean read() throws IOException {
+			in.clear();
+			if (channel.read(in) < 0) {
+				return false;
+			}
+			in.flip();
+			while (decoder.decode(in)) {
+				handle(decoder.getMessage());
+			}
+			return true;
+		}
+
+		private void handle(Message message) throws IOException {
+			if (!firstLineRead) {
+				// the server's first SUBMITNAME is always a line
+				firstLineRead = true;
+				decoder.setBinary();
+				return;
+			}
+			switch (message.getType()) {
+			case Protocol.HELLO:
+			case Protocol.SUBMITNAME:
+				send(reply.reset(Protocol.LINE).appendText(name));
+				break;
+			case Protocol.SNAPSHOT:
+			case Protocol.DELTA:
+				tableState.apply(message);
+				if (message.getType() == Protocol.SNAPSHOT) {
+					seat = tableState.seatOf(name);
+				}
+				break;
+			case Protocol.TURN:
+				int toCall = tableState.get(TableState.CURRENT_BET)
+						- tableState.get(TableState.betted(seat));
+				Reply decision = new Reply(this, message.getNumber(0),
+						toCall == 0 ? Protocol.CHECK : Protocol.CALL);
+				if (thinkNanos == 0) {
+					decision.send();
+				} else {
+					replies.add(decision);
+				}
+				break;
+			case Protocol.ENDROUND:
+				numRounds++;
+				break;
+			case Protocol.REDIRECT:
+				redirectHost = message.getText();
+				redirectPort = message.getNumber(0);
+				break;
+			default:
+				break;
+			}
+		}
+
+		private void send(Message message) throws IOException {
+			out.clear();
+			Protocol.encode(message, out);
+			out.flip();
+			write(out);
+		}
+
+		private void write(ByteBuffer bytes) throws IOException {
+			// a few bytes at a time, so the socket always has room
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+		}
+	}
+
+	/**
+	 * <h1>Reply</h1>
+	 * <p>
+	 * A bot's decision for a turn, and when it is due to be sent.
+	 * </p>
+	 */
+	private static class Reply {
+		private Bot bot;
+		private int turn;
+		private int decision;
+		private long due;
+
+		public Reply(Bot bot, int turn, int decision) {
+			this.bot = bot;
+			this.turn = turn;
+			this.decision = decision;
+			due = System.nanoTime() + thinkNanos;
+		}
+
+		/**
+		 * Sends the decision, unless the bot's game has ended since.
+		 */
+		public void send() throws IOException {
+			if (!bot.channel.isOpen()) {
+				return;
+			}
+			bot.send(bot.reply.reset(Protocol.ACT).addNumber(turn)
+					.addNumber(decision).addNumber(0));
+			numDecisions++;
+		}
+	}
+}
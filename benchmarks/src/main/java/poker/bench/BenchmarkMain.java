@@ -0,0 +1,70 @@
+package poker.bench;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <h1>BenchmarkMain</h1>
+ * <p>
+ * Runs the benchmarks with the GC profiler (for the allocation rate), once
+ * for operations per second and once for nanoseconds per operation, then
+ * saves every result to a single JSON file (jmh-result.json, or the file
+ * given with -rff) so results can be compared between versions. Any of the
+ * usual JMH options can be given (i.e. a benchmark name to run only it); if
+ * a mode is given with -bm, only that mode is run.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public class BenchmarkMain {
+	private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		if (commandLine.shouldHelp() || commandLine.shouldList()) {
+			// let JMH print its help or list the benchmarks
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+
+		Collection<RunResult> results = new ArrayList<RunResult>();
+		if (commandLine.getBenchModes().isEmpty()) {
+			results.addAll(run(commandLine, Mode.Throughput, TimeUnit.SECONDS));
+			results.addAll(run(commandLine, Mode.AverageTime,
+					TimeUnit.NANOSECONDS));
+		} else {
+			results.addAll(new Runner(options(commandLine).build()).run());
+		}
+
+		String resultFile = commandLine.getResult().orElse(
+				DEFAULT_RESULT_FILE);
+		ResultFormatFactory.getInstance(ResultFormatType.JSON, resultFile)
+				.writeOut(results);
+		System.out.println("Results saved to " + resultFile);
+	}
+
+	private static Collection<RunResult> run(CommandLineOptions commandLine,
+			Mode mode, TimeUnit timeUnit) throws RunnerException {
+		return new Runner(options(commandLine).mode(mode).timeUnit(timeUnit)
+				.build()).run();
+	}
+
+	private static ChainedOptionsBuilder options(
+			CommandLineOptions commandLine) {
+		return new OptionsBuilder().parent(commandLine).addProfiler(
+				GCProfiler.class);
+	}
+}
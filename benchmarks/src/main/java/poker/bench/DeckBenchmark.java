@@ -0,0 +1,49 @@
+package poker.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <h1>DeckBenchmark</h1>
+ * <p>
+ * Measures how fast a round is dealt: the deck is shuffled, then two cards
+ * are dealt to each player and five to the table. Each operation is one
+ * round.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+	@Param({ "2", "6", "10" })
+	private int numPlayers;
+
+	private PokerTargets targets;
+
+	@Setup
+	public void setUp() {
+		targets = HandCorpus.targets();
+	}
+
+	@Benchmark
+	public int shuffleAndDeal() {
+		return targets.dealRound(numPlayers);
+	}
+}
@@ -0,0 +1,75 @@
+package poker.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <h1>EvaluatorBenchmark</h1>
+ * <p>
+ * Measures how fast a player's best pokerhand is found from seven cards: the
+ * way PlayerHandler used to, with the HandEvaluator, and one card at a time
+ * with a HandState. Each operation is one hand of the corpus.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+	private PokerTargets targets;
+	private int[][] hands;
+	private long[] masks;
+
+	@Setup
+	public void setUp() {
+		targets = HandCorpus.targets();
+		hands = HandCorpus.hands(7);
+		masks = HandCorpus.masks(hands);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HandCorpus.SIZE)
+	public int legacy() {
+		int sum = 0;
+		for (int[] hand : hands) {
+			sum += targets.evaluateLegacy(hand);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HandCorpus.SIZE)
+	public int handEvaluator() {
+		int sum = 0;
+		for (long mask : masks) {
+			sum += targets.evaluate(mask);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HandCorpus.SIZE)
+	public int handState() {
+		int sum = 0;
+		for (int[] hand : hands) {
+			sum += targets.evaluateIncremental(hand);
+		}
+		return sum;
+	}
+}
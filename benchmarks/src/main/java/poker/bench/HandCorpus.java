@@ -0,0 +1,84 @@
+package poker.bench;
+
+import java.util.Random;
+
+/**
+ * <h1>HandCorpus</h1>
+ * <p>
+ * Deals the hands the benchmarks are run on. The hands come from a fixed
+ * seed, so every run (and every version of the code) is measured on exactly
+ * the same hands.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public final class HandCorpus {
+	/**
+	 * the number of hands in a corpus, and so the number of operations each
+	 * call to a benchmark method does
+	 */
+	public static final int SIZE = 1024;
+	public static final long SEED = 20160119L;
+
+	private HandCorpus() {
+	}
+
+	/**
+	 * Deals hands of a number of different cards each.
+	 * 
+	 * @param numCards
+	 *            The number of cards in each hand.
+	 * @return the index of each card of each hand.
+	 */
+	public static int[][] hands(int numCards) {
+		Random random = new Random(SEED);
+		int[] deck = new int[52];
+		for (int i = 0; i < deck.length; i++) {
+			deck[i] = i;
+		}
+
+		int[][] hands = new int[SIZE][numCards];
+		for (int[] hand : hands) {
+			for (int i = 0; i < numCards; i++) {
+				int j = i + random.nextInt(deck.length - i);
+				int card = deck[j];
+				deck[j] = deck[i];
+				deck[i] = card;
+				hand[i] = card;
+			}
+		}
+		return hands;
+	}
+
+	/**
+	 * Gets the mask of each hand, with the bit of each card's index set.
+	 * 
+	 * @param hands
+	 *            The hands.
+	 * @return the mask of each hand.
+	 */
+	public static long[] masks(int[][] hands) {
+		long[] masks = new long[hands.length];
+		for (int i = 0; i < hands.length; i++) {
+			for (int card : hands[i]) {
+				masks[i] |= 1L << card;
+			}
+		}
+		return masks;
+	}
+
+	/**
+	 * Gets the game code being measured.
+	 * 
+	 * @return the benchmark targets.
+	 */
+	public static PokerTargets targets() {
+		try {
+			return (PokerTargets) Class.forName("PokerBenchmarkTargets")
+					.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Can't load the game classes", e);
+		}
+	}
+}
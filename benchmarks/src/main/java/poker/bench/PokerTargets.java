@@ -0,0 +1,136 @@
+package poker.bench;
+
+/**
+ * <h1>PokerTargets</h1>
+ * <p>
+ * The game's classes are in the default package, which JMH benchmarks (and
+ * any other package) can't import. Each piece of game code being measured is
+ * called through this interface instead, implemented by a class in the
+ * default package. It only ever has one implementation, so the JIT compiler
+ * inlines the calls and they cost nothing extra.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+public interface PokerTargets {
+
+	/**
+	 * Scores seven cards the way PlayerHandler used to (every combination of
+	 * five cards, scored and sorted).
+	 * 
+	 * @param cards
+	 *            The index of each of the seven cards.
+	 * @return the strength of the best pokerhand.
+	 */
+	int evaluateLegacy(int[] cards);
+
+	/**
+	 * Scores seven cards with the HandEvaluator.
+	 * 
+	 * @param cards
+	 *            The mask of the seven cards.
+	 * @return the strength of the best pokerhand.
+	 */
+	int evaluate(long cards);
+
+	/**
+	 * Scores seven cards by adding them one at a time to a HandState, the way
+	 * a player's hand is kept up to date as the cards are dealt.
+	 * 
+	 * @param cards
+	 *            The index of each of the seven cards.
+	 * @return the strength of the best pokerhand.
+	 */
+	int evaluateIncremental(int[] cards);
+
+	/**
+	 * Shuffles a deck and deals a round (two cards each, then the table).
+	 * 
+	 * @param numPlayers
+	 *            The number of players.
+	 * @return the sum of the indexes of the cards dealt.
+	 */
+	int dealRound(int numPlayers);
+
+	/**
+	 * Gets the pokerhands of the players, the way the server used to keep
+	 * them for finding the winners.
+	 * 
+	 * @param strengths
+	 *            The strength of each player's hand.
+	 * @return the players' pokerhands.
+	 */
+	Object legacyShowdown(int[] strengths);
+
+	/**
+	 * Finds the winners the way the server used to (copying and sorting the
+	 * players, then looking back for ties).
+	 * 
+	 * @param legacyShowdown
+	 *            The players' pokerhands, from legacyShowdown().
+	 * @return the number of winners.
+	 */
+	int winnersLegacy(Object legacyShowdown);
+
+	/**
+	 * Finds the winners with a Showdown.
+	 * 
+	 * @param strengths
+	 *            The strength of each player's hand.
+	 * @return the number of winners.
+	 */
+	int winners(int[] strengths);
+
+	/**
+	 * Sends what a client is told after a player raises (the pot and who is
+	 * to act, their own chips, and the raise) the way the server used to,
+	 * building a string for each line.
+	 * 
+	 * @param player
+	 *            The player who raised.
+	 * @param numbers
+	 *            The pot, the current bet, the client's chips, the amount
+	 *            they have to call, and the amount raised.
+	 * @return the number of bytes sent.
+	 */
+	int sendLegacy(String player, int[] numbers);
+
+	/**
+	 * Sends the same messages as sendLegacy() in the text protocol, encoded
+	 * straight into the bytes to be written.
+	 */
+	int sendText(String player, int[] numbers);
+
+	/**
+	 * Sends the same messages as sendLegacy() in the binary protocol.
+	 */
+	int sendBinary(String player, int[] numbers);
+
+	/**
+	 * Returns the bytes the last send method sent.
+	 * 
+	 * @return a copy of the bytes.
+	 */
+	byte[] sent();
+
+	/**
+	 * Reads the lines sent by sendLegacy() the way the client used to: a
+	 * string for each line, checked against each type in turn, and the
+	 * numbers taken out with substring() and parseInt().
+	 * 
+	 * @param bytes
+	 *            The bytes sent.
+	 * @return the sum of the numbers read.
+	 */
+	int receiveLegacy(byte[] bytes);
+
+	/**
+	 * Reads the frames sent by sendBinary() with a MessageDecoder.
+	 * 
+	 * @param bytes
+	 *            The bytes sent.
+	 * @return the sum of the numbers read.
+	 */
+	int receiveBinary(byte[] bytes);
+}
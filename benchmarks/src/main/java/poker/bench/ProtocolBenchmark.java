@@ -0,0 +1,113 @@
+package poker.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <h1>ProtocolBenchmark</h1>
+ * <p>
+ * Measures how fast the server sends, and a client reads, what a client is
+ * told after a player raises (three messages): the way they used to (a
+ * string built for each line, then read back with substring() and
+ * parseInt()), in the text protocol encoded straight into bytes, and in the
+ * binary protocol. Each operation is one raise, and the player names and
+ * amounts come from a seeded Random, so every run sends the same messages.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolBenchmark {
+	private static final String[] NAMES = { "Alex", "Sam", "Jordan",
+			"Charlie", "Robin", "Kim" };
+
+	private PokerTargets targets;
+	private String[] players = new String[HandCorpus.SIZE];
+	private int[][] numbers = new int[HandCorpus.SIZE][];
+	private byte[][] legacyBytes = new byte[HandCorpus.SIZE][];
+	private byte[][] binaryBytes = new byte[HandCorpus.SIZE][];
+
+	@Setup
+	public void setUp() {
+		targets = HandCorpus.targets();
+		Random random = new Random(HandCorpus.SEED);
+		for (int i = 0; i < HandCorpus.SIZE; i++) {
+			players[i] = NAMES[random.nextInt(NAMES.length)];
+			int raise = 10 * (1 + random.nextInt(100));
+			numbers[i] = new int[] { random.nextInt(20000), raise,
+					random.nextInt(10000), raise, raise };
+			targets.sendLegacy(players[i], numbers[i]);
+			legacyBytes[i] = targets.sent();
+			targets.sendBinary(players[i], numbers[i]);
+			binaryBytes[i] = targets.sent();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HandCorpus.SIZE)
+	public int sendLegacy() {
+		int sum = 0;
+		for (int i = 0; i < HandCorpus.SIZE; i++) {
+			sum += targets.sendLegacy(players[i], numbers[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HandCorpus.SIZE)
+	public int sendText() {
+		int sum = 0;
+		for (int i = 0; i < HandCorpus.SIZE; i++) {
+			sum += targets.sendText(players[i], numbers[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HandCorpus.SIZE)
+	public int sendBinary() {
+		int sum = 0;
+		for (int i = 0; i < HandCorpus.SIZE; i++) {
+			sum += targets.sendBinary(players[i], numbers[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HandCorpus.SIZE)
+	public int receiveLegacy() {
+		int sum = 0;
+		for (byte[] bytes : legacyBytes) {
+			sum += targets.receiveLegacy(bytes);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HandCorpus.SIZE)
+	public int receiveBinary() {
+		int sum = 0;
+		for (byte[] bytes : binaryBytes) {
+			sum += targets.receiveBinary(bytes);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,84 @@
+package poker.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <h1>ShowdownBenchmark</h1>
+ * <p>
+ * Measures how fast the winners of a round are found once every player's
+ * hand is known: the way getWinners used to (copying and sorting the
+ * players), and with a Showdown. Each operation is one round of the corpus.
+ * </p>
+ * 
+ * @author Alex Wong
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShowdownBenchmark {
+	@Param({ "2", "6", "10" })
+	private int numPlayers;
+
+	private PokerTargets targets;
+	private int[][] strengths;
+	private Object[] legacyShowdowns;
+
+	@Setup
+	public void setUp() {
+		targets = HandCorpus.targets();
+		// each round of the corpus is the players' two cards and the table
+		int[][] rounds = HandCorpus.hands(2 * numPlayers + 5);
+		strengths = new int[rounds.length][numPlayers];
+		legacyShowdowns = new Object[rounds.length];
+		for (int round = 0; round < rounds.length; round++) {
+			long table = 0;
+			for (int i = 2 * numPlayers; i < rounds[round].length; i++) {
+				table |= 1L << rounds[round][i];
+			}
+			for (int player = 0; player < numPlayers; player++) {
+				long hand = 1L << rounds[round][2 * player]
+						| 1L << rounds[round][2 * player + 1];
+				strengths[round][player] = targets.evaluate(hand | table);
+			}
+			legacyShowdowns[round] = targets
+					.legacyShowdown(strengths[round]);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HandCorpus.SIZE)
+	public int legacy() {
+		int sum = 0;
+		for (Object legacyShowdown : legacyShowdowns) {
+			sum += targets.winnersLegacy(legacyShowdown);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HandCorpus.SIZE)
+	public int showdown() {
+		int sum = 0;
+		for (int[] roundStrengths : strengths) {
+			sum += targets.winners(roundStrengths);
+		}
+		return sum;
+	}
+}